@@ -46,7 +46,7 @@ public abstract class AbstractRequireElementAuthorizer<E extends Object> extends
 
     public void setElements(final List<E> elements) {
         if (elements != null) {
-            this.elements = new HashSet<>(elements);
+            setElements(new HashSet<>(elements));
         }
     }
 
@@ -6,6 +6,7 @@ import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.profile.UserProfile;
 
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Arrays.asList;
 
@@ -32,6 +33,33 @@ public class AndAuthorizer implements Authorizer {
         return true;
     }
 
+    @Override
+    public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                final Map<Authorizer, Boolean> decisions) {
+        var decision = decisions.get(this);
+        if (decision == null) {
+            decision = true;
+            for (var authorizer : authorizers) {
+                if (!authorizer.isAuthorized(context, sessionStore, profiles, decisions)) {
+                    decision = false;
+                    break;
+                }
+            }
+            decisions.put(this, decision);
+        }
+        return decision;
+    }
+
+    @Override
+    public boolean isRequestDependent() {
+        for (var authorizer : authorizers) {
+            if (authorizer.isRequestDependent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static Authorizer and(Authorizer... authorizers) {
         return new AndAuthorizer(asList(authorizers));
     }
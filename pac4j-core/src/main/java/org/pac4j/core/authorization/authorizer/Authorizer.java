@@ -5,6 +5,7 @@ import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.profile.UserProfile;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Checks if an access is authorized.
@@ -24,4 +25,36 @@ public interface Authorizer {
      * @return if the access is authorized
      */
     boolean isAuthorized(WebContext context, SessionStore sessionStore, List<UserProfile> profiles);
+
+    /**
+     * Checks if the user profiles and / or the current web context are authorized, reusing the decisions already
+     * taken for the same authorizers (compared by identity) when evaluating several authorizations at once.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param profiles the user profiles
+     * @param decisions the decisions already taken (updated with the new ones)
+     * @return if the access is authorized
+     * @since 6.0.0
+     */
+    default boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                 final Map<Authorizer, Boolean> decisions) {
+        var decision = decisions.get(this);
+        if (decision == null) {
+            decision = isAuthorized(context, sessionStore, profiles);
+            decisions.put(this, decision);
+        }
+        return decision;
+    }
+
+    /**
+     * Whether the decision depends on the current request (like the CSRF check) and not only on the user profiles.
+     * Such decisions are never cached. Unless overridden, an authorizer is considered as request-dependent.
+     *
+     * @return whether the decision depends on the request
+     * @since 6.0.0
+     */
+    default boolean isRequestDependent() {
+        return true;
+    }
 }
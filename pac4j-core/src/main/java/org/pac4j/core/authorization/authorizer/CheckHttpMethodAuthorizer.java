@@ -31,6 +31,11 @@ public class CheckHttpMethodAuthorizer extends AbstractRequireAnyAuthorizer<Http
         setElements(methods);
     }
 
+    @Override
+    public boolean isRequestDependent() {
+        return true;
+    }
+
     @Override
     protected boolean check(final WebContext context, final SessionStore sessionStore, final UserProfile profile,
                             final HttpConstants.HTTP_METHOD element) {
@@ -29,6 +29,16 @@ public class CheckProfileTypeAuthorizer extends AbstractRequireAnyAuthorizer<Cla
         setElements(types);
     }
 
+    /**
+     * Only depends on the user profiles (unless subclassed: the subclasses must opt in the decision cache).
+     *
+     * @return whether the decision depends on the request
+     */
+    @Override
+    public boolean isRequestDependent() {
+        return getClass() != CheckProfileTypeAuthorizer.class && super.isRequestDependent();
+    }
+
     @Override
     protected boolean check(final WebContext context, final SessionStore sessionStore, final UserProfile profile, final Class element) {
         return profile.getClass().isAssignableFrom(element);
@@ -0,0 +1,55 @@
+package org.pac4j.core.authorization.authorizer;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.List;
+
+import static org.pac4j.core.context.WebContextHelper.*;
+
+/**
+ * Authorizer that checks the stateless CSRF tokens generated by the {@link HmacCsrfTokenGenerator}:
+ * no data is read from or written into the session (except its identifier).
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+@Slf4j
+public class HmacCsrfAuthorizer extends CsrfAuthorizer {
+
+    private HmacCsrfTokenGenerator csrfTokenGenerator;
+
+    public HmacCsrfAuthorizer() {}
+
+    public HmacCsrfAuthorizer(final HmacCsrfTokenGenerator csrfTokenGenerator) {
+        this.csrfTokenGenerator = csrfTokenGenerator;
+    }
+
+    @Override
+    public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
+        CommonHelper.assertNotNull("csrfTokenGenerator", csrfTokenGenerator);
+        val checkRequest = isCheckAllRequests() || isPost(context) || isPut(context) || isPatch(context) || isDelete(context);
+        if (checkRequest) {
+            val parameterToken = context.getRequestParameter(getParameterName()).orElse(null);
+            val headerToken = context.getRequestHeader(getHeaderName()).orElse(null);
+            LOGGER.debug("parameterToken: {}", parameterToken);
+            LOGGER.debug("headerToken: {}", headerToken);
+            // both tokens are always checked
+            val isGoodParameterToken = csrfTokenGenerator.isValid(parameterToken, context, sessionStore);
+            val isGoodHeaderToken = csrfTokenGenerator.isValid(headerToken, context, sessionStore);
+            return isGoodParameterToken | isGoodHeaderToken;
+        }
+        return true;
+    }
+}
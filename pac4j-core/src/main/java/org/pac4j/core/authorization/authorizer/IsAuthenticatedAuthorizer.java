@@ -27,6 +27,16 @@ public class IsAuthenticatedAuthorizer extends AbstractCheckAuthenticationAuthor
         return isAnyAuthorized(context, sessionStore, profiles);
     }
 
+    /**
+     * Only depends on the user profiles (unless subclassed: the subclasses must opt in the decision cache).
+     *
+     * @return whether the decision depends on the request
+     */
+    @Override
+    public boolean isRequestDependent() {
+        return getClass() != IsAuthenticatedAuthorizer.class && super.isRequestDependent();
+    }
+
     @Override
     public boolean isProfileAuthorized(final WebContext context, final SessionStore sessionStore, final UserProfile profile) {
         return profile != null && !(profile instanceof AnonymousProfile);
@@ -26,6 +26,16 @@ public class IsRememberedAuthorizer extends AbstractCheckAuthenticationAuthorize
         return isAnyAuthorized(context, sessionStore, profiles);
     }
 
+    /**
+     * Only depends on the user profiles (unless subclassed: the subclasses must opt in the decision cache).
+     *
+     * @return whether the decision depends on the request
+     */
+    @Override
+    public boolean isRequestDependent() {
+        return getClass() != IsRememberedAuthorizer.class && super.isRequestDependent();
+    }
+
     @Override
     public boolean isProfileAuthorized(final WebContext context, final SessionStore sessionStore, final UserProfile profile) {
         return profile != null && !(profile instanceof AnonymousProfile) && profile.isRemembered();
@@ -7,6 +7,7 @@ import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.profile.UserProfile;
 
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Arrays.asList;
 
@@ -33,6 +34,33 @@ public class OrAuthorizer implements Authorizer {
         return false;
     }
 
+    @Override
+    public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                final Map<Authorizer, Boolean> decisions) {
+        var decision = decisions.get(this);
+        if (decision == null) {
+            decision = false;
+            for (val authorizer : authorizers) {
+                if (authorizer.isAuthorized(context, sessionStore, profiles, decisions)) {
+                    decision = true;
+                    break;
+                }
+            }
+            decisions.put(this, decision);
+        }
+        return decision;
+    }
+
+    @Override
+    public boolean isRequestDependent() {
+        for (val authorizer : authorizers) {
+            if (authorizer.isRequestDependent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static OrAuthorizer or(Authorizer... authorizers) {
         return new OrAuthorizer(asList(authorizers));
     }
@@ -15,6 +15,8 @@ import java.util.List;
  */
 public abstract class ProfileAuthorizer implements Authorizer {
 
+    private boolean requestDependent = true;
+
     /**
      * If all profiles are authorized.
      *
@@ -24,8 +26,9 @@ public abstract class ProfileAuthorizer implements Authorizer {
      * @return whether all profiles are authorized
      */
     public boolean isAllAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
-        for (val profile : profiles) {
-            if (!isProfileAuthorized(context, sessionStore, profile)) {
+        val nb = profiles.size();
+        for (var i = 0; i < nb; i++) {
+            if (!isProfileAuthorized(context, sessionStore, profiles.get(i))) {
                 return handleError(context, sessionStore);
             }
         }
@@ -41,8 +44,9 @@ public abstract class ProfileAuthorizer implements Authorizer {
      * @return whether any of the profiles is authorized
      */
     public boolean isAnyAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
-        for (val profile : profiles) {
-            if (isProfileAuthorized(context, sessionStore, profile)) {
+        val nb = profiles.size();
+        for (var i = 0; i < nb; i++) {
+            if (isProfileAuthorized(context, sessionStore, profiles.get(i))) {
                 return true;
             }
         }
@@ -59,6 +63,21 @@ public abstract class ProfileAuthorizer implements Authorizer {
      */
     protected abstract boolean isProfileAuthorized(WebContext context, SessionStore sessionStore, UserProfile profile);
 
+    /**
+     * Whether the decision depends on the current request and not only on the user profiles (<code>true</code> by default).
+     * The subclasses which only check the profiles can opt in the decision cache via {@link #setRequestDependent(boolean)}.
+     *
+     * @return whether the decision depends on the request
+     */
+    @Override
+    public boolean isRequestDependent() {
+        return requestDependent;
+    }
+
+    public void setRequestDependent(final boolean requestDependent) {
+        this.requestDependent = requestDependent;
+    }
+
     /**
      * Handle the error.
      *
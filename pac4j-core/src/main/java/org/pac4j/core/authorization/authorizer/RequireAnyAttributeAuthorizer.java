@@ -7,6 +7,7 @@ import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.CommonHelper;
 
 import java.util.Collection;
+import java.util.regex.Pattern;
 
 /**
  * This is {@link RequireAnyAttributeAuthorizer} which checks profile
@@ -21,12 +22,25 @@ import java.util.Collection;
 public class RequireAnyAttributeAuthorizer extends AbstractRequireAnyAuthorizer<String> {
     private final String valueToMatch;
 
+    private final Pattern pattern;
+
     public RequireAnyAttributeAuthorizer() {
         this(".+");
     }
 
     public RequireAnyAttributeAuthorizer(final String valueToMatch) {
         this.valueToMatch = valueToMatch;
+        this.pattern = CommonHelper.isNotBlank(valueToMatch) ? Pattern.compile(valueToMatch) : null;
+    }
+
+    /**
+     * Only depends on the user profiles (unless subclassed: the subclasses must opt in the decision cache).
+     *
+     * @return whether the decision depends on the request
+     */
+    @Override
+    public boolean isRequestDependent() {
+        return getClass() != RequireAnyAttributeAuthorizer.class && super.isRequestDependent();
     }
 
     @Override
@@ -35,17 +49,24 @@ public class RequireAnyAttributeAuthorizer extends AbstractRequireAnyAuthorizer<
             return false;
         }
 
-        if (CommonHelper.isBlank(this.valueToMatch)) {
+        if (this.pattern == null) {
             return true;
         }
 
         val attributeValues = profile.getAttribute(element);
-        if (attributeValues instanceof Collection) {
-            return Collection.class.cast(attributeValues)
-                    .stream()
-                    .anyMatch(v -> v.toString().matches(this.valueToMatch));
+        if (attributeValues instanceof Collection<?> values) {
+            for (val value : values) {
+                if (matches(value)) {
+                    return true;
+                }
+            }
+            return false;
         }
-        return attributeValues.toString().matches(this.valueToMatch);
+        return matches(attributeValues);
+    }
+
+    private boolean matches(final Object value) {
+        return this.pattern.matcher(value.toString()).matches();
     }
 
     public static RequireAnyAttributeAuthorizer requireAnyAttribute(String valueToMatch) {
@@ -3,8 +3,11 @@ package org.pac4j.core.authorization.authorizer;
 import lombok.val;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.profile.CompiledRoles;
 import org.pac4j.core.profile.UserProfile;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -28,16 +31,51 @@ public class RequireAnyRoleAuthorizer extends AbstractRequireAnyAuthorizer<Strin
 
     public RequireAnyRoleAuthorizer(final Set<String> roles) { setElements(roles); }
 
+    private volatile CompiledRoles compiledRoles;
+
     @Override
-    protected boolean check(final WebContext context, final SessionStore sessionStore, final UserProfile profile, final String element) {
-        val profileRoles = profile.getRoles();
-        if( profileRoles.isEmpty() ) {
-            return false;
+    protected boolean isProfileAuthorized(final WebContext context, final SessionStore sessionStore, final UserProfile profile) {
+        // the compiled roles are only used if the check method cannot be overridden
+        val compiled = this.compiledRoles;
+        if (compiled == null || elements.isEmpty() || getClass() != RequireAnyRoleAuthorizer.class) {
+            return super.isProfileAuthorized(context, sessionStore, profile);
         }
-        if( element == null ) {
-            return true;
+        return compiled.isAnyRoleOf(profile);
+    }
+
+    /**
+     * Set the required roles: they are copied (read-only) and compiled as a bitset.
+     *
+     * @param elements the required roles
+     */
+    @Override
+    public void setElements(final Set<String> elements) {
+        if (elements == null) {
+            super.setElements((Set<String>) null);
+            this.compiledRoles = null;
+        } else {
+            val roles = Collections.unmodifiableSet(new HashSet<>(elements));
+            super.setElements(roles);
+            this.compiledRoles = CompiledRoles.compile(roles);
+        }
+    }
+
+    /**
+     * Only depends on the user profiles (unless subclassed: the subclasses must opt in the decision cache).
+     *
+     * @return whether the decision depends on the request
+     */
+    @Override
+    public boolean isRequestDependent() {
+        return getClass() != RequireAnyRoleAuthorizer.class && super.isRequestDependent();
+    }
+
+    @Override
+    protected boolean check(final WebContext context, final SessionStore sessionStore, final UserProfile profile, final String element) {
+        if (element == null) {
+            return profile.hasRoles();
         }
-        return profileRoles.contains(element);
+        return profile.hasRole(element);
     }
 
     public static RequireAnyRoleAuthorizer requireAnyRole(String ... roles) {
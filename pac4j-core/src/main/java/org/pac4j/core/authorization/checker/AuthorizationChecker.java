@@ -1,11 +1,13 @@
 package org.pac4j.core.authorization.checker;
 
+import lombok.val;
 import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.profile.UserProfile;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -31,4 +33,28 @@ public interface AuthorizationChecker {
      */
     boolean isAuthorized(WebContext context, SessionStore sessionStore, List<UserProfile> profiles, String authorizerNames,
                          Map<String, Authorizer> authorizersMap, List<Client> clients);
+
+    /**
+     * Check whether the user is authorized for each authorizers value (for example, for a list of resources).
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param profiles the profile
+     * @param authorizerNamesList the authorizers values
+     * @param authorizersMap the map of authorizers
+     * @param clients the clients
+     * @return the bitset of the authorizations: the bit at the index of an authorizers value is set if the user is authorized
+     * @since 6.0.0
+     */
+    default BitSet isAuthorizedForEach(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                       final List<String> authorizerNamesList, final Map<String, Authorizer> authorizersMap,
+                                       final List<Client> clients) {
+        val authorizations = new BitSet(authorizerNamesList.size());
+        for (var i = 0; i < authorizerNamesList.size(); i++) {
+            if (isAuthorized(context, sessionStore, profiles, authorizerNamesList.get(i), authorizersMap, clients)) {
+                authorizations.set(i);
+            }
+        }
+        return authorizations;
+    }
 }
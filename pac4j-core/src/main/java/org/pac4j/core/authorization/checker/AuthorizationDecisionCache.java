@@ -0,0 +1,172 @@
+package org.pac4j.core.authorization.checker;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.profile.BasicUserProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of the authorization decisions of the {@link DefaultAuthorizationChecker}, per session.
+ *
+ * A decision is cached for a session, its user profiles (compared by identity and modification count: any change of the profiles
+ * leads to a new decision) and a set of authorizers (compared by identity). The key references the profiles, it does not copy them.
+ * The decisions are never cached for the request-dependent authorizers, the expired profiles, the profiles which are not
+ * {@link BasicUserProfile} (no modification count) and without session.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@ToString
+public class AuthorizationDecisionCache extends InitializableObject {
+
+    private Store<Key, Boolean> store;
+
+    private int cacheSize = 10000;
+
+    private int timeout = 5;
+
+    private TimeUnit timeUnit = TimeUnit.MINUTES;
+
+    public AuthorizationDecisionCache() {}
+
+    public AuthorizationDecisionCache(final Store<Key, Boolean> store) {
+        this.store = store;
+    }
+
+    public AuthorizationDecisionCache(final int cacheSize, final int timeout, final TimeUnit timeUnit) {
+        this.cacheSize = cacheSize;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        if (this.store == null) {
+            this.store = new GuavaStore<>(cacheSize, timeout, timeUnit);
+        }
+    }
+
+    /**
+     * Compute the key of the decision.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param profiles the user profiles
+     * @param authorizers the authorizers (none of them must be request-dependent)
+     * @return the key (empty if the decision must not be cached)
+     */
+    public Optional<Key> computeKey(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                    final List<Authorizer> authorizers) {
+        CommonHelper.assertNotNull("profiles", profiles);
+        CommonHelper.assertNotNull("authorizers", authorizers);
+
+        val nb = profiles.size();
+        for (var i = 0; i < nb; i++) {
+            val profile = profiles.get(i);
+            if (!(profile instanceof BasicUserProfile) || profile.isExpired()) {
+                return Optional.empty();
+            }
+        }
+        val sessionId = sessionStore.getSessionId(context, false);
+        if (sessionId.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Key(sessionId.get(), profiles, authorizers));
+    }
+
+    public Optional<Boolean> get(final Key key) {
+        init();
+
+        return store.get(key);
+    }
+
+    public void set(final Key key, final boolean decision) {
+        init();
+
+        store.set(key, decision);
+    }
+
+    /**
+     * The key of a decision.
+     */
+    @ToString(onlyExplicitlyIncluded = true)
+    public static final class Key {
+
+        @ToString.Include
+        private final String sessionId;
+
+        private final Authorizer[] authorizers;
+
+        private final UserProfile[] profiles;
+
+        private final int[] modificationCounts;
+
+        private final int hash;
+
+        private Key(final String sessionId, final List<UserProfile> profiles, final List<Authorizer> authorizers) {
+            this.sessionId = sessionId;
+            this.authorizers = authorizers.toArray(new Authorizer[0]);
+            val nb = profiles.size();
+            this.profiles = new UserProfile[nb];
+            this.modificationCounts = new int[nb];
+            var h = sessionId.hashCode();
+            for (var i = 0; i < nb; i++) {
+                val profile = profiles.get(i);
+                this.profiles[i] = profile;
+                this.modificationCounts[i] = ((BasicUserProfile) profile).getModificationCount();
+                h = 31 * h + System.identityHashCode(profile);
+                h = 31 * h + this.modificationCounts[i];
+            }
+            for (val authorizer : this.authorizers) {
+                h = 31 * h + System.identityHashCode(authorizer);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            if (hash != key.hash || authorizers.length != key.authorizers.length || profiles.length != key.profiles.length
+                || !sessionId.equals(key.sessionId) || !Arrays.equals(modificationCounts, key.modificationCounts)) {
+                return false;
+            }
+            for (var i = 0; i < profiles.length; i++) {
+                if (profiles[i] != key.profiles[i]) {
+                    return false;
+                }
+            }
+            for (var i = 0; i < authorizers.length; i++) {
+                if (authorizers[i] != key.authorizers[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
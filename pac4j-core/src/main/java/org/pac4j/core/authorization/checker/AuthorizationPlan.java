@@ -0,0 +1,37 @@
+package org.pac4j.core.authorization.checker;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import org.pac4j.core.authorization.authorizer.Authorizer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The authorizers resolved once from their names by the {@link DefaultAuthorizationChecker}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@ToString(exclude = "authorizersByDefaultNames")
+public final class AuthorizationPlan {
+
+    private final List<Authorizer> authorizers;
+
+    private final boolean withDefaultAuthorizers;
+
+    private final Map<String, Authorizer> authorizersMap;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Map<String, List<Authorizer>> authorizersByDefaultNames = new ConcurrentHashMap<>();
+
+    AuthorizationPlan(final List<Authorizer> authorizers, final boolean withDefaultAuthorizers,
+                      final Map<String, Authorizer> authorizersMap) {
+        this.authorizers = authorizers;
+        this.withDefaultAuthorizers = withDefaultAuthorizers;
+        this.authorizersMap = authorizersMap;
+    }
+}
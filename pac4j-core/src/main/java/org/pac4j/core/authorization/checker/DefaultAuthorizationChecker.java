@@ -1,5 +1,7 @@
 package org.pac4j.core.authorization.checker;
 
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.authorization.authorizer.*;
@@ -12,6 +14,10 @@ import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +26,9 @@ import static org.pac4j.core.util.CommonHelper.*;
 /**
  * Default way to check the authorizations (with default authorizers).
  *
+ * The decisions of the authorizers which are not request-dependent can be cached (<code>decisionCache</code>):
+ * the authorizers are still checked in their configured order, each run of consecutive cacheable authorizers having its own decision.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -32,6 +41,19 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
     protected static final IsFullyAuthenticatedAuthorizer IS_FULLY_AUTHENTICATED_AUTHORIZER = new IsFullyAuthenticatedAuthorizer();
     protected static final IsRememberedAuthorizer IS_REMEMBERED_AUTHORIZER = new IsRememberedAuthorizer();
 
+    private static final String CSRF_CHECK_AND_IS_AUTHENTICATED =
+        DefaultAuthorizers.CSRF_CHECK + Pac4jConstants.ELEMENT_SEPARATOR + DefaultAuthorizers.IS_AUTHENTICATED;
+
+    @Getter
+    @Setter
+    private AuthorizationDecisionCache decisionCache;
+
+    public DefaultAuthorizationChecker() {}
+
+    public DefaultAuthorizationChecker(final AuthorizationDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
     @Override
     public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
                                 final String authorizersValue, final Map<String, Authorizer> authorizersMap, final List<Client> clients) {
@@ -40,6 +62,104 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
         return isAuthorized(context, sessionStore, profiles, authorizers);
     }
 
+    /**
+     * Check whether the user is authorized for each authorizers value: each distinct value is resolved once
+     * and each authorizer (even shared by several values or composite authorizers) is evaluated at most once.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param profiles the profile
+     * @param authorizerNamesList the authorizers values
+     * @param authorizersMap the map of authorizers
+     * @param clients the clients
+     * @return the bitset of the authorizations
+     */
+    @Override
+    public BitSet isAuthorizedForEach(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                      final List<String> authorizerNamesList, final Map<String, Authorizer> authorizersMap,
+                                      final List<Client> clients) {
+        assertTrue(isNotEmpty(profiles), "profiles must not be null or empty");
+        assertNotNull("authorizerNamesList", authorizerNamesList);
+
+        val nb = authorizerNamesList.size();
+        val authorizations = new BitSet(nb);
+        final Map<String, Boolean> authorizationsByValue = new HashMap<>();
+        final Map<Authorizer, Boolean> decisions = new IdentityHashMap<>();
+        for (var i = 0; i < nb; i++) {
+            val authorizersValue = authorizerNamesList.get(i);
+            var isAuthorized = authorizationsByValue.get(authorizersValue);
+            if (isAuthorized == null) {
+                val authorizers = computeAuthorizers(context, profiles, authorizersValue, authorizersMap, clients);
+                isAuthorized = true;
+                for (val authorizer : authorizers) {
+                    if (!authorizer.isAuthorized(context, sessionStore, profiles, decisions)) {
+                        isAuthorized = false;
+                        break;
+                    }
+                }
+                authorizationsByValue.put(authorizersValue, isAuthorized);
+            }
+            if (isAuthorized) {
+                authorizations.set(i);
+            }
+        }
+        LOGGER.debug("Authorizations for {}: {}", authorizerNamesList, authorizations);
+        return authorizations;
+    }
+
+    /**
+     * Resolve the authorizers once from their names (the default authorizers are computed at each check).
+     *
+     * @param authorizersValue the authorizers
+     * @param authorizersMap the map of authorizers
+     * @return the authorization plan
+     */
+    public AuthorizationPlan compile(final String authorizersValue, final Map<String, Authorizer> authorizersMap) {
+        final List<Authorizer> authorizers;
+        final boolean withDefaultAuthorizers;
+        if (isBlank(authorizersValue)) {
+            authorizers = new ArrayList<>();
+            withDefaultAuthorizers = true;
+        } else if (authorizersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT)) {
+            authorizers = computeAuthorizersFromNames(substringAfter(authorizersValue, Pac4jConstants.ADD_ELEMENT), authorizersMap);
+            withDefaultAuthorizers = true;
+        } else {
+            authorizers = computeAuthorizersFromNames(authorizersValue, authorizersMap);
+            withDefaultAuthorizers = false;
+        }
+        return new AuthorizationPlan(Collections.unmodifiableList(authorizers), withDefaultAuthorizers, authorizersMap);
+    }
+
+    /**
+     * Check whether the user is authorized using an authorization plan.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param profiles the profiles
+     * @param plan the authorization plan
+     * @param clients the clients
+     * @return whether the user is authorized
+     */
+    public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                final AuthorizationPlan plan, final List<Client> clients) {
+        List<Authorizer> authorizers;
+        if (plan.isWithDefaultAuthorizers()) {
+            val authorizersMap = plan.getAuthorizersMap();
+            val defaultAuthorizerNames = computeDefaultAuthorizerNames(context, profiles, clients, authorizersMap);
+            val authorizersByDefaultNames = plan.getAuthorizersByDefaultNames();
+            authorizers = authorizersByDefaultNames.get(defaultAuthorizerNames);
+            if (authorizers == null) {
+                val allAuthorizers = computeAuthorizersFromNames(defaultAuthorizerNames, authorizersMap);
+                allAuthorizers.addAll(plan.getAuthorizers());
+                authorizers = Collections.unmodifiableList(allAuthorizers);
+                authorizersByDefaultNames.put(defaultAuthorizerNames, authorizers);
+            }
+        } else {
+            authorizers = plan.getAuthorizers();
+        }
+        return isAuthorized(context, sessionStore, profiles, authorizers);
+    }
+
     protected List<Authorizer> computeAuthorizers(final WebContext context, final List<UserProfile> profiles, final String authorizersValue,
                                                   final Map<String, Authorizer> authorizersMap, final List<Client> clients) {
         final List<Authorizer> authorizers;
@@ -59,14 +179,18 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
 
     protected List<Authorizer> computeDefaultAuthorizers(final WebContext context, final List<UserProfile> profiles,
                                                          final List<Client> clients, final Map<String, Authorizer> authorizersMap) {
-        val authorizers = new ArrayList<Authorizer>();
-        if (containsClientType(clients, IndirectClient.class)) {
-            authorizers.add(retrieveAuthorizer(DefaultAuthorizers.CSRF_CHECK, authorizersMap));
-        }
-        if (!containsClientType(clients, AnonymousClient.class)) {
-            authorizers.add(retrieveAuthorizer(DefaultAuthorizers.IS_AUTHENTICATED, authorizersMap));
+        return computeAuthorizersFromNames(computeDefaultAuthorizerNames(context, profiles, clients, authorizersMap), authorizersMap);
+    }
+
+    protected String computeDefaultAuthorizerNames(final WebContext context, final List<UserProfile> profiles,
+                                                   final List<Client> clients, final Map<String, Authorizer> authorizersMap) {
+        val csrfCheck = containsClientType(clients, IndirectClient.class);
+        val isAuthenticated = !containsClientType(clients, AnonymousClient.class);
+        if (csrfCheck) {
+            return isAuthenticated ? CSRF_CHECK_AND_IS_AUTHENTICATED : DefaultAuthorizers.CSRF_CHECK;
+        } else {
+            return isAuthenticated ? DefaultAuthorizers.IS_AUTHENTICATED : DefaultAuthorizers.NONE;
         }
-        return authorizers;
     }
 
     protected List<Authorizer> computeAuthorizersFromNames(final String authorizerNames, final Map<String, Authorizer> authorizersMap) {
@@ -87,11 +211,13 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
     }
 
     protected Authorizer retrieveAuthorizer(final String authorizerName, final Map<String, Authorizer> authorizersMap) {
-        Authorizer authorizer = null;
-        for (val entry : authorizersMap.entrySet()) {
-            if (areEqualsIgnoreCaseAndTrim(entry.getKey(), authorizerName)) {
-                authorizer = entry.getValue();
-                break;
+        var authorizer = authorizersMap.get(authorizerName);
+        if (authorizer == null) {
+            for (val entry : authorizersMap.entrySet()) {
+                if (areEqualsIgnoreCaseAndTrim(entry.getKey(), authorizerName)) {
+                    authorizer = entry.getValue();
+                    break;
+                }
             }
         }
         if (authorizer == null) {
@@ -111,8 +237,10 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
     }
 
     protected boolean containsClientType(final List<Client> clients, final Class<? extends Client> clazz) {
-        for (val client : clients) {
-            if (clazz.isAssignableFrom(client.getClass())) {
+        // indexed loop: no iterator on the hot path
+        val nb = clients.size();
+        for (var i = 0; i < nb; i++) {
+            if (clazz.isAssignableFrom(clients.get(i).getClass())) {
                 return true;
             }
         }
@@ -124,15 +252,75 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
         // authorizations check comes after authentication and profile must not be null nor empty
         assertTrue(isNotEmpty(profiles), "profiles must not be null or empty");
         if (isNotEmpty(authorizers)) {
+            if (decisionCache != null) {
+                return isAuthorizedWithCache(context, sessionStore, profiles, authorizers);
+            }
             // check authorizations using authorizers: all must be satisfied
-            for (var authorizer : authorizers) {
-                val isAuthorized = authorizer.isAuthorized(context, sessionStore, profiles);
-                LOGGER.debug("Checking authorizer: {} -> {}", authorizer, isAuthorized);
-                if (!isAuthorized) {
+            val nb = authorizers.size();
+            for (var i = 0; i < nb; i++) {
+                if (!checkAuthorizer(context, sessionStore, profiles, authorizers.get(i))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    protected boolean isAuthorizedWithCache(final WebContext context, final SessionStore sessionStore,
+                                            final List<UserProfile> profiles, final List<Authorizer> authorizers) {
+        val nb = authorizers.size();
+        var i = 0;
+        while (i < nb) {
+            val authorizer = authorizers.get(i);
+            if (authorizer.isRequestDependent()) {
+                if (!checkAuthorizer(context, sessionStore, profiles, authorizer)) {
+                    return false;
+                }
+                i++;
+            } else {
+                // the run of consecutive cacheable authorizers
+                var end = i + 1;
+                while (end < nb && !authorizers.get(end).isRequestDependent()) {
+                    end++;
+                }
+                if (!isAuthorizedWithCache(context, sessionStore, profiles, authorizers, i, end)) {
                     return false;
                 }
+                i = end;
             }
         }
         return true;
     }
+
+    protected boolean isAuthorizedWithCache(final WebContext context, final SessionStore sessionStore,
+                                            final List<UserProfile> profiles, final List<Authorizer> authorizers,
+                                            final int start, final int end) {
+        val cacheableAuthorizers = authorizers.subList(start, end);
+        val key = decisionCache.computeKey(context, sessionStore, profiles, cacheableAuthorizers);
+        if (key.isPresent()) {
+            val decision = decisionCache.get(key.get());
+            if (decision.isPresent()) {
+                LOGGER.debug("Cached decision for {}: {}", key.get(), decision.get());
+                return decision.get();
+            }
+        }
+        var decision = true;
+        for (var i = start; i < end; i++) {
+            if (!checkAuthorizer(context, sessionStore, profiles, authorizers.get(i))) {
+                decision = false;
+                break;
+            }
+        }
+        if (key.isPresent()) {
+            decisionCache.set(key.get(), decision);
+        }
+        return decision;
+    }
+
+    protected boolean checkAuthorizer(final WebContext context, final SessionStore sessionStore,
+                                      final List<UserProfile> profiles, final Authorizer authorizer) {
+        val isAuthorized = authorizer.isAuthorized(context, sessionStore, profiles);
+        LOGGER.debug("Checking authorizer: {} -> {}", authorizer, isAuthorized);
+        return isAuthorized;
+    }
 }
@@ -0,0 +1,21 @@
+package org.pac4j.core.client;
+
+import java.util.Optional;
+
+/**
+ * Build a client from its name (for example from a tenant descriptor), for the {@link LazyClients}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@FunctionalInterface
+public interface ClientFactory {
+
+    /**
+     * Build a new (not initialized) client.
+     *
+     * @param name the client name
+     * @return the client or empty if no client is defined for this name
+     */
+    Optional<Client> newClient(String name);
+}
@@ -1,5 +1,6 @@
 package org.pac4j.core.client;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -14,27 +15,31 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
 
 /**
  * <p>This class is made to group multiple clients, generally on one callback url.</p>
  *
  * <p>Clients can be changed at any time.</p>
  *
+ * <p>The lookups are performed on an immutable snapshot of the clients (indexed by name), which is only rebuilt when they are
+ * changed through this object. The changes made directly to the list returned by {@link #getClients()} are only taken into
+ * account after a {@link #reinit()}. At runtime, the {@link #addClients(Client...)}, {@link #removeClients(String...)}
+ * and {@link #replaceClients(List)} methods atomically update the clients: they are checked and the new snapshot is built
+ * before being published.</p>
+ *
  * @author Jerome Leleu
  * @since 1.3.0
  */
 @Slf4j
 @Getter
 @Setter
-@ToString
+@ToString(exclude = "snapshot")
 public class Clients extends InitializableObject {
 
     private volatile List<Client> clients = new ArrayList<>();
 
-    private Map<String, Client> clientsMap;
-
-    private volatile Integer oldClientsHash;
-
     private String callbackUrl;
 
     private AjaxRequestResolver ajaxRequestResolver;
@@ -47,6 +52,14 @@ public class Clients extends InitializableObject {
 
     private String defaultSecurityClients;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile Snapshot snapshot;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong version = new AtomicLong();
+
     public Clients() {
     }
 
@@ -74,17 +87,23 @@ public class Clients extends InitializableObject {
             return true;
         }
 
-        return oldClientsHash == null || oldClientsHash.intValue() != clients.hashCode();
+        return snapshot == null;
     }
 
-    /**
-     * Populate the resolvers, callback URL and authz generators in the Client
-     * if defined in Clients and not already in the Client itself. And check the client name.
-     */
     @Override
     protected void internalInit(final boolean forceReinit) {
-        clientsMap = new HashMap<>();
-        for (val client : this.clients) {
+        this.snapshot = buildSnapshot(this.clients);
+    }
+
+    /**
+     * Build the snapshot of the clients: check the client names and populate the clients.
+     *
+     * @param clients the clients
+     * @return the snapshot
+     */
+    protected Snapshot buildSnapshot(final List<Client> clients) {
+        final Map<String, Client> clientsMap = new HashMap<>();
+        for (val client : clients) {
             val name = client.getName();
             CommonHelper.assertNotBlank("name", name);
             val lowerTrimmedName = name.toLowerCase().trim();
@@ -92,26 +111,71 @@ public class Clients extends InitializableObject {
                 throw new TechnicalException("Duplicate name in clients: " + name);
             }
             clientsMap.put(lowerTrimmedName, client);
-            if (client instanceof IndirectClient indirectClient) {
-                if (this.callbackUrl != null && indirectClient.getCallbackUrl() == null) {
-                    indirectClient.setCallbackUrl(this.callbackUrl);
-                }
-                if (this.urlResolver != null && indirectClient.getUrlResolver() == null) {
-                    indirectClient.setUrlResolver(this.urlResolver);
-                }
-                if (this.callbackUrlResolver != null && indirectClient.getCallbackUrlResolver() == null) {
-                    indirectClient.setCallbackUrlResolver(this.callbackUrlResolver);
-                }
-                if (this.ajaxRequestResolver != null && indirectClient.getAjaxRequestResolver() == null) {
-                    indirectClient.setAjaxRequestResolver(this.ajaxRequestResolver);
-                }
+        }
+        for (val client : clients) {
+            populateClient(client);
+        }
+        return new Snapshot(clients, clientsMap, this.version.incrementAndGet());
+    }
+
+    /**
+     * Populate the resolvers, callback URL and authz generators in the Client
+     * if defined in Clients and not already in the Client itself.
+     *
+     * @param client the client
+     */
+    protected void populateClient(final Client client) {
+        if (client instanceof IndirectClient indirectClient) {
+            if (this.callbackUrl != null && indirectClient.getCallbackUrl() == null) {
+                indirectClient.setCallbackUrl(this.callbackUrl);
+            }
+            if (this.urlResolver != null && indirectClient.getUrlResolver() == null) {
+                indirectClient.setUrlResolver(this.urlResolver);
             }
-            val baseClient = (BaseClient) client;
-            if (!authorizationGenerators.isEmpty()) {
-                baseClient.addAuthorizationGenerators(this.authorizationGenerators);
+            if (this.callbackUrlResolver != null && indirectClient.getCallbackUrlResolver() == null) {
+                indirectClient.setCallbackUrlResolver(this.callbackUrlResolver);
+            }
+            if (this.ajaxRequestResolver != null && indirectClient.getAjaxRequestResolver() == null) {
+                indirectClient.setAjaxRequestResolver(this.ajaxRequestResolver);
+            }
+        }
+        val baseClient = (BaseClient) client;
+        for (val authorizationGenerator : this.authorizationGenerators) {
+            // the same client may be populated several times
+            if (!baseClient.getAuthorizationGenerators().contains(authorizationGenerator)) {
+                baseClient.addAuthorizationGenerator(authorizationGenerator);
             }
         }
-        this.oldClientsHash = this.clients.hashCode();
+    }
+
+    /**
+     * Get the current snapshot of the clients, (re-)building it if necessary.
+     *
+     * @return the current snapshot
+     */
+    protected Snapshot getSnapshot() {
+        var current = snapshot;
+        while (current == null) {
+            init();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Invalidate the current snapshot (when the clients or their shared settings change): it is rebuilt on the next lookup.
+     */
+    protected void invalidate() {
+        this.snapshot = null;
+    }
+
+    /**
+     * The version of the clients, incremented each time they are (re-)initialized.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version.get();
     }
 
     /**
@@ -122,31 +186,104 @@ public class Clients extends InitializableObject {
      */
     public Optional<Client> findClient(final String name) {
         CommonHelper.assertNotBlank("name", name);
-        init();
 
-        val foundClient = clientsMap.get(name.toLowerCase().trim());
+        val foundClient = getSnapshot().clientsMap.get(name.toLowerCase().trim());
         LOGGER.debug("Found client: {} for name: {}", foundClient, name);
         return Optional.ofNullable(foundClient);
     }
 
+    /**
+     * Whether the client with the specific name is built on demand, so that it must be found again on each use
+     * instead of being held (never for the clients defined in advance).
+     *
+     * @param name name of the client
+     * @return whether the client is built on demand
+     */
+    public boolean isBuiltOnDemand(final String name) {
+        return false;
+    }
+
     /**
      * Find all the clients (initialized).
      *
-     * @return all the clients (initialized)
+     * @return all the clients (initialized and unmodifiable)
      */
     public List<Client> findAllClients() {
-        init();
+        return getSnapshot().clients;
+    }
+
+    public synchronized void addClient(final Client client) {
+        // copy-on-write, like the runtime updates
+        val newClients = new ArrayList<>(this.clients);
+        newClients.add(client);
+        this.clients = newClients;
+        invalidate();
+    }
+
+    /**
+     * Atomically add clients at runtime.
+     *
+     * @param clientsToAdd the clients to add
+     */
+    public void addClients(final Client... clientsToAdd) {
+        CommonHelper.assertNotNull("clients", clientsToAdd);
+        update(current -> {
+            val newClients = new ArrayList<>(current);
+            newClients.addAll(Arrays.asList(clientsToAdd));
+            return newClients;
+        });
+    }
 
-        return getClients();
+    /**
+     * Atomically remove clients at runtime.
+     *
+     * @param names the names of the clients to remove
+     */
+    public void removeClients(final String... names) {
+        CommonHelper.assertNotNull("names", names);
+        final Set<String> lowerTrimmedNames = new HashSet<>();
+        for (val name : names) {
+            CommonHelper.assertNotBlank("name", name);
+            lowerTrimmedNames.add(name.toLowerCase().trim());
+        }
+        update(current -> {
+            final List<Client> newClients = new ArrayList<>();
+            for (val client : current) {
+                if (!lowerTrimmedNames.contains(client.getName().toLowerCase().trim())) {
+                    newClients.add(client);
+                }
+            }
+            return newClients;
+        });
+    }
+
+    /**
+     * Atomically replace all the clients at runtime.
+     *
+     * @param newClients the new clients
+     */
+    public void replaceClients(final List<Client> newClients) {
+        CommonHelper.assertNotNull("clients", newClients);
+        update(current -> new ArrayList<>(newClients));
     }
 
-    public void addClient(final Client client) {
-        this.clients.add(client);
+    /**
+     * Build the new clients from the current ones and publish them with their snapshot, only if they are valid.
+     *
+     * @param updater the updater of the clients
+     */
+    protected synchronized void update(final UnaryOperator<List<Client>> updater) {
+        val newClients = updater.apply(new ArrayList<>(this.clients));
+        val newSnapshot = buildSnapshot(newClients);
+        this.clients = newClients;
+        this.snapshot = newSnapshot;
+        LOGGER.debug("Clients updated (version: {}): {}", newSnapshot.version, newSnapshot.clientsMap.keySet());
     }
 
     public void setClients(final List<Client> clients) {
         CommonHelper.assertNotNull("clients", clients);
         this.clients = clients;
+        invalidate();
     }
 
     public void setClients(final Client... clients) {
@@ -154,14 +291,41 @@ public class Clients extends InitializableObject {
         setClients(new ArrayList<>(Arrays.asList(clients)));
     }
 
+    public void setCallbackUrl(final String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+        invalidate();
+    }
+
+    public void setAjaxRequestResolver(final AjaxRequestResolver ajaxRequestResolver) {
+        this.ajaxRequestResolver = ajaxRequestResolver;
+        invalidate();
+    }
+
+    public void setUrlResolver(final UrlResolver urlResolver) {
+        this.urlResolver = urlResolver;
+        invalidate();
+    }
+
+    public void setCallbackUrlResolver(final CallbackUrlResolver callbackUrlResolver) {
+        this.callbackUrlResolver = callbackUrlResolver;
+        invalidate();
+    }
+
+    public void setDefaultSecurityClients(final String defaultSecurityClients) {
+        this.defaultSecurityClients = defaultSecurityClients;
+        invalidate();
+    }
+
     public void setAuthorizationGenerators(final List<AuthorizationGenerator> authorizationGenerators) {
         CommonHelper.assertNotNull("authorizationGenerators", authorizationGenerators);
         this.authorizationGenerators = authorizationGenerators;
+        invalidate();
     }
 
     public void setAuthorizationGenerators(final AuthorizationGenerator... authorizationGenerators) {
         CommonHelper.assertNotNull("authorizationGenerators", authorizationGenerators);
         this.authorizationGenerators = Arrays.asList(authorizationGenerators);
+        invalidate();
     }
 
     public void setAuthorizationGenerator(final AuthorizationGenerator authorizationGenerator) {
@@ -171,5 +335,24 @@ public class Clients extends InitializableObject {
     public void addAuthorizationGenerator(final AuthorizationGenerator authorizationGenerator) {
         CommonHelper.assertNotNull("authorizationGenerator", authorizationGenerator);
         this.authorizationGenerators.add(authorizationGenerator);
+        invalidate();
+    }
+
+    /**
+     * An immutable snapshot of the clients.
+     */
+    protected static final class Snapshot {
+
+        private final List<Client> clients;
+
+        private final Map<String, Client> clientsMap;
+
+        private final long version;
+
+        private Snapshot(final List<Client> source, final Map<String, Client> clientsMap, final long version) {
+            this.clients = Collections.unmodifiableList(new ArrayList<>(source));
+            this.clientsMap = Collections.unmodifiableMap(clientsMap);
+            this.version = version;
+        }
     }
 }
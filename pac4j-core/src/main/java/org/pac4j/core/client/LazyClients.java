@@ -0,0 +1,304 @@
+package org.pac4j.core.client;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Clients which are built on first use by a {@link ClientFactory} (in addition to the clients defined as for the {@link Clients}),
+ * so that the startup time and the memory do not depend on the number of clients (for example, one client per tenant).</p>
+ *
+ * <p>A client is built and initialized by the <code>initExecutor</code> (by default, a dedicated and bounded executor), once at a time:
+ * the requests wait for it at most <code>initTimeout</code> milliseconds. At most <code>maxClients</code> built clients are kept:
+ * beyond, the least recently used ones are evicted and will be built again on their next use. As the security plans
+ * only hold the names of these clients, an eviction does not refresh them.</p>
+ *
+ * <p>A client which is not defined by the factory, or which cannot be built, is not found: it is considered unavailable during
+ * <code>unavailableTimeout</code> milliseconds (for at most <code>maxUnavailableClients</code> names), so that the factory is not called
+ * again for each request. A client still initializing after <code>initTimeout</code> milliseconds is not found either.</p>
+ *
+ * <p>The built clients are populated like the other clients (callback URL, resolvers and authorization generators).</p>
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@Getter
+@Setter
+@ToString(callSuper = true, exclude = {"loadedClients", "unavailableClients"})
+public class LazyClients extends Clients {
+
+    private ClientFactory clientFactory;
+
+    private int maxClients = 1000;
+
+    private long initTimeout = 10000;
+
+    private Executor initExecutor = newDefaultInitExecutor();
+
+    private long unavailableTimeout = 60000;
+
+    private int maxUnavailableClients = 1000;
+
+    // in access order to evict the least recently used clients, guarded by itself
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LinkedHashMap<String, LoadedClient> loadedClients = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, Long> unavailableClients = new ConcurrentHashMap<>();
+
+    public LazyClients() {}
+
+    public LazyClients(final ClientFactory clientFactory) {
+        this.clientFactory = clientFactory;
+    }
+
+    public LazyClients(final String callbackUrl, final ClientFactory clientFactory) {
+        setCallbackUrl(callbackUrl);
+        this.clientFactory = clientFactory;
+    }
+
+    private static ThreadPoolExecutor newDefaultInitExecutor() {
+        val threadNumber = new AtomicInteger();
+        val executor = new ThreadPoolExecutor(4, 4, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(100), r -> {
+            val thread = new Thread(r, "pac4j-lazy-clients-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public Optional<Client> findClient(final String name) {
+        val client = super.findClient(name);
+        if (client.isPresent()) {
+            return client;
+        }
+        CommonHelper.assertNotNull("clientFactory", clientFactory);
+        return Optional.ofNullable(loadClient(name.trim()));
+    }
+
+    /**
+     * Whether the client is not a defined one, and is therefore built on demand by the factory (and may be evicted).
+     *
+     * @param name name of the client
+     * @return whether the client is built on demand
+     */
+    @Override
+    public boolean isBuiltOnDemand(final String name) {
+        return super.findClient(name).isEmpty();
+    }
+
+    /**
+     * Find all the clients (initialized): the defined clients and the built ones.
+     *
+     * @return all the clients (initialized and unmodifiable)
+     */
+    @Override
+    public List<Client> findAllClients() {
+        final List<Client> allClients = new ArrayList<>(super.findAllClients());
+        final List<LoadedClient> currentLoadedClients;
+        synchronized (loadedClients) {
+            currentLoadedClients = new ArrayList<>(loadedClients.values());
+        }
+        for (val loadedClient : currentLoadedClients) {
+            val future = loadedClient.future;
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                val client = future.join();
+                if (client != null) {
+                    allClients.add(client);
+                }
+            }
+        }
+        return Collections.unmodifiableList(allClients);
+    }
+
+    /**
+     * Load a client: get the built client or build it.
+     *
+     * @param name the client name
+     * @return the client or <code>null</code> if the client is unavailable or still initializing
+     */
+    protected Client loadClient(final String name) {
+        val key = name.toLowerCase();
+        if (isUnavailable(key)) {
+            LOGGER.debug("Unavailable client: {}", name);
+            return null;
+        }
+        LoadedClient loadedClient;
+        var isNew = false;
+        synchronized (loadedClients) {
+            loadedClient = loadedClients.get(key);
+            if (loadedClient == null) {
+                loadedClient = new LoadedClient();
+                loadedClients.put(key, loadedClient);
+                isNew = true;
+                evictColdClients();
+            }
+        }
+        if (isNew) {
+            val newLoadedClient = loadedClient;
+            try {
+                initExecutor.execute(() -> buildClient(key, name, newLoadedClient));
+            } catch (final RejectedExecutionException e) {
+                removeLoadedClient(key, newLoadedClient);
+                LOGGER.warn("Unable to build the client: {} (too many clients being built)", name);
+                return null;
+            }
+        }
+
+        try {
+            return loadedClient.future.get(initTimeout, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            LOGGER.warn("The client: {} is still initializing after {} ms", name, initTimeout);
+            return null;
+        } catch (final ExecutionException e) {
+            // already logged when building the client
+            return null;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * Build, populate and initialize a client.
+     *
+     * @param key the key of the client
+     * @param name the client name
+     * @param loadedClient the client being loaded
+     */
+    protected void buildClient(final String key, final String name, final LoadedClient loadedClient) {
+        try {
+            val optClient = clientFactory.newClient(name);
+            if (optClient.isEmpty()) {
+                LOGGER.debug("No client defined for name: {}", name);
+                // unknown names must not fill the loaded clients
+                markUnavailable(key);
+                removeLoadedClient(key, loadedClient);
+                loadedClient.future.complete(null);
+                return;
+            }
+            val client = optClient.get();
+            if (!CommonHelper.areEqualsIgnoreCaseAndTrim(client.getName(), name)) {
+                throw new TechnicalException("The client built for: " + name + " has a different name: " + client.getName());
+            }
+            populateClient(client);
+            ((BaseClient) client).init();
+            LOGGER.debug("Built client: {}", name);
+            loadedClient.future.complete(client);
+        } catch (final RuntimeException e) {
+            LOGGER.error("Unable to build the client: {}", name, e);
+            markUnavailable(key);
+            removeLoadedClient(key, loadedClient);
+            loadedClient.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Whether a client has recently been found unavailable.
+     *
+     * @param key the key of the client
+     * @return whether the client is unavailable
+     */
+    protected boolean isUnavailable(final String key) {
+        val expiration = unavailableClients.get(key);
+        if (expiration == null) {
+            return false;
+        }
+        if (System.nanoTime() - expiration < 0) {
+            return true;
+        }
+        unavailableClients.remove(key, expiration);
+        return false;
+    }
+
+    /**
+     * Mark a client as unavailable for <code>unavailableTimeout</code> milliseconds.
+     *
+     * @param key the key of the client
+     */
+    protected void markUnavailable(final String key) {
+        if (unavailableClients.size() >= maxUnavailableClients) {
+            val now = System.nanoTime();
+            unavailableClients.values().removeIf(expiration -> now - expiration >= 0);
+            if (unavailableClients.size() >= maxUnavailableClients) {
+                unavailableClients.clear();
+            }
+        }
+        unavailableClients.put(key, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(unavailableTimeout));
+    }
+
+    /**
+     * Evict the least recently used built clients beyond <code>maxClients</code> (the clients being built are kept),
+     * while holding the lock on the loaded clients. The other components do not hold the clients built on demand
+     * (they find them on each use), so they are not refreshed.
+     */
+    protected void evictColdClients() {
+        val iterator = loadedClients.entrySet().iterator();
+        while (loadedClients.size() > maxClients && iterator.hasNext()) {
+            val entry = iterator.next();
+            if (entry.getValue().future.isDone()) {
+                LOGGER.debug("Evicting client: {}", entry.getKey());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Remove a client being built or built, if it is still the loaded one for its key.
+     *
+     * @param key the key of the client
+     * @param loadedClient the client being built or built
+     */
+    protected void removeLoadedClient(final String key, final LoadedClient loadedClient) {
+        synchronized (loadedClients) {
+            loadedClients.remove(key, loadedClient);
+        }
+    }
+
+    /**
+     * Evict a built (or unavailable) client (for example when its definition has changed): it will be built again on its next use.
+     *
+     * @param name the client name
+     */
+    public void evictClient(final String name) {
+        CommonHelper.assertNotBlank("name", name);
+        val key = name.toLowerCase().trim();
+        unavailableClients.remove(key);
+        synchronized (loadedClients) {
+            loadedClients.remove(key);
+        }
+    }
+
+    /**
+     * The number of built clients.
+     *
+     * @return the number of built clients
+     */
+    public int getNbLoadedClients() {
+        synchronized (loadedClients) {
+            return loadedClients.size();
+        }
+    }
+
+    /**
+     * A client being built or built.
+     */
+    protected static final class LoadedClient {
+
+        private final CompletableFuture<Client> future = new CompletableFuture<>();
+    }
+}
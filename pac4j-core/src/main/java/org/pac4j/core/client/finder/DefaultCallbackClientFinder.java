@@ -6,6 +6,8 @@ import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
 import org.pac4j.core.client.IndirectClient;
 import org.pac4j.core.context.WebContext;
+import org.pac4j.core.http.callback.CallbackUrlResolver;
+import org.pac4j.core.http.callback.QueryParameterCallbackUrlResolver;
 import org.pac4j.core.util.CommonHelper;
 
 import java.util.ArrayList;
@@ -38,6 +40,17 @@ public class DefaultCallbackClientFinder implements ClientFinder {
                 }
             }
         }
+        // not found: the client may not be built yet (LazyClients), find it from its name on the request
+        if (result.isEmpty()) {
+            val clientOnRequest = getCallbackUrlResolver(clients).extractClientName(context);
+            if (clientOnRequest.isPresent()) {
+                val client = clients.findClient(clientOnRequest.get());
+                if (client.isPresent() && client.get() instanceof IndirectClient indirectClient && !indirectClients.contains(indirectClient)
+                    && indirectClient.getCallbackUrlResolver().matches(indirectClient.getName(), context)) {
+                    result.add(indirectClient);
+                }
+            }
+        }
         LOGGER.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
 
         // fallback: no client found and we have a default client, use it
@@ -56,4 +69,15 @@ public class DefaultCallbackClientFinder implements ClientFinder {
 
         return result;
     }
+
+    /**
+     * The callback URL resolver to extract the name of a client not built yet: the one of the clients or the default one.
+     *
+     * @param clients the clients
+     * @return the callback URL resolver
+     */
+    protected CallbackUrlResolver getCallbackUrlResolver(final Clients clients) {
+        val callbackUrlResolver = clients.getCallbackUrlResolver();
+        return callbackUrlResolver != null ? callbackUrlResolver : new QueryParameterCallbackUrlResolver();
+    }
 }
@@ -11,7 +11,6 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,7 +29,20 @@ public class DefaultSecurityClientFinder implements ClientFinder {
 
     @Override
     public List<Client> find(final Clients clients, final WebContext context, final String clientNames) {
-        final List<Client> result = new ArrayList<>();
+        return find(clients, resolveClients(clients, clientNames), context);
+    }
+
+    /**
+     * Resolve the clients defined by their names, independently of the current request.
+     * The clients built on demand are only resolved by their names, to be found on each request.
+     *
+     * @param clients the clients
+     * @param clientNames the client names
+     * @return the resolved clients
+     */
+    public ResolvedClients resolveClients(final Clients clients, final String clientNames) {
+        final List<String> resolvedNames = new ArrayList<>();
+        final List<Client> definedClients = new ArrayList<>();
 
         var securityClientNames = clientNames;
         // we don't have defined clients to secure the URL, use the general default security ones from the Clients if they exist
@@ -41,44 +53,58 @@ public class DefaultSecurityClientFinder implements ClientFinder {
             securityClientNames = clients.getDefaultSecurityClients();
             LOGGER.debug("Default security clients: {}", securityClientNames);
             // still no clients defined and we only have one client, use it
-            if (securityClientNames == null && clients.findAllClients().size() == 1) {
-                securityClientNames = clients.getClients().get(0).getName();
+            val allClients = clients.findAllClients();
+            if (securityClientNames == null && allClients.size() == 1) {
+                securityClientNames = allClients.get(0).getName();
                 LOGGER.debug("Only client: {}", securityClientNames);
             }
         }
 
         if (CommonHelper.isNotBlank(securityClientNames)) {
-            val names = Arrays.asList(securityClientNames.split(Pac4jConstants.ELEMENT_SEPARATOR));
-            val clientOnRequest = context.getRequestParameter(clientNameParameter);
-
-            // if a client is provided on the request, get the client
-            // and check if it is allowed (defined in the list of the clients)
-            LOGGER.debug("clientNameOnRequest: {}", clientOnRequest);
-            if (clientOnRequest.isPresent()) {
-                // from the request
-                val client = clients.findClient(clientOnRequest.get());
-                if (client.isPresent()) {
-                    val nameFound = client.get().getName();
-                    // if allowed -> return it
-                    for (val name : names) {
-                        if (CommonHelper.areEqualsIgnoreCaseAndTrim(name, nameFound)) {
-                            result.add(client.get());
-                            break;
-                        }
-                    }
-                }
-            } else {
-                // no client provided, return all
-                for (val name : names) {
+            val names = securityClientNames.split(Pac4jConstants.ELEMENT_SEPARATOR);
+            for (val name : names) {
+                if (clients.isBuiltOnDemand(name)) {
+                    // found on each request
+                    resolvedNames.add(name);
+                    definedClients.add(null);
+                } else {
                     // from its name
                     val client = clients.findClient(name);
                     if (client.isPresent()) {
-                        result.add(client.get());
+                        resolvedNames.add(name);
+                        definedClients.add(client.get());
                     }
                 }
             }
         }
-        LOGGER.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
+        return new ResolvedClients(resolvedNames, definedClients);
+    }
+
+    /**
+     * Find the current clients among the resolved ones.
+     *
+     * @param clients the clients
+     * @param resolvedClients the clients resolved by {@link #resolveClients(Clients, String)}
+     * @param context the web context
+     * @return the current clients
+     */
+    public List<Client> find(final Clients clients, final ResolvedClients resolvedClients, final WebContext context) {
+        final List<Client> result;
+        val clientOnRequest = context.getRequestParameter(clientNameParameter);
+
+        // if a client is provided on the request, get the client
+        // and check if it is allowed (defined in the list of the clients)
+        LOGGER.debug("clientNameOnRequest: {}", clientOnRequest);
+        if (clientOnRequest.isPresent()) {
+            result = new ArrayList<>();
+            resolvedClients.find(clients, clientOnRequest.get()).ifPresent(result::add);
+        } else {
+            // no client provided, return all
+            result = resolvedClients.findAll(clients);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
+        }
         return result;
     }
 }
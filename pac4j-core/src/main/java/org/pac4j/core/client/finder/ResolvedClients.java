@@ -0,0 +1,92 @@
+package org.pac4j.core.client.finder;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The clients resolved from their names by the {@link DefaultSecurityClientFinder}, independently of the current request.
+ * The clients built on demand (like by the {@link org.pac4j.core.client.LazyClients}) are only held by their names,
+ * to be found on use: the resolved clients can then be kept without building them all or holding evicted ones.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@ToString
+public final class ResolvedClients {
+
+    private final String[] names;
+
+    // null for the clients built on demand
+    @ToString.Exclude
+    private final Client[] definedClients;
+
+    @Getter
+    private final boolean builtOnDemand;
+
+    @ToString.Exclude
+    private final List<Client> clients;
+
+    ResolvedClients(final List<String> names, final List<Client> definedClients) {
+        this.names = names.toArray(new String[0]);
+        this.definedClients = definedClients.toArray(new Client[0]);
+        final List<Client> clients = new ArrayList<>();
+        var builtOnDemand = false;
+        for (val client : this.definedClients) {
+            if (client != null) {
+                clients.add(client);
+            } else {
+                builtOnDemand = true;
+            }
+        }
+        this.builtOnDemand = builtOnDemand;
+        this.clients = Collections.unmodifiableList(clients);
+    }
+
+    /**
+     * Find the resolved client with the specific name.
+     *
+     * @param allClients the clients, to find the clients built on demand
+     * @param name the client name
+     * @return the client
+     */
+    public Optional<Client> find(final Clients allClients, final String name) {
+        for (var i = 0; i < names.length; i++) {
+            if (CommonHelper.areEqualsIgnoreCaseAndTrim(names[i], name)) {
+                val client = definedClients[i];
+                return client != null ? Optional.of(client) : allClients.findClient(names[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Find all the resolved clients.
+     *
+     * @param allClients the clients, to find the clients built on demand
+     * @return the clients (unmodifiable if none is built on demand)
+     */
+    public List<Client> findAll(final Clients allClients) {
+        if (!builtOnDemand) {
+            return clients;
+        }
+        final List<Client> result = new ArrayList<>(names.length);
+        for (var i = 0; i < names.length; i++) {
+            val client = definedClients[i];
+            if (client != null) {
+                result.add(client);
+            } else {
+                allClients.findClient(names[i]).ifPresent(result::add);
+            }
+        }
+        return result;
+    }
+}
@@ -1,5 +1,6 @@
 package org.pac4j.core.config;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.pac4j.core.authorization.authorizer.Authorizer;
@@ -12,12 +13,14 @@ import org.pac4j.core.engine.LogoutLogic;
 import org.pac4j.core.engine.SecurityLogic;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
 import org.pac4j.core.matching.matcher.Matcher;
+import org.pac4j.core.profile.ProfileRenewer;
 import org.pac4j.core.profile.factory.ProfileManagerFactory;
 import org.pac4j.core.util.CommonHelper;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The default configuration with clients, authorizers, matchers, etc.
@@ -49,6 +52,14 @@ public class Config {
 
     protected SessionStoreFactory sessionStoreFactory;
 
+    protected ProfileRenewer profileRenewer = new ProfileRenewer();
+
+    protected ConfigWarmer configWarmer = new ConfigWarmer();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong version = new AtomicLong();
+
     public Config() {}
 
     public Config(final Client client) {
@@ -108,32 +119,78 @@ public class Config {
         setAuthorizers(authorizers);
     }
 
+    /**
+     * The version of this configuration, incremented each time the clients, authorizers or matchers are changed
+     * through this object. Changing the returned maps or clients directly must be followed by a {@link #touch()}.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Mark the configuration as modified (so that the computations based on it are reset).
+     */
+    public void touch() {
+        version.incrementAndGet();
+    }
+
+    public void setClients(final Clients clients) {
+        this.clients = clients;
+        touch();
+    }
+
     public void setAuthorizer(final Authorizer authorizer) {
         CommonHelper.assertNotNull("authorizer", authorizer);
         this.authorizers.put(authorizer.getClass().getSimpleName(), authorizer);
+        touch();
     }
 
     public void setAuthorizers(final Map<String, Authorizer> authorizers) {
         CommonHelper.assertNotNull("authorizers", authorizers);
         this.authorizers = authorizers;
+        touch();
     }
 
     public void addAuthorizer(final String name, final Authorizer authorizer) {
         authorizers.put(name, authorizer);
+        touch();
     }
 
     public void setMatcher(final Matcher matcher) {
         CommonHelper.assertNotNull("matcher", matcher);
         this.matchers.put(matcher.getClass().getSimpleName(), matcher);
+        touch();
     }
 
     public void setMatchers(final Map<String, Matcher> matchers) {
         CommonHelper.assertNotNull("matchers", matchers);
         this.matchers = matchers;
+        touch();
     }
 
     public void addMatcher(final String name, final Matcher matcher) {
         matchers.put(name, matcher);
+        touch();
+    }
+
+    /**
+     * Initialize in advance all the components of this configuration.
+     *
+     * @return the report of the warm-up
+     */
+    public WarmUpReport warmUp() {
+        return configWarmer.warmUp(this);
+    }
+
+    /**
+     * Whether the last warm-up of this configuration has succeeded.
+     *
+     * @return whether this configuration is ready
+     */
+    public boolean isReady() {
+        return configWarmer.isReady();
     }
 
     public void defaultSessionStoreFactory(final SessionStoreFactory sessionStoreFactory) {
@@ -0,0 +1,242 @@
+package org.pac4j.core.config;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.client.BaseClient;
+import org.pac4j.core.client.IndirectClient;
+import org.pac4j.core.credentials.authenticator.LocalCachingAuthenticator;
+import org.pac4j.core.profile.creator.LocalCachingProfileCreator;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.InitializableObject;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initializes in advance all the components of a configuration (instead of on the first request which uses them):
+ * the clients (and their credentials extractor, authenticator, profile creator, redirection and logout action builders,
+ * and the stores of the caching authenticator and profile creator), the authorizers, the matchers and the <code>stores</code>.
+ *
+ * The configuration does not reference the other stores (like the one of the logout handler or of the profile manager):
+ * they can be warmed up by adding them to the <code>stores</code>.
+ *
+ * The components are initialized in parallel by at most <code>maxThreads</code> threads and the warm-up lasts at most
+ * <code>timeout</code> milliseconds. It reports the duration and failure of each component. The configuration is ready
+ * when the last warm-up has succeeded: {@link #isReady()} can be used by a health check.
+ *
+ * The initializations still in progress after the timeout go on in background: when they complete, the last report
+ * and the readiness are updated.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@ToString
+@Slf4j
+public class ConfigWarmer {
+
+    private volatile int maxThreads = 4;
+
+    private volatile long timeout = 60000;
+
+    private volatile boolean ready;
+
+    private volatile WarmUpReport lastReport;
+
+    private Map<String, Store<?, ?>> stores = new LinkedHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long nbWarmUps;
+
+    /**
+     * Add a store to warm up.
+     *
+     * @param name the store name
+     * @param store the store
+     */
+    public void addStore(final String name, final Store<?, ?> store) {
+        stores.put(name, store);
+    }
+
+    /**
+     * Warm up a configuration.
+     *
+     * @param config the configuration
+     * @return the report of the warm-up
+     */
+    public synchronized WarmUpReport warmUp(final Config config) {
+        val start = System.currentTimeMillis();
+        val warmUpNumber = ++nbWarmUps;
+        val currentTimeout = timeout;
+        final List<WarmUpReport.Component> components = new ArrayList<>();
+        final List<CompletableFuture<WarmUpReport.Component>> lateInitializations = new ArrayList<>();
+        val tasks = new LinkedHashMap<String, InitializableObject>();
+        collectComponents(config, tasks, components);
+
+        if (!tasks.isEmpty()) {
+            val threadNumber = new AtomicInteger();
+            val executor = Executors.newFixedThreadPool(Math.min(maxThreads, tasks.size()), r -> {
+                val thread = new Thread(r, "pac4j-warm-up-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                val futures = new LinkedHashMap<String, CompletableFuture<WarmUpReport.Component>>();
+                for (val task : tasks.entrySet()) {
+                    futures.put(task.getKey(), CompletableFuture.supplyAsync(() -> initialize(task.getKey(), task.getValue()), executor));
+                }
+                val deadline = start + currentTimeout;
+                for (val future : futures.entrySet()) {
+                    val component = waitFor(future.getKey(), future.getValue(), deadline, currentTimeout);
+                    if (component.getFailure() instanceof TimeoutException) {
+                        lateInitializations.add(future.getValue());
+                    }
+                    components.add(component);
+                }
+            } finally {
+                // the initializations still in progress go on in background
+                executor.shutdown();
+            }
+        }
+
+        val report = new WarmUpReport(components, System.currentTimeMillis() - start);
+        this.lastReport = report;
+        this.ready = report.isSuccessful();
+        if (this.ready) {
+            LOGGER.info("Configuration warmed up in {} ms ({} components)", report.getDuration(), components.size());
+        } else {
+            LOGGER.warn("Configuration warmed up in {} ms with failures: {}", report.getDuration(), report.getFailures());
+        }
+        for (val lateInitialization : lateInitializations) {
+            lateInitialization.thenAccept(component -> completeLate(warmUpNumber, component));
+        }
+        return report;
+    }
+
+    /**
+     * Update the last report (and the readiness) with a component initialized after the timeout.
+     *
+     * @param warmUpNumber the number of the warm-up which has started the initialization
+     * @param component the warm-up of the component
+     */
+    protected synchronized void completeLate(final long warmUpNumber, final WarmUpReport.Component component) {
+        // a newer warm-up has its own report
+        if (warmUpNumber != nbWarmUps) {
+            return;
+        }
+        val report = lastReport.withComponent(component);
+        this.lastReport = report;
+        this.ready = report.isSuccessful();
+        LOGGER.info("Late warm-up of: {} in {} ms (configuration ready: {})", component.getName(), component.getDuration(), this.ready);
+    }
+
+    /**
+     * Collect the components to initialize, by name.
+     *
+     * @param config the configuration
+     * @param tasks the components to initialize, by name
+     * @param components the components already warmed up (failed)
+     */
+    protected void collectComponents(final Config config, final Map<String, InitializableObject> tasks,
+                                     final List<WarmUpReport.Component> components) {
+        val clients = config.getClients();
+        if (clients != null) {
+            val start = System.currentTimeMillis();
+            try {
+                for (val client : clients.findAllClients()) {
+                    if (client instanceof BaseClient baseClient) {
+                        tasks.put("client:" + client.getName(), baseClient);
+                    }
+                }
+            } catch (final RuntimeException e) {
+                components.add(new WarmUpReport.Component("clients", System.currentTimeMillis() - start, e));
+            }
+        }
+        if (config.getAuthorizers() != null) {
+            for (val authorizer : config.getAuthorizers().entrySet()) {
+                if (authorizer.getValue() instanceof InitializableObject initializableObject) {
+                    tasks.put("authorizer:" + authorizer.getKey(), initializableObject);
+                }
+            }
+        }
+        if (config.getMatchers() != null) {
+            for (val matcher : config.getMatchers().entrySet()) {
+                if (matcher.getValue() instanceof InitializableObject initializableObject) {
+                    tasks.put("matcher:" + matcher.getKey(), initializableObject);
+                }
+            }
+        }
+        if (stores != null) {
+            for (val store : stores.entrySet()) {
+                if (store.getValue() instanceof InitializableObject initializableObject) {
+                    tasks.put("store:" + store.getKey(), initializableObject);
+                }
+            }
+        }
+    }
+
+    /**
+     * Initialize a component.
+     *
+     * @param name the component name
+     * @param component the component
+     * @return the warm-up of the component
+     */
+    protected WarmUpReport.Component initialize(final String name, final InitializableObject component) {
+        val start = System.currentTimeMillis();
+        try {
+            component.init();
+            // the sub-components of the clients are only defined once they are initialized
+            if (component instanceof BaseClient client) {
+                initialize(client.getCredentialsExtractor());
+                initialize(client.getAuthenticator());
+                initialize(client.getProfileCreator());
+                // their stores are only created once they are initialized
+                if (client.getAuthenticator() instanceof LocalCachingAuthenticator cachingAuthenticator) {
+                    initialize(cachingAuthenticator.getStore());
+                }
+                if (client.getProfileCreator() instanceof LocalCachingProfileCreator cachingProfileCreator) {
+                    initialize(cachingProfileCreator.getStore());
+                }
+                if (client instanceof IndirectClient indirectClient) {
+                    initialize(indirectClient.getRedirectionActionBuilder());
+                    initialize(indirectClient.getLogoutActionBuilder());
+                }
+            }
+            val duration = System.currentTimeMillis() - start;
+            LOGGER.debug("Warmed up: {} in {} ms", name, duration);
+            return new WarmUpReport.Component(name, duration, null);
+        } catch (final RuntimeException e) {
+            LOGGER.error("Unable to warm up: {}", name, e);
+            return new WarmUpReport.Component(name, System.currentTimeMillis() - start, e);
+        }
+    }
+
+    private void initialize(final Object object) {
+        if (object instanceof InitializableObject initializableObject) {
+            initializableObject.init();
+        }
+    }
+
+    private WarmUpReport.Component waitFor(final String name, final Future<WarmUpReport.Component> future, final long deadline,
+                                           final long currentTimeout) {
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            return new WarmUpReport.Component(name, currentTimeout,
+                new TimeoutException("Still initializing after " + currentTimeout + " ms"));
+        } catch (final ExecutionException e) {
+            return new WarmUpReport.Component(name, 0, e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new WarmUpReport.Component(name, 0, e);
+        }
+    }
+}
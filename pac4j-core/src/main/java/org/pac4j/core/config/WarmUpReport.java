@@ -0,0 +1,86 @@
+package org.pac4j.core.config;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The report of a warm-up of the configuration by the {@link ConfigWarmer}: the duration and failure of each component.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@ToString
+public final class WarmUpReport {
+
+    private final List<Component> components;
+
+    private final long duration;
+
+    public WarmUpReport(final List<Component> components, final long duration) {
+        this.components = Collections.unmodifiableList(components);
+        this.duration = duration;
+    }
+
+    /**
+     * Whether all the components have been initialized.
+     *
+     * @return whether the warm-up is successful
+     */
+    public boolean isSuccessful() {
+        return components.stream().allMatch(Component::isSuccessful);
+    }
+
+    /**
+     * The components which have failed to initialize.
+     *
+     * @return the failed components
+     */
+    public List<Component> getFailures() {
+        return components.stream().filter(c -> !c.isSuccessful()).collect(Collectors.toList());
+    }
+
+    /**
+     * A copy of this report where the component of the same name is replaced.
+     *
+     * @param component the new warm-up of the component
+     * @return the new report
+     */
+    public WarmUpReport withComponent(final Component component) {
+        final List<Component> newComponents = new ArrayList<>(components.size());
+        for (val c : components) {
+            newComponents.add(c.getName().equals(component.getName()) ? component : c);
+        }
+        return new WarmUpReport(newComponents, duration);
+    }
+
+    /**
+     * The warm-up of a component.
+     */
+    @Getter
+    @ToString
+    public static final class Component {
+
+        private final String name;
+
+        private final long duration;
+
+        private final Throwable failure;
+
+        public Component(final String name, final long duration, final Throwable failure) {
+            this.name = name;
+            this.duration = duration;
+            this.failure = failure;
+        }
+
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+    }
+}
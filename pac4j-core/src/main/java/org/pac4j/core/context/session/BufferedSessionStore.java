@@ -0,0 +1,208 @@
+package org.pac4j.core.context.session;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * A session store decorator which buffers the reads and the writes for the life of the request:
+ * the repeated reads of a key hit the delegate session store only once and the writes are coalesced by key
+ * and sent to the delegate session store only once, when the buffer is flushed (at the end of the request).
+ *
+ * The buffer is saved as a request attribute, so all the buffered session stores used in a request share it
+ * and the {@link #flush(WebContext)} method can be called by the framework at the end of the request.
+ *
+ * The data written during the request are only visible through a buffered session store until the flush.
+ *
+ * Other session stores can also defer their writes until the flush via {@link #deferWrite(WebContext, String, Consumer)}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+public class BufferedSessionStore implements SessionStore {
+
+    /** The request attribute holding the buffer of the current request. */
+    public static final String BUFFER_REQUEST_ATTRIBUTE = BufferedSessionStore.class.getName() + ".buffer";
+
+    /** The request attribute holding the deferred writes of the current request. */
+    public static final String DEFERRED_WRITES_REQUEST_ATTRIBUTE = BufferedSessionStore.class.getName() + ".deferredWrites";
+
+    @Getter
+    private final SessionStore delegate;
+
+    public BufferedSessionStore(final SessionStore delegate) {
+        CommonHelper.assertNotNull("delegate", delegate);
+        this.delegate = delegate;
+    }
+
+    /**
+     * Write the buffered changes of the current request in the delegate session store, if any.
+     *
+     * @param context the web context
+     * @return whether changes have been written
+     */
+    public static boolean flush(final WebContext context) {
+        var flushed = false;
+        val buffer = context.getRequestAttribute(BUFFER_REQUEST_ATTRIBUTE);
+        if (buffer.isPresent() && buffer.get() instanceof Buffer current) {
+            flushed = current.flush(context);
+        }
+        // after the buffer which may have written in these session stores
+        val deferredWrites = context.getRequestAttribute(DEFERRED_WRITES_REQUEST_ATTRIBUTE);
+        if (deferredWrites.isPresent() && deferredWrites.get() instanceof Map<?, ?> writes && !writes.isEmpty()) {
+            val pendingWrites = new ArrayList<Object>(writes.values());
+            writes.clear();
+            for (val write : pendingWrites) {
+                ((Consumer<WebContext>) write).accept(context);
+            }
+            flushed = true;
+        }
+        return flushed;
+    }
+
+    /**
+     * Defer a write until the next flush of the current request. A write replaces the deferred write with the same key.
+     *
+     * @param context the web context
+     * @param key the key of the write
+     * @param write the write
+     */
+    public static void deferWrite(final WebContext context, final String key, final Consumer<WebContext> write) {
+        val attribute = context.getRequestAttribute(DEFERRED_WRITES_REQUEST_ATTRIBUTE);
+        final Map<String, Consumer<WebContext>> writes;
+        if (attribute.isPresent() && attribute.get() instanceof Map) {
+            writes = (Map<String, Consumer<WebContext>>) attribute.get();
+        } else {
+            writes = new LinkedHashMap<>();
+            context.setRequestAttribute(DEFERRED_WRITES_REQUEST_ATTRIBUTE, writes);
+        }
+        writes.put(key, write);
+    }
+
+    protected Buffer getBuffer(final WebContext context) {
+        val attribute = context.getRequestAttribute(BUFFER_REQUEST_ATTRIBUTE);
+        if (attribute.isPresent() && attribute.get() instanceof Buffer current) {
+            if (current.delegate == delegate) {
+                return current;
+            }
+            // the buffer of another delegate session store is flushed first to remain consistent
+            current.flush(context);
+        }
+        val buffer = new Buffer(delegate);
+        context.setRequestAttribute(BUFFER_REQUEST_ATTRIBUTE, buffer);
+        return buffer;
+    }
+
+    @Override
+    public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+        val buffer = getBuffer(context);
+        // pending writes mean that the session exists (or will exist)
+        return delegate.getSessionId(context, createSession || buffer.hasPendingValues());
+    }
+
+    @Override
+    public Optional<Object> get(final WebContext context, final String key) {
+        val buffer = getBuffer(context);
+        if (buffer.writes.containsKey(key)) {
+            return Optional.ofNullable(buffer.writes.get(key));
+        }
+        var value = buffer.reads.get(key);
+        if (value == null) {
+            value = delegate.get(context, key);
+            buffer.reads.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void set(final WebContext context, final String key, final Object value) {
+        val buffer = getBuffer(context);
+        if (value != null && !buffer.sessionCreated) {
+            // the session must be created now: the response may be committed when the buffer is flushed
+            delegate.getSessionId(context, true);
+            buffer.sessionCreated = true;
+        }
+        buffer.writes.put(key, value);
+    }
+
+    @Override
+    public boolean destroySession(final WebContext context) {
+        getBuffer(context).clear();
+        return delegate.destroySession(context);
+    }
+
+    @Override
+    public Optional<Object> getTrackableSession(final WebContext context) {
+        return delegate.getTrackableSession(context);
+    }
+
+    @Override
+    public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+        return delegate.buildFromTrackableSession(context, trackableSession);
+    }
+
+    @Override
+    public boolean renewSession(final WebContext context) {
+        val buffer = getBuffer(context);
+        buffer.flush(context);
+        buffer.sessionCreated = false;
+        return delegate.renewSession(context);
+    }
+
+    /**
+     * The buffer of a request.
+     */
+    protected static class Buffer {
+
+        private final SessionStore delegate;
+
+        private final Map<String, Optional<Object>> reads = new HashMap<>();
+
+        private final Map<String, Object> writes = new LinkedHashMap<>();
+
+        private boolean sessionCreated;
+
+        protected Buffer(final SessionStore delegate) {
+            this.delegate = delegate;
+        }
+
+        protected boolean hasPendingValues() {
+            for (val value : writes.values()) {
+                if (value != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        protected boolean flush(final WebContext context) {
+            if (writes.isEmpty()) {
+                return false;
+            }
+            LOGGER.debug("Flushing {} buffered session key(s)", writes.size());
+            for (val entry : writes.entrySet()) {
+                val value = entry.getValue();
+                delegate.set(context, entry.getKey(), value);
+                reads.put(entry.getKey(), Optional.ofNullable(value));
+            }
+            writes.clear();
+            return true;
+        }
+
+        protected void clear() {
+            reads.clear();
+            writes.clear();
+            sessionCreated = false;
+        }
+    }
+}
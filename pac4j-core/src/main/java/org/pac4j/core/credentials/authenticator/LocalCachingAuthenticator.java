@@ -1,5 +1,9 @@
 package org.pac4j.core.credentials.authenticator;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -8,17 +12,44 @@ import lombok.val;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.AccountNotFoundException;
+import org.pac4j.core.exception.BadCredentialsException;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 
 /**
  * An authenticator that caches the result of an authentication based on the credentials.
  *
+ * The credentials are not kept in memory: the cache key is a salted digest of the credentials.
+ * The <code>salt</code> is random by default: it must be defined (and the same on all nodes) to share the cached profiles
+ * through a distributed {@link Store} or to keep them across restarts.
+ * Concurrent authentications of the same credentials result in a single call to the delegate authenticator.
+ *
+ * If a <code>refreshTimeout</code> (shorter than the <code>timeout</code>) is defined, a cached profile older than it
+ * is refreshed by the request which finds it (with its own web context and session store), while the concurrent requests
+ * are still served the cached profile.
+ *
+ * If a <code>negativeCacheSize</code> is defined, the bad credentials and not found accounts are also remembered
+ * for the <code>negativeTimeout</code> (in the <code>negativeTimeUnit</code>) and the same failure is returned
+ * without calling the delegate authenticator.
+ *
  * Add the <code>guava</code> dependency to use this class.
  *
  * @author Misagh Moayyed
@@ -30,16 +61,47 @@ import java.util.concurrent.TimeUnit;
 @ToString
 public class LocalCachingAuthenticator extends InitializableObject implements Authenticator {
 
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     private Authenticator delegate;
     private int cacheSize;
     private int timeout;
     private TimeUnit timeUnit;
+    private int refreshTimeout;
+    private String digestAlgorithm = "SHA-256";
+    private int negativeCacheSize;
+    private int negativeTimeout = 30;
+    private TimeUnit negativeTimeUnit = TimeUnit.SECONDS;
+
+    private Store<String, UserProfile> store;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private String salt;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private byte[] saltBytes;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final ConcurrentMap<String, CompletableFuture<UserProfile>> inFlightAuthentications = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private Cache<String, Long> refreshTimes;
 
-    private Store<Credentials, UserProfile> store;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private Cache<String, CredentialsException> failures;
 
     public LocalCachingAuthenticator() {}
 
-    public LocalCachingAuthenticator(final Authenticator delegate, final Store<Credentials, UserProfile> store) {
+    public LocalCachingAuthenticator(final Authenticator delegate, final Store<String, UserProfile> store) {
         this.delegate = delegate;
         this.store = store;
     }
@@ -56,26 +118,249 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
     public Optional<Credentials> validate(final Credentials credentials, final WebContext context, final SessionStore sessionStore) {
         init();
 
-        var optProfile = this.store.get(credentials);
+        val key = computeKey(credentials);
+        val optProfile = this.store.get(key);
         if (optProfile.isEmpty()) {
-            LOGGER.debug("No cached credentials found. Delegating authentication to {}...", delegate);
-            delegate.validate(credentials, context, sessionStore);
-            val profile = credentials.getUserProfile();
-            LOGGER.debug("Caching credential. Using profile {}...", profile);
-            store.set(credentials, profile);
+            if (failures != null) {
+                val failure = failures.getIfPresent(key);
+                if (failure != null) {
+                    LOGGER.debug("Found cached failure for credentials: {}", failure.getMessage());
+                    // a new exception as the thrown ones are mutable
+                    throw newFailure(failure);
+                }
+            }
+            credentials.setUserProfile(authenticateOnce(key, credentials, context, sessionStore));
         } else {
             credentials.setUserProfile(optProfile.get());
             LOGGER.debug("Found cached credential. Using cached profile {}...", optProfile.get());
+            if (isStale(key)) {
+                refresh(key, credentials, context, sessionStore, optProfile.get());
+            }
         }
 
         return Optional.of(credentials);
     }
 
+    /**
+     * Authenticate the credentials via the delegate authenticator, unless an authentication of the same credentials
+     * is already in progress: in that case, its result is awaited and reused.
+     *
+     * @param key the cache key
+     * @param credentials the credentials
+     * @param context the web context
+     * @param sessionStore the session store
+     * @return the user profile
+     */
+    protected UserProfile authenticateOnce(final String key, final Credentials credentials, final WebContext context,
+                                           final SessionStore sessionStore) {
+        val future = new CompletableFuture<UserProfile>();
+        val inFlight = inFlightAuthentications.putIfAbsent(key, future);
+        if (inFlight != null) {
+            LOGGER.debug("Authentication already in progress for these credentials. Waiting for its result...");
+            return await(inFlight);
+        }
+
+        try {
+            // the profile may have been cached since the first lookup
+            val optProfile = store.get(key);
+            final UserProfile profile;
+            if (optProfile.isPresent()) {
+                profile = optProfile.get();
+            } else {
+                LOGGER.debug("No cached credentials found. Delegating authentication to {}...", delegate);
+                delegate.validate(credentials, context, sessionStore);
+                profile = credentials.getUserProfile();
+                cache(key, profile);
+            }
+            future.complete(profile);
+            return profile;
+        } catch (final RuntimeException | Error e) {
+            if (e instanceof CredentialsException credentialsException) {
+                rememberFailure(key, credentialsException);
+            }
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightAuthentications.remove(key, future);
+        }
+    }
+
+    protected UserProfile await(final CompletableFuture<UserProfile> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException | CancellationException e) {
+            val cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new TechnicalException(e);
+        }
+    }
+
+    protected boolean isStale(final String key) {
+        if (refreshTimes == null) {
+            return false;
+        }
+        val refreshTime = refreshTimes.getIfPresent(key);
+        return refreshTime == null || System.currentTimeMillis() - refreshTime > timeUnit.toMillis(refreshTimeout);
+    }
+
+    /**
+     * Refresh the cached profile, unless a refresh is already in progress (the cached profile is then kept).
+     *
+     * @param key the cache key
+     * @param credentials the credentials
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param cachedProfile the cached profile
+     */
+    protected void refresh(final String key, final Credentials credentials, final WebContext context,
+                           final SessionStore sessionStore, final UserProfile cachedProfile) {
+        val future = new CompletableFuture<UserProfile>();
+        if (inFlightAuthentications.putIfAbsent(key, future) != null) {
+            return;
+        }
+
+        LOGGER.debug("Refreshing the cached profile via {}...", delegate);
+        try {
+            delegate.validate(credentials, context, sessionStore);
+            val profile = credentials.getUserProfile();
+            cache(key, profile);
+            future.complete(profile);
+        } catch (final CredentialsException e) {
+            LOGGER.debug("Credentials no longer valid, removing the cached profile: {}", e.getMessage());
+            store.remove(key);
+            rememberFailure(key, e);
+            future.completeExceptionally(e);
+            throw e;
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Cannot refresh the cached profile, keeping it", e);
+            credentials.setUserProfile(cachedProfile);
+            future.complete(cachedProfile);
+        } finally {
+            inFlightAuthentications.remove(key, future);
+        }
+    }
+
+    protected void rememberFailure(final String key, final CredentialsException e) {
+        if (failures != null && (e instanceof BadCredentialsException || e instanceof AccountNotFoundException)) {
+            // the thrown exception is not kept
+            failures.put(key, newFailure(e));
+        }
+    }
+
+    protected CredentialsException newFailure(final CredentialsException e) {
+        if (e instanceof AccountNotFoundException) {
+            return new AccountNotFoundException(e.getMessage());
+        }
+        return new BadCredentialsException(e.getMessage());
+    }
+
+    /**
+     * Return the statistics of the cache of failures (if enabled).
+     *
+     * @return the statistics of the cache of failures
+     */
+    public CacheStats getNegativeCacheStats() {
+        return failures != null ? failures.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Return the number of failures currently cached.
+     *
+     * @return the number of cached failures
+     */
+    public long getNegativeCacheEntries() {
+        return failures != null ? failures.size() : 0;
+    }
+
+    protected void cache(final String key, final UserProfile profile) {
+        LOGGER.debug("Caching credential. Using profile {}...", profile);
+        store.set(key, profile);
+        if (refreshTimes != null) {
+            if (profile != null) {
+                refreshTimes.put(key, System.currentTimeMillis());
+            } else {
+                refreshTimes.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Compute the cache key: a salted digest of the credentials (excluding the user profile).
+     *
+     * @param credentials the credentials
+     * @return the cache key
+     */
+    protected String computeKey(final Credentials credentials) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(digestAlgorithm);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+        digest.update(saltBytes);
+        update(digest, credentials.getClass().getName());
+        if (credentials.getClass() == UsernamePasswordCredentials.class) {
+            val upCredentials = (UsernamePasswordCredentials) credentials;
+            update(digest, upCredentials.getUsername());
+            update(digest, upCredentials.getPassword());
+        } else if (credentials.getClass() == TokenCredentials.class) {
+            update(digest, ((TokenCredentials) credentials).getToken());
+        } else {
+            digest.update(serialize(credentials));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+        } else {
+            val bytes = value.getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+            digest.update(bytes);
+        }
+    }
+
+    private static byte[] serialize(final Credentials credentials) {
+        try (val baos = new ByteArrayOutputStream();
+             val oos = new ProfileExcludingObjectOutputStream(baos)) {
+            oos.writeObject(credentials);
+            oos.flush();
+            return baos.toByteArray();
+        } catch (final IOException e) {
+            throw new TechnicalException("Cannot serialize the credentials", e);
+        }
+    }
+
     @Override
     protected void internalInit(final boolean forceReinit) {
         if (this.store == null) {
             this.store = new GuavaStore<>(cacheSize, timeout, timeUnit);
         }
+        if (this.salt != null) {
+            this.saltBytes = this.salt.getBytes(StandardCharsets.UTF_8);
+        } else if (this.saltBytes == null) {
+            this.saltBytes = new byte[16];
+            RANDOM.nextBytes(this.saltBytes);
+        }
+        if (refreshTimeout > 0) {
+            CommonHelper.assertNotNull("timeUnit", timeUnit);
+            this.refreshTimes = CacheBuilder.newBuilder().maximumSize(cacheSize > 0 ? cacheSize : 10000).build();
+        } else {
+            this.refreshTimes = null;
+        }
+        if (negativeCacheSize > 0) {
+            CommonHelper.assertTrue(negativeTimeout > 0, "negativeTimeout must be greater than zero");
+            CommonHelper.assertNotNull("negativeTimeUnit", negativeTimeUnit);
+            this.failures = CacheBuilder.newBuilder().maximumSize(negativeCacheSize)
+                .expireAfterWrite(negativeTimeout, negativeTimeUnit).recordStats().build();
+        } else {
+            this.failures = null;
+        }
 
         if (delegate instanceof InitializableObject initializableObject) {
             initializableObject.init(forceReinit);
@@ -83,10 +368,35 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
     }
 
     public void removeFromCache(final Credentials credentials) {
-        this.store.remove(credentials);
+        init();
+        val key = computeKey(credentials);
+        this.store.remove(key);
+        if (failures != null) {
+            failures.invalidate(key);
+        }
     }
 
     public boolean isCached(final Credentials credentials) {
-        return this.store.get(credentials).isPresent();
+        init();
+        return this.store.get(computeKey(credentials)).isPresent();
+    }
+
+    /**
+     * An object output stream which excludes the user profile of the credentials.
+     */
+    private static class ProfileExcludingObjectOutputStream extends ObjectOutputStream {
+
+        private ProfileExcludingObjectOutputStream(final OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object obj) {
+            if (obj instanceof UserProfile) {
+                return null;
+            }
+            return obj;
+        }
     }
 }
@@ -5,6 +5,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.BufferedSessionStore;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
 import org.pac4j.core.util.CommonHelper;
@@ -41,10 +42,12 @@ public abstract class AbstractExceptionAwareLogic {
             throw runtimeException(e);
         } else if (e instanceof HttpAction httpAction) {
             LOGGER.debug("extra HTTP action required in security: {}", httpAction.getCode());
+            flushSession(context);
             return httpActionAdapter.adapt(httpAction, context);
         } else {
             if (CommonHelper.isNotBlank(errorUrl)) {
                 val action = HttpActionHelper.buildRedirectUrlAction(context, errorUrl);
+                flushSession(context);
                 return httpActionAdapter.adapt(action, context);
             } else {
                 throw runtimeException(e);
@@ -52,6 +55,15 @@ public abstract class AbstractExceptionAwareLogic {
         }
     }
 
+    /**
+     * Write the buffered session changes ({@link BufferedSessionStore}) before the response is committed by the adapters.
+     *
+     * @param context the web context
+     */
+    protected void flushSession(final WebContext context) {
+        BufferedSessionStore.flush(context);
+    }
+
     /**
      * Wrap an Exception into a RuntimeException.
      *
@@ -98,6 +98,7 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             return handleException(e, httpActionAdapter, webContext);
         }
 
+        flushSession(webContext);
         return httpActionAdapter.adapt(action, webContext);
     }
 
@@ -129,7 +130,7 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
                     LOGGER.debug("Renewing session: {} -> {}", oldSessionId, newSessionId);
                     val clients = config.getClients();
                     if (clients != null) {
-                        val clientList = clients.getClients();
+                        val clientList = clients.findAllClients();
                         for (val client : clientList) {
                             val baseClient = (BaseClient) client;
                             baseClient.notifySessionRenewal(oldSessionId, context, sessionStore);
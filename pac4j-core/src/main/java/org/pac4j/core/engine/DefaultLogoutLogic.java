@@ -139,6 +139,7 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
             return handleException(e, httpActionAdapter, context);
         }
 
+        flushSession(context);
         return httpActionAdapter.adapt(action, context);
     }
 
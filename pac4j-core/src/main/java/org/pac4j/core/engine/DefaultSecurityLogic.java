@@ -1,5 +1,7 @@
 package org.pac4j.core.engine;
 
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -28,8 +30,11 @@ import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.factory.ProfileManagerFactory;
 import org.pac4j.core.util.HttpActionHelper;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -69,6 +74,15 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
 
     private boolean loadProfilesFromSession = true;
 
+    private boolean useSecurityPlans = true;
+
+    private int maxSecurityPlans = 1000;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final Map<SecurityPlanKey, SecurityPlan> securityPlans = new ConcurrentHashMap<>();
+
     @Override
     public Object perform(final WebContext context, final SessionStore sessionStore, final ProfileManagerFactory profileManagerFactory,
                           final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
@@ -90,12 +104,20 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             assertNotNull("configClients", configClients);
 
             // logic
-            LOGGER.debug("url: {}", context.getFullRequestURL());
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("url: {}", context.getFullRequestURL());
+            }
             LOGGER.debug("clients: {} | matchers: {}", clients, matchers);
-            val currentClients = clientFinder.find(configClients, context, clients);
+            val plan = getSecurityPlan(config, clients, authorizers, matchers);
+            val currentClients = plan != null
+                ? ((DefaultSecurityClientFinder) clientFinder).find(configClients, plan.getClients(), context)
+                : clientFinder.find(configClients, context, clients);
             LOGGER.debug("currentClients: {}", currentClients);
 
-            if (matchingChecker.matches(context, sessionStore, matchers, config.getMatchers(), currentClients)) {
+            val matches = plan != null
+                ? ((DefaultMatchingChecker) matchingChecker).matches(context, sessionStore, plan.getMatchingPlan(), currentClients)
+                : matchingChecker.matches(context, sessionStore, matchers, config.getMatchers(), currentClients);
+            if (matches) {
 
                 val manager = profileManagerFactory.apply(context, sessionStore);
                 manager.setConfig(config);
@@ -141,10 +163,17 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                 // we have profile(s) -> check authorizations; otherwise, redirect to identity provider or 401
                 if (isNotEmpty(profiles)) {
                     LOGGER.debug("authorizers: {}", authorizers);
-                    if (authorizationChecker.isAuthorized(context, sessionStore, profiles,
-                                                          authorizers, config.getAuthorizers(), currentClients)) {
+                    val authorized = plan != null
+                        ? ((DefaultAuthorizationChecker) authorizationChecker).isAuthorized(context, sessionStore, profiles,
+                                                                                           plan.getAuthorizationPlan(), currentClients)
+                        : authorizationChecker.isAuthorized(context, sessionStore, profiles,
+                                                            authorizers, config.getAuthorizers(), currentClients);
+                    if (authorized) {
                         LOGGER.debug("authenticated and authorized -> grant access");
-                        return securityGrantedAccessAdapter.adapt(context, sessionStore, profiles, parameters);
+                        // the profiles loaded for a read-only usage may be the stored ones, while the adapters have always
+                        // received a modifiable list (and some modify it): they get a copy
+                        flushSession(context);
+                        return securityGrantedAccessAdapter.adapt(context, sessionStore, new ArrayList<>(profiles), parameters);
                     } else {
                         LOGGER.debug("forbidden");
                         action = forbidden(context, sessionStore, currentClients, profiles, authorizers);
@@ -163,6 +192,7 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             } else {
 
                 LOGGER.debug("no matching for this request -> grant access");
+                flushSession(context);
                 return securityGrantedAccessAdapter.adapt(context, sessionStore, Collections.emptyList(), parameters);
             }
 
@@ -170,21 +200,101 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             return handleException(e, httpActionAdapter, context);
         }
 
+        flushSession(context);
         return httpActionAdapter.adapt(action, context);
     }
 
     /**
-     * Load the profiles.
+     * Get the security plan (resolved clients, authorizers and matchers) for the current configuration,
+     * compiling it if necessary. Plans are only used with the default client finder and checkers (not their subclasses).
+     *
+     * @param config the configuration
+     * @param clients the clients
+     * @param authorizers the authorizers
+     * @param matchers the matchers
+     * @return the security plan or <code>null</code> if plans are not used
+     */
+    protected SecurityPlan getSecurityPlan(final Config config, final String clients, final String authorizers,
+                                           final String matchers) {
+        // the subclasses may override the methods bypassed by the plans
+        if (!useSecurityPlans || clientFinder.getClass() != DefaultSecurityClientFinder.class
+            || authorizationChecker.getClass() != DefaultAuthorizationChecker.class
+            || matchingChecker.getClass() != DefaultMatchingChecker.class) {
+            return null;
+        }
+
+        val configClients = config.getClients();
+        // (re-)initialize the clients if they have changed
+        configClients.init();
+        val configVersion = config.getVersion();
+        val clientsVersion = configClients.getVersion();
+        val key = new SecurityPlanKey(config, clients, authorizers, matchers);
+        var plan = securityPlans.get(key);
+        if (plan == null || !plan.isUpToDate(configVersion, clientsVersion)) {
+            plan = compileSecurityPlan(config, configVersion, clientsVersion, clients, authorizers, matchers);
+            LOGGER.debug("Compiled security plan: {}", plan);
+            if (securityPlans.put(key, plan) == null) {
+                evictSecurityPlans();
+            }
+        } else {
+            plan.touch();
+        }
+        return plan;
+    }
+
+    /**
+     * Evict the least recently used security plans beyond <code>maxSecurityPlans</code>
+     * (only when a new plan is added, so the lookups do not pay for it).
+     */
+    protected void evictSecurityPlans() {
+        while (securityPlans.size() > maxSecurityPlans) {
+            Map.Entry<SecurityPlanKey, SecurityPlan> coldest = null;
+            for (val entry : securityPlans.entrySet()) {
+                if (coldest == null || entry.getValue().getLastAccess() < coldest.getValue().getLastAccess()) {
+                    coldest = entry;
+                }
+            }
+            if (coldest == null) {
+                break;
+            }
+            LOGGER.debug("Evicting security plan: {}", coldest.getValue());
+            securityPlans.remove(coldest.getKey(), coldest.getValue());
+        }
+    }
+
+    /**
+     * Compile a security plan.
+     *
+     * @param config the configuration
+     * @param configVersion the configuration version
+     * @param clientsVersion the clients version
+     * @param clients the clients
+     * @param authorizers the authorizers
+     * @param matchers the matchers
+     * @return the security plan
+     */
+    protected SecurityPlan compileSecurityPlan(final Config config, final long configVersion, final long clientsVersion,
+                                               final String clients, final String authorizers, final String matchers) {
+        val resolvedClients = ((DefaultSecurityClientFinder) clientFinder).resolveClients(config.getClients(), clients);
+        val matchingPlan = ((DefaultMatchingChecker) matchingChecker).compile(matchers, config.getMatchers());
+        val authorizersMap = config.getAuthorizers();
+        val checker = (DefaultAuthorizationChecker) authorizationChecker;
+        return new SecurityPlan(configVersion, clientsVersion, resolvedClients, matchingPlan,
+            () -> checker.compile(authorizers, authorizersMap));
+    }
+
+    /**
+     * Load the profiles (read-only, to avoid any copy for already authenticated users).
      *
      * @param manager the profile manager
      * @param context the web context
      * @param sessionStore the session store
      * @param clients the current clients
-     * @return
+     * @return the (unmodifiable) profiles
      */
     protected List<UserProfile> loadProfiles(final ProfileManager manager, final WebContext context, final SessionStore sessionStore,
                                              final List<Client> clients) {
-        return manager.getProfiles();
+        return manager.getReadOnlyProfiles();
     }
 
     /**
@@ -254,4 +364,24 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
     protected HttpAction unauthorized(final WebContext context, final SessionStore sessionStore, final List<Client> currentClients) {
         return HttpActionHelper.buildUnauthenticatedAction(context);
     }
+
+    @EqualsAndHashCode
+    private static final class SecurityPlanKey {
+
+        // the configuration is compared by identity
+        private final Config config;
+
+        private final String clients;
+
+        private final String authorizers;
+
+        private final String matchers;
+
+        private SecurityPlanKey(final Config config, final String clients, final String authorizers, final String matchers) {
+            this.config = config;
+            this.clients = clients;
+            this.authorizers = authorizers;
+            this.matchers = matchers;
+        }
+    }
 }
@@ -21,7 +21,7 @@ public interface SecurityGrantedAccessAdapter {
      * @param context the web context
      * @param sessionStore the session store
      * @param parameters additional parameters
-     * @param profiles the profiles granted, can be empty
+     * @param profiles the profiles granted, can be empty (a copy which can be modified without changing the stored profiles)
      * @return an adapted result
      * @throws Exception any exception
      */
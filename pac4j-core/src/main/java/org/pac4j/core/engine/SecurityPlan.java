@@ -0,0 +1,90 @@
+package org.pac4j.core.engine;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.pac4j.core.authorization.checker.AuthorizationPlan;
+import org.pac4j.core.client.finder.ResolvedClients;
+import org.pac4j.core.matching.checker.MatchingPlan;
+
+import java.util.function.Supplier;
+
+/**
+ * The clients, authorizers and matchers resolved once for a given <code>clients</code>, <code>authorizers</code>
+ * and <code>matchers</code> configuration and a given version of the {@link org.pac4j.core.config.Config}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@ToString
+public final class SecurityPlan {
+
+    @Getter
+    private final long configVersion;
+
+    @Getter
+    private final long clientsVersion;
+
+    @Getter
+    private final ResolvedClients clients;
+
+    @Getter
+    private final MatchingPlan matchingPlan;
+
+    @ToString.Exclude
+    private final Supplier<AuthorizationPlan> authorizationPlanSupplier;
+
+    private volatile AuthorizationPlan authorizationPlan;
+
+    // to evict the least recently used plans
+    private volatile long lastAccess = System.nanoTime();
+
+    public SecurityPlan(final long configVersion, final long clientsVersion, final ResolvedClients clients,
+                        final MatchingPlan matchingPlan, final Supplier<AuthorizationPlan> authorizationPlanSupplier) {
+        this.configVersion = configVersion;
+        this.clientsVersion = clientsVersion;
+        this.clients = clients;
+        this.matchingPlan = matchingPlan;
+        this.authorizationPlanSupplier = authorizationPlanSupplier;
+    }
+
+    /**
+     * Get the authorization plan, resolved on first use as the authorizers are only checked for authenticated users.
+     *
+     * @return the authorization plan
+     */
+    public AuthorizationPlan getAuthorizationPlan() {
+        var plan = authorizationPlan;
+        if (plan == null) {
+            plan = authorizationPlanSupplier.get();
+            authorizationPlan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * Whether this plan has been built for the given versions of the configuration and clients.
+     *
+     * @param configVersion the configuration version
+     * @param clientsVersion the clients version
+     * @return whether this plan is up to date
+     */
+    public boolean isUpToDate(final long configVersion, final long clientsVersion) {
+        return this.configVersion == configVersion && this.clientsVersion == clientsVersion;
+    }
+
+    /**
+     * Record a use of this plan.
+     */
+    public void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    /**
+     * The time of the last use of this plan (in nanoseconds, only to compare the plans).
+     *
+     * @return the time of the last use
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+}
@@ -10,15 +10,30 @@ public class CredentialsException extends TechnicalException {
 
     private static final long serialVersionUID = 6013115966613706463L;
 
+    private static boolean stackTraceEnabled = false;
+
     public CredentialsException(final String message) {
-        super(message);
+        super(message, null, stackTraceEnabled);
     }
 
     public CredentialsException(final Throwable t) {
-        super(t);
+        super(t == null ? null : t.toString(), t, stackTraceEnabled);
     }
 
     public CredentialsException(String message, Throwable t) {
-        super(message, t);
+        super(message, t, stackTraceEnabled);
+    }
+
+    public static boolean isStackTraceEnabled() {
+        return stackTraceEnabled;
+    }
+
+    /**
+     * Define whether the credentials exceptions (expected errors) capture their stack trace. Disabled by default.
+     *
+     * @param stackTraceEnabled whether the stack trace is captured
+     */
+    public static void setStackTraceEnabled(final boolean stackTraceEnabled) {
+        CredentialsException.stackTraceEnabled = stackTraceEnabled;
     }
 }
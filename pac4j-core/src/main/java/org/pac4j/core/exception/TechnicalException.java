@@ -21,4 +21,15 @@ public class TechnicalException extends RuntimeException {
     public TechnicalException(final String message, final Throwable t) {
         super(message, t);
     }
+
+    /**
+     * Build an exception which may not capture its stack trace (for expected errors).
+     *
+     * @param message the message
+     * @param t the cause
+     * @param writableStackTrace whether the stack trace should be captured
+     */
+    protected TechnicalException(final String message, final Throwable t, final boolean writableStackTrace) {
+        super(message, t, true, writableStackTrace);
+    }
 }
@@ -16,10 +16,31 @@ public abstract class HttpAction extends TechnicalException {
 
     private static final long serialVersionUID = -3959659239684160075L;
 
+    private static boolean stackTraceEnabled = false;
+
     protected int code;
 
     protected HttpAction(final int code) {
-        super("Performing a " + code + " HTTP action");
+        super(null, null, stackTraceEnabled);
         this.code = code;
     }
+
+    @Override
+    public String getMessage() {
+        return "Performing a " + code + " HTTP action";
+    }
+
+    public static boolean isStackTraceEnabled() {
+        return stackTraceEnabled;
+    }
+
+    /**
+     * Define whether the HTTP actions (which are only used for the control flow) capture their stack trace.
+     * Disabled by default.
+     *
+     * @param stackTraceEnabled whether the stack trace is captured
+     */
+    public static void setStackTraceEnabled(final boolean stackTraceEnabled) {
+        HttpAction.stackTraceEnabled = stackTraceEnabled;
+    }
 }
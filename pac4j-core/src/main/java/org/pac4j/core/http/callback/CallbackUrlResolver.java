@@ -3,6 +3,8 @@ package org.pac4j.core.http.callback;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.http.url.UrlResolver;
 
+import java.util.Optional;
+
 /**
  * How to compute a callback URL and match a client.
  *
@@ -30,4 +32,15 @@ public interface CallbackUrlResolver {
      * @return whether the current context matches the client name
      */
     boolean matches(String clientName, WebContext context);
+
+    /**
+     * Extract the client name from the current context, if it can be distinguished.
+     *
+     * @param context the web context
+     * @return the client name (if any)
+     * @since 6.0.0
+     */
+    default Optional<String> extractClientName(final WebContext context) {
+        return Optional.empty();
+    }
 }
@@ -5,6 +5,8 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.http.url.UrlResolver;
 import org.pac4j.core.util.CommonHelper;
 
+import java.util.Optional;
+
 /**
  * The client name is added to the path of the callback URL.
  *
@@ -27,6 +29,12 @@ public class PathParameterCallbackUrlResolver implements CallbackUrlResolver {
 
     @Override
     public boolean matches(final String clientName, final WebContext context) {
+        val name = extractClientName(context);
+        return name.isPresent() && CommonHelper.areEqualsIgnoreCaseAndTrim(name.get(), clientName);
+    }
+
+    @Override
+    public Optional<String> extractClientName(final WebContext context) {
         val path = context.getPath();
         if (path != null) {
             val pos = path.lastIndexOf("/");
@@ -36,8 +44,8 @@ public class PathParameterCallbackUrlResolver implements CallbackUrlResolver {
             } else {
                 name = path;
             }
-            return CommonHelper.areEqualsIgnoreCaseAndTrim(name, clientName);
+            return Optional.of(name).filter(CommonHelper::isNotBlank);
         }
-        return false;
+        return Optional.empty();
     }
 }
@@ -10,6 +10,7 @@ import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * The client name is added as a query parameter to the callback URL.
@@ -48,4 +49,9 @@ public class QueryParameterCallbackUrlResolver implements CallbackUrlResolver {
         val name = context.getRequestParameter(this.clientNameParameter).orElse(null);
         return CommonHelper.areEqualsIgnoreCaseAndTrim(name, clientName);
     }
+
+    @Override
+    public Optional<String> extractClientName(final WebContext context) {
+        return context.getRequestParameter(this.clientNameParameter).filter(CommonHelper::isNotBlank);
+    }
 }
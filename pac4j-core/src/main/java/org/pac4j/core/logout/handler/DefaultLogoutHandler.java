@@ -12,6 +12,8 @@ import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.store.Store;
 import org.pac4j.core.util.CommonHelper;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -52,8 +54,10 @@ public class DefaultLogoutHandler implements LogoutHandler {
                     val trackableSession = optTrackableSession.get();
                     LOGGER.debug("key: {} -> trackableSession: {}", key, trackableSession);
                     LOGGER.debug("sessionId: {}", sessionId);
-                    store.set(key, trackableSession);
-                    store.set(sessionId, key);
+                    final Map<String, Object> values = new LinkedHashMap<>();
+                    values.put(key, trackableSession);
+                    values.put(sessionId, key);
+                    store.setAll(values);
                 } else {
                     LOGGER.debug("No trackable session for the current session store: {}", sessionStore);
                 }
@@ -73,9 +77,8 @@ public class DefaultLogoutHandler implements LogoutHandler {
                 store.remove(key);
                 val currentSessionId = optCurrentSessionId.get();
                 LOGGER.debug("currentSessionId: {}", currentSessionId);
-                val sessionToKey = (String) store.get(currentSessionId).orElse(null);
+                val sessionToKey = (String) store.getAndRemove(currentSessionId).orElse(null);
                 LOGGER.debug("-> key: {}", key);
-                store.remove(currentSessionId);
 
                 if (CommonHelper.areEquals(key, sessionToKey)) {
                     destroy(context, sessionStore, profileManagerFactory, "front");
@@ -109,14 +112,12 @@ public class DefaultLogoutHandler implements LogoutHandler {
     @Override
     public void destroySessionBack(final WebContext context, final SessionStore sessionStore,
                                    final ProfileManagerFactory profileManagerFactory, final String key) {
-        val optTrackableSession = store.get(key);
+        val optTrackableSession = store.getAndRemove(key);
         LOGGER.debug("key: {} -> trackableSession: {}", key, optTrackableSession);
         if (!optTrackableSession.isPresent()) {
             LOGGER.error("No trackable session found for back channel logout. Either the session store does not support to track session "
                 + "or it has expired from the store and the store settings must be updated (expired data)");
         } else {
-            store.remove(key);
-
             // renew context with the original session store
             if (sessionStore == null) {
                 LOGGER.error("No session store available for this web context");
@@ -140,12 +141,11 @@ public class DefaultLogoutHandler implements LogoutHandler {
 
     @Override
     public void renewSession(final String oldSessionId, final WebContext context, final SessionStore sessionStore) {
-        val optKey = store.get(oldSessionId);
+        val optKey = store.getAndRemove(oldSessionId);
         LOGGER.debug("oldSessionId: {} -> key: {}", oldSessionId, optKey);
         if (optKey.isPresent()) {
             val key = (String) optKey.get();
             store.remove(key);
-            store.remove(oldSessionId);
             recordSession(context, sessionStore, key);
         }
     }
@@ -39,6 +39,9 @@ public class DefaultMatchingChecker implements MatchingChecker {
 
     protected static final CorsMatcher CORS_MATCHER = new CorsMatcher();
 
+    private static final String SECURITYHEADERS_AND_CSRF_TOKEN =
+        DefaultMatchers.SECURITYHEADERS + Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
+
     static {
         CORS_MATCHER.setAllowOrigin("*");
         CORS_MATCHER.setAllowCredentials(true);
@@ -59,6 +62,58 @@ public class DefaultMatchingChecker implements MatchingChecker {
         return matches(context, sessionStore, matchers);
     }
 
+    /**
+     * Resolve the matchers once from their names (the default matchers are resolved on first use).
+     *
+     * @param matchersValue the matchers
+     * @param matchersMap the map of matchers
+     * @return the matching plan
+     */
+    public MatchingPlan compile(final String matchersValue, final Map<String, Matcher> matchersMap) {
+        final List<Matcher> matchers;
+        final boolean withDefaultMatchers;
+        if (isBlank(matchersValue)) {
+            matchers = new ArrayList<>();
+            withDefaultMatchers = true;
+        } else if (matchersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT)) {
+            matchers = computeMatchersFromNames(substringAfter(matchersValue, Pac4jConstants.ADD_ELEMENT), matchersMap);
+            withDefaultMatchers = true;
+        } else {
+            matchers = computeMatchersFromNames(matchersValue, matchersMap);
+            withDefaultMatchers = false;
+        }
+        return new MatchingPlan(Collections.unmodifiableList(matchers), withDefaultMatchers, matchersMap);
+    }
+
+    /**
+     * Check if the web context matches using a matching plan.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param plan the matching plan
+     * @param clients the clients
+     * @return whether the web context matches
+     */
+    public boolean matches(final WebContext context, final SessionStore sessionStore, final MatchingPlan plan,
+                           final List<Client> clients) {
+        List<Matcher> matchers;
+        if (plan.isWithDefaultMatchers()) {
+            val matchersMap = plan.getMatchersMap();
+            val defaultMatcherNames = computeDefaultMatcherNames(context, sessionStore, clients, matchersMap);
+            val matchersByDefaultNames = plan.getMatchersByDefaultNames();
+            matchers = matchersByDefaultNames.get(defaultMatcherNames);
+            if (matchers == null) {
+                val allMatchers = computeMatchersFromNames(defaultMatcherNames, matchersMap);
+                allMatchers.addAll(plan.getMatchers());
+                matchers = Collections.unmodifiableList(allMatchers);
+                matchersByDefaultNames.put(defaultMatcherNames, matchers);
+            }
+        } else {
+            matchers = plan.getMatchers();
+        }
+        return matches(context, sessionStore, matchers);
+    }
+
     protected List<Matcher> computeMatchers(final WebContext context, final SessionStore sessionStore, final String matchersValue,
                                             final Map<String, Matcher> matchersMap, final List<Client> clients) {
         String matcherNames;
@@ -75,18 +130,17 @@ public class DefaultMatchingChecker implements MatchingChecker {
 
     protected String computeDefaultMatcherNames(final WebContext context, final SessionStore sessionStore, final List<Client> clients,
                                                 final Map<String, Matcher> matchersMap) {
-        String name = DefaultMatchers.SECURITYHEADERS;
         if (sessionStore.getSessionId(context, false).isPresent()) {
-            name += Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
-            return name;
+            return SECURITYHEADERS_AND_CSRF_TOKEN;
         }
-        for (val client : clients) {
-            if (client instanceof IndirectClient) {
-                name += Pac4jConstants.ELEMENT_SEPARATOR + DefaultMatchers.CSRF_TOKEN;
-                return name;
+        // indexed loop: no iterator on the hot path
+        val nb = clients.size();
+        for (var i = 0; i < nb; i++) {
+            if (clients.get(i) instanceof IndirectClient) {
+                return SECURITYHEADERS_AND_CSRF_TOKEN;
             }
         }
-        return name;
+        return DefaultMatchers.SECURITYHEADERS;
     }
 
     protected List<Matcher> computeMatchersFromNames(final String matchersValue, final Map<String, Matcher> matchersMap) {
@@ -120,10 +174,15 @@ public class DefaultMatchingChecker implements MatchingChecker {
 
     protected List<Matcher> retrieveMatchers(final String matcherName, final Map<String, Matcher> matchersMap) {
         final List<Matcher> results = new ArrayList<>();
-        for (val entry : matchersMap.entrySet()) {
-            if (areEqualsIgnoreCaseAndTrim(entry.getKey(), matcherName)) {
-                results.add(entry.getValue());
-                break;
+        val matcher = matchersMap.get(matcherName);
+        if (matcher != null) {
+            results.add(matcher);
+        } else {
+            for (val entry : matchersMap.entrySet()) {
+                if (areEqualsIgnoreCaseAndTrim(entry.getKey(), matcherName)) {
+                    results.add(entry.getValue());
+                    break;
+                }
             }
         }
         if (results.size() == 0) {
@@ -158,7 +217,9 @@ public class DefaultMatchingChecker implements MatchingChecker {
     protected boolean matches(final WebContext context, final SessionStore sessionStore, final List<Matcher> matchers) {
         if (!matchers.isEmpty()) {
             // check matching using matchers: all must be satisfied
-            for (val matcher : matchers) {
+            val nb = matchers.size();
+            for (var i = 0; i < nb; i++) {
+                val matcher = matchers.get(i);
                 val matches = matcher.matches(context, sessionStore);
                 LOGGER.debug("Checking matcher: {} -> {}", matcher, matches);
                 if (!matches) {
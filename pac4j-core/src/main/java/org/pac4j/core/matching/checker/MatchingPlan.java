@@ -0,0 +1,36 @@
+package org.pac4j.core.matching.checker;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import org.pac4j.core.matching.matcher.Matcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The matchers resolved once from their names by the {@link DefaultMatchingChecker}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@ToString(exclude = "matchersByDefaultNames")
+public final class MatchingPlan {
+
+    private final List<Matcher> matchers;
+
+    private final boolean withDefaultMatchers;
+
+    private final Map<String, Matcher> matchersMap;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Map<String, List<Matcher>> matchersByDefaultNames = new ConcurrentHashMap<>();
+
+    MatchingPlan(final List<Matcher> matchers, final boolean withDefaultMatchers, final Map<String, Matcher> matchersMap) {
+        this.matchers = matchers;
+        this.withDefaultMatchers = withDefaultMatchers;
+        this.matchersMap = matchersMap;
+    }
+}
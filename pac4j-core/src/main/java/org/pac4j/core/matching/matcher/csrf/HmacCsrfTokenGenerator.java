@@ -0,0 +1,119 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Stateless CSRF token generator: the token is an expiration date signed (HMAC) with the session identifier,
+ * so no data is saved in the session (except the session creation itself if required).
+ * It must be used with the {@link org.pac4j.core.authorization.authorizer.HmacCsrfAuthorizer}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@Getter
+@Setter
+@ToString(exclude = {"secret", "key"})
+public class HmacCsrfTokenGenerator extends InitializableObject implements CsrfTokenGenerator {
+
+    private static final String SEPARATOR = ".";
+
+    private String secret;
+
+    private String algorithm = "HmacSHA256";
+
+    // 4 hours
+    private int ttlInSeconds = 4*60*60;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private SecretKeySpec key;
+
+    public HmacCsrfTokenGenerator() {}
+
+    public HmacCsrfTokenGenerator(final String secret) {
+        this.secret = secret;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotBlank("secret", secret);
+        CommonHelper.assertNotBlank("algorithm", algorithm);
+        key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm);
+    }
+
+    @Override
+    public String get(final WebContext context, final SessionStore sessionStore) {
+        init();
+
+        val sessionId = sessionStore.getSessionId(context, true)
+            .orElseThrow(() -> new TechnicalException("A session is required to generate a CSRF token"));
+        val expirationDate = System.currentTimeMillis() + ttlInSeconds * 1000L;
+        val token = expirationDate + SEPARATOR + sign(sessionId, expirationDate);
+        LOGGER.debug("generated CSRF token: {}", token);
+        return token;
+    }
+
+    /**
+     * Check that the token has been generated for the current session and is not expired.
+     *
+     * @param token the token
+     * @param context the web context
+     * @param sessionStore the session store
+     * @return whether the token is valid
+     */
+    public boolean isValid(final String token, final WebContext context, final SessionStore sessionStore) {
+        init();
+
+        if (token == null) {
+            return false;
+        }
+        val sessionId = sessionStore.getSessionId(context, false);
+        val pos = token.indexOf(SEPARATOR);
+        if (sessionId.isEmpty() || pos <= 0) {
+            return false;
+        }
+        final long expirationDate;
+        try {
+            expirationDate = Long.parseLong(token, 0, pos, 10);
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+        val expected = sign(sessionId.get(), expirationDate).getBytes(StandardCharsets.US_ASCII);
+        val provided = token.substring(pos + 1).getBytes(StandardCharsets.US_ASCII);
+        // constant-time comparison
+        val isGoodSignature = MessageDigest.isEqual(expected, provided);
+        val isNotExpired = expirationDate >= System.currentTimeMillis();
+        return isGoodSignature && isNotExpired;
+    }
+
+    protected String sign(final String sessionId, final long expirationDate) {
+        try {
+            val mac = Mac.getInstance(algorithm);
+            mac.init(key);
+            mac.update(sessionId.getBytes(StandardCharsets.UTF_8));
+            mac.update(SEPARATOR.getBytes(StandardCharsets.US_ASCII));
+            mac.update(Long.toString(expirationDate).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal());
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+}
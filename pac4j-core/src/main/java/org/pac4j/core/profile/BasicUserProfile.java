@@ -30,31 +30,39 @@ public class BasicUserProfile implements UserProfile, Externalizable {
 
     private static final long serialVersionUID = 9020114478664816338L;
 
+    private static volatile boolean compactStorage = false;
+
     protected transient final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Getter
     private String id;
 
-    private Map<String, Object> attributes = new HashMap<>();
+    private Map<String, Object> attributes = newAttributeMap();
 
-    private Map<String, Object> authenticationAttributes = new HashMap<>();
+    // lazily created as most profiles have no authentication attributes
+    private Map<String, Object> authenticationAttributes;
 
     @Getter
-    @Setter
     private boolean isRemembered = false;
 
-    private Set<String> roles = new HashSet<>();
+    private Set<String> roles = newRoleSet();
+
+    // the roles as a bitset, computed on demand
+    @ToString.Exclude
+    private transient volatile long[] roleWords;
 
     @Getter
-    @Setter
     private String clientName;
 
     @Getter
-    @Setter
     private String linkedId;
 
     private final boolean canAttributesBeMerged;
 
+    // incremented at each modification, not serialized
+    @ToString.Exclude
+    private transient int modificationCount;
+
     public BasicUserProfile() {
         this(true);
     }
@@ -68,6 +76,39 @@ public class BasicUserProfile implements UserProfile, Externalizable {
         this.canAttributesBeMerged = canAttributesBeMerged;
     }
 
+    /**
+     * Whether the attributes and roles of the new profiles are stored in compact structures.
+     *
+     * @return whether the compact storage is enabled
+     */
+    public static boolean isCompactStorage() {
+        return compactStorage;
+    }
+
+    /**
+     * Define whether the attributes and roles of the new profiles are stored in compact structures: small arrays
+     * for a few entries and attribute names and roles shared through the {@link ProfileDictionary} (disabled by default).
+     * This setting is global to the JVM: it applies to the profiles created afterwards, whatever their configuration,
+     * so it must be defined at startup.
+     *
+     * @param compactStorage whether the compact storage is enabled
+     */
+    public static void setCompactStorage(final boolean compactStorage) {
+        BasicUserProfile.compactStorage = compactStorage;
+    }
+
+    private static Map<String, Object> newAttributeMap() {
+        return compactStorage ? new CompactMap() : new HashMap<>();
+    }
+
+    private static Set<String> newRoleSet() {
+        return compactStorage ? new CompactSet() : new HashSet<>();
+    }
+
+    private static String share(final String s) {
+        return compactStorage ? ProfileDictionary.intern(s) : s;
+    }
+
     /**
      * Build a profile from user identifier and attributes.
      *
@@ -100,6 +141,35 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     public void setId(final String id) {
         CommonHelper.assertNotBlank("id", id);
         this.id = id;
+        this.modificationCount++;
+    }
+
+    @Override
+    public void setRemembered(final boolean rme) {
+        this.isRemembered = rme;
+        this.modificationCount++;
+    }
+
+    @Override
+    public void setClientName(final String clientName) {
+        this.clientName = clientName;
+        this.modificationCount++;
+    }
+
+    @Override
+    public void setLinkedId(final String linkedId) {
+        this.linkedId = linkedId;
+        this.modificationCount++;
+    }
+
+    /**
+     * The number of modifications of this profile since its creation or deserialization: it can be used as a version
+     * of the profile to detect changes.
+     *
+     * @return the number of modifications
+     */
+    public int getModificationCount() {
+        return modificationCount;
     }
 
     /**
@@ -123,7 +193,8 @@ public class BasicUserProfile implements UserProfile, Externalizable {
         if (value != null) {
             logger.debug("adding => key: {} / value: {} / {}", key, value, value.getClass());
             var valueForMap = getValueForMap(map, key, value);
-            map.put(key, valueForMap);
+            map.put(share(key), valueForMap);
+            this.modificationCount++;
         }
     }
 
@@ -173,6 +244,9 @@ public class BasicUserProfile implements UserProfile, Externalizable {
      */
     @Override
     public void addAuthenticationAttribute(final String key, final Object value) {
+        if (value != null && this.authenticationAttributes == null) {
+            this.authenticationAttributes = newAttributeMap();
+        }
         addAttributeToMap(this.authenticationAttributes, key, value);
     }
 
@@ -209,7 +283,9 @@ public class BasicUserProfile implements UserProfile, Externalizable {
      */
     public void removeAttribute(final String key) {
         CommonHelper.assertNotNull("key", key);
-        attributes.remove(key);
+        if (attributes.remove(key) != null) {
+            this.modificationCount++;
+        }
     }
 
     /**
@@ -219,7 +295,9 @@ public class BasicUserProfile implements UserProfile, Externalizable {
      */
     public void removeAuthenticationAttribute(final String key) {
         CommonHelper.assertNotNull("key", key);
-        authenticationAttributes.remove(key);
+        if (authenticationAttributes != null && authenticationAttributes.remove(key) != null) {
+            this.modificationCount++;
+        }
     }
 
     /**
@@ -241,8 +319,31 @@ public class BasicUserProfile implements UserProfile, Externalizable {
         return getAttributeMap(this.authenticationAttributes);
     }
 
+    /**
+     * Get a read-only view of the attributes, reflecting their later changes.
+     *
+     * @return the read-only attributes
+     */
+    @Override
+    public Map<String, Object> getReadOnlyAttributes() {
+        return Collections.unmodifiableMap(this.attributes);
+    }
+
+    /**
+     * Get a read-only view of the authentication attributes, reflecting their later changes (unless there were none).
+     *
+     * @return the read-only authentication attributes
+     */
+    public Map<String, Object> getReadOnlyAuthenticationAttributes() {
+        return this.authenticationAttributes != null ? Collections.unmodifiableMap(this.authenticationAttributes)
+            : Collections.emptyMap();
+    }
+
     private static Map<String, Object> getAttributeMap(final Map<String, Object> attributeMap) {
         final Map<String, Object> newAttributes = new HashMap<>();
+        if (attributeMap == null) {
+            return newAttributes;
+        }
         for (var entries : attributeMap.entrySet()) {
             val key = entries.getKey();
             val value = attributeMap.get(key);
@@ -288,7 +389,7 @@ public class BasicUserProfile implements UserProfile, Externalizable {
      * @return the authentication attribute with name
      */
     public Object getAuthenticationAttribute(final String name) {
-        return this.authenticationAttributes.get(name);
+        return this.authenticationAttributes != null ? this.authenticationAttributes.get(name) : null;
     }
 
     /**
@@ -311,7 +412,7 @@ public class BasicUserProfile implements UserProfile, Externalizable {
      */
     public boolean containsAuthenicationAttribute(final String name) {
         CommonHelper.assertNotNull("name", name);
-        return this.authenticationAttributes.containsKey(name);
+        return this.authenticationAttributes != null && this.authenticationAttributes.containsKey(name);
     }
 
     /**
@@ -365,7 +466,9 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     @Override
     public void addRole(final String role) {
         CommonHelper.assertNotBlank("role", role);
-        this.roles.add(role);
+        this.roles.add(share(role));
+        this.roleWords = null;
+        this.modificationCount++;
     }
 
     /**
@@ -376,7 +479,11 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     @Override
     public void addRoles(final Collection<String> roles) {
         CommonHelper.assertNotNull("roles", roles);
-        this.roles.addAll(roles);
+        for (val role : roles) {
+            this.roles.add(share(role));
+        }
+        this.roleWords = null;
+        this.modificationCount++;
     }
 
     /**
@@ -389,18 +496,60 @@ public class BasicUserProfile implements UserProfile, Externalizable {
         return new LinkedHashSet<>(this.roles);
     }
 
+    /**
+     * Get a read-only view of the roles of the user, reflecting their later changes.
+     *
+     * @return the read-only user roles.
+     */
+    @Override
+    public Set<String> getReadOnlyRoles() {
+        return Collections.unmodifiableSet(this.roles);
+    }
+
+    @Override
+    public boolean hasRole(final String role) {
+        return this.roles.contains(role);
+    }
+
+    @Override
+    public boolean hasRoles() {
+        return !this.roles.isEmpty();
+    }
+
+    long[] getCachedRoleWords() {
+        return roleWords;
+    }
+
+    long[] getRoleWords() {
+        var words = this.roleWords;
+        if (words == null) {
+            words = CompiledRoles.toWords(this.roles);
+            this.roleWords = words;
+        }
+        return words;
+    }
+
     public void setRoles(Set<String> roles) {
         CommonHelper.assertNotNull("roles", roles);
-        this.roles = roles;
+        if (compactStorage) {
+            this.roles = newRoleSet();
+            addRoles(roles);
+        } else {
+            // a copy: the later changes of the given set must not bypass the cached bitset of roles
+            this.roles = new HashSet<>(roles);
+            this.roleWords = null;
+            this.modificationCount++;
+        }
     }
 
     @Override
     public void writeExternal(final ObjectOutput out) throws IOException {
         out.writeObject(this.id);
-        out.writeObject(this.attributes);
-        out.writeObject(this.authenticationAttributes);
+        // the standard collections are written to keep the serialized form compatible
+        out.writeObject(toHashMap(this.attributes));
+        out.writeObject(toHashMap(this.authenticationAttributes));
         out.writeBoolean(this.isRemembered);
-        out.writeObject(this.roles);
+        out.writeObject(this.roles instanceof CompactSet ? new HashSet<>(this.roles) : this.roles);
         out.writeObject(this.clientName);
         out.writeObject(this.linkedId);
     }
@@ -412,10 +561,47 @@ public class BasicUserProfile implements UserProfile, Externalizable {
         this.authenticationAttributes = (Map<String, Object>) in.readObject();
         this.isRemembered = in.readBoolean();
         this.roles = (Set<String>) in.readObject();
+        if (compactStorage) {
+            this.attributes = compact(this.attributes);
+            this.authenticationAttributes = this.authenticationAttributes != null && !this.authenticationAttributes.isEmpty()
+                ? compact(this.authenticationAttributes) : null;
+            val readRoles = this.roles;
+            this.roles = newRoleSet();
+            if (readRoles != null) {
+                addRoles(readRoles);
+            }
+        }
         this.clientName = (String) in.readObject();
         this.linkedId = (String) in.readObject();
     }
 
+    private static Map<String, Object> toHashMap(final Map<String, Object> map) {
+        if (map == null) {
+            return new HashMap<>();
+        }
+        return map instanceof CompactMap ? new HashMap<>(map) : map;
+    }
+
+    private static Map<String, Object> compact(final Map<String, Object> map) {
+        val compactMap = new CompactMap();
+        if (map != null) {
+            map.forEach((key, value) -> compactMap.put(ProfileDictionary.intern(key), value));
+        }
+        return compactMap;
+    }
+
+    Map<String, Object> getAttributeStorage() {
+        return attributes;
+    }
+
+    Map<String, Object> getAuthenticationAttributeStorage() {
+        return authenticationAttributes;
+    }
+
+    Set<String> getRoleStorage() {
+        return roles;
+    }
+
     /**
      * Remove the specific data retrieved during the login process
      * to only keep the user attributes and roles.
@@ -0,0 +1,216 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+
+import java.util.*;
+
+/**
+ * A map storing its few entries in a single array (keys and values alternately) and switching to a {@link HashMap}
+ * beyond {@link #MAX_ARRAY_ENTRIES} entries. Keys are looked up linearly, which is faster than hashing for a few entries.
+ *
+ * It keeps the insertion order as long as it is backed by the array. It is not thread-safe.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+final class CompactMap extends AbstractMap<String, Object> {
+
+    static final int MAX_ARRAY_ENTRIES = 8;
+
+    private static final Object[] EMPTY = new Object[0];
+
+    Object[] entries = EMPTY;
+
+    int size;
+
+    HashMap<String, Object> overflow;
+
+    CompactMap() {}
+
+    CompactMap(final Map<String, Object> map) {
+        if (map != null) {
+            map.forEach(this::put);
+        }
+    }
+
+    private int indexOf(final Object key) {
+        for (var i = 0; i < size; i++) {
+            if (Objects.equals(entries[i << 1], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return overflow != null ? overflow.size() : size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return overflow != null ? overflow.containsKey(key) : indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        if (overflow != null) {
+            return overflow.get(key);
+        }
+        val index = indexOf(key);
+        return index >= 0 ? entries[(index << 1) + 1] : null;
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        if (overflow != null) {
+            return overflow.put(key, value);
+        }
+        val index = indexOf(key);
+        if (index >= 0) {
+            val old = entries[(index << 1) + 1];
+            entries[(index << 1) + 1] = value;
+            return old;
+        }
+        if (size == MAX_ARRAY_ENTRIES) {
+            overflow = new HashMap<>();
+            for (var i = 0; i < size; i++) {
+                overflow.put((String) entries[i << 1], entries[(i << 1) + 1]);
+            }
+            overflow.put(key, value);
+            entries = EMPTY;
+            size = 0;
+            return null;
+        }
+        if (entries.length == size << 1) {
+            entries = Arrays.copyOf(entries, Math.max(4, size << 2));
+        }
+        entries[size << 1] = key;
+        entries[(size << 1) + 1] = value;
+        size++;
+        return null;
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        if (overflow != null) {
+            return overflow.remove(key);
+        }
+        val index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        val old = entries[(index << 1) + 1];
+        removeAt(index);
+        return old;
+    }
+
+    private void removeAt(final int index) {
+        System.arraycopy(entries, (index + 1) << 1, entries, index << 1, (size - index - 1) << 1);
+        size--;
+        entries[size << 1] = null;
+        entries[(size << 1) + 1] = null;
+    }
+
+    @Override
+    public void clear() {
+        overflow = null;
+        entries = EMPTY;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public int size() {
+                return CompactMap.this.size();
+            }
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                if (overflow != null) {
+                    return overflow.entrySet().iterator();
+                }
+                return new Iterator<>() {
+
+                    private int next;
+
+                    private boolean canRemove;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        canRemove = true;
+                        return new ArrayEntry(next++);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (!canRemove) {
+                            throw new IllegalStateException();
+                        }
+                        canRemove = false;
+                        removeAt(--next);
+                    }
+                };
+            }
+        };
+    }
+
+    private final class ArrayEntry implements Entry<String, Object> {
+
+        private final int index;
+
+        private final String key;
+
+        private Object value;
+
+        private ArrayEntry(final int index) {
+            this.index = index;
+            this.key = (String) entries[index << 1];
+            this.value = entries[(index << 1) + 1];
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(final Object value) {
+            entries[(index << 1) + 1] = value;
+            val old = this.value;
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Entry<?, ?> e && Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+
+import java.util.*;
+
+/**
+ * A set storing its few elements in an array and switching to a {@link HashSet} beyond {@link #MAX_ARRAY_ELEMENTS} elements.
+ *
+ * It keeps the insertion order as long as it is backed by the array. It is not thread-safe.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+final class CompactSet extends AbstractSet<String> {
+
+    static final int MAX_ARRAY_ELEMENTS = 8;
+
+    private static final String[] EMPTY = new String[0];
+
+    String[] elements = EMPTY;
+
+    int size;
+
+    HashSet<String> overflow;
+
+    CompactSet() {}
+
+    private int indexOf(final Object element) {
+        for (var i = 0; i < size; i++) {
+            if (Objects.equals(elements[i], element)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return overflow != null ? overflow.size() : size;
+    }
+
+    @Override
+    public boolean contains(final Object element) {
+        return overflow != null ? overflow.contains(element) : indexOf(element) >= 0;
+    }
+
+    @Override
+    public boolean add(final String element) {
+        if (overflow != null) {
+            return overflow.add(element);
+        }
+        if (indexOf(element) >= 0) {
+            return false;
+        }
+        if (size == MAX_ARRAY_ELEMENTS) {
+            overflow = new HashSet<>(Arrays.asList(elements));
+            overflow.add(element);
+            elements = EMPTY;
+            size = 0;
+            return true;
+        }
+        if (elements.length == size) {
+            elements = Arrays.copyOf(elements, Math.max(2, size << 1));
+        }
+        elements[size++] = element;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object element) {
+        if (overflow != null) {
+            return overflow.remove(element);
+        }
+        val index = indexOf(element);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    private void removeAt(final int index) {
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+    }
+
+    @Override
+    public void clear() {
+        overflow = null;
+        elements = EMPTY;
+        size = 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        if (overflow != null) {
+            return overflow.iterator();
+        }
+        return new Iterator<>() {
+
+            private int next;
+
+            private boolean canRemove;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public String next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                canRemove = true;
+                return elements[next++];
+            }
+
+            @Override
+            public void remove() {
+                if (!canRemove) {
+                    throw new IllegalStateException();
+                }
+                canRemove = false;
+                removeAt(--next);
+            }
+        };
+    }
+}
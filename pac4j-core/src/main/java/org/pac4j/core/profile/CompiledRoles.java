@@ -0,0 +1,165 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A set of roles compiled into a bitset (based on the {@link RoleDictionary}) to be checked against the roles of the profiles
+ * by word-wise AND / OR operations.
+ *
+ * The bitsets are sparse: only their non-empty words are kept, as sorted (index, word) pairs, so their size depends
+ * on the number of roles and not on the size of the dictionary.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class CompiledRoles {
+
+    private static final long[] NO_WORDS = new long[0];
+
+    private final Set<String> roles;
+
+    private final long[] words;
+
+    // the roles without identifier (the dictionary is full), checked by name
+    private final String[] unindexedRoles;
+
+    private CompiledRoles(final Collection<String> roles) {
+        this.roles = new HashSet<>(roles);
+        this.words = toWords(roles);
+        val unindexed = new ArrayList<String>();
+        for (val role : roles) {
+            if (RoleDictionary.idOf(role) < 0) {
+                unindexed.add(role);
+            }
+        }
+        this.unindexedRoles = unindexed.toArray(new String[0]);
+    }
+
+    /**
+     * Compile the roles.
+     *
+     * @param roles the roles
+     * @return the compiled roles
+     */
+    public static CompiledRoles compile(final Collection<String> roles) {
+        return new CompiledRoles(roles);
+    }
+
+    /**
+     * Whether the profile has any of the compiled roles.
+     *
+     * @param profile the profile
+     * @return whether the profile has any role
+     */
+    public boolean isAnyRoleOf(final UserProfile profile) {
+        if (profile instanceof BasicUserProfile basicProfile) {
+            val profileWords = basicProfile.getRoleWords();
+            var j = 0;
+            for (var i = 0; i < words.length; i += 2) {
+                j = indexOf(profileWords, j, words[i]);
+                if (j < profileWords.length && profileWords[j] == words[i] && (words[i + 1] & profileWords[j + 1]) != 0) {
+                    return true;
+                }
+            }
+            for (val role : unindexedRoles) {
+                if (profile.hasRole(role)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (val role : roles) {
+            if (profile.hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the profile has all the compiled roles.
+     *
+     * @param profile the profile
+     * @return whether the profile has all the roles
+     */
+    public boolean areAllRolesOf(final UserProfile profile) {
+        if (profile instanceof BasicUserProfile basicProfile) {
+            val profileWords = basicProfile.getRoleWords();
+            var j = 0;
+            for (var i = 0; i < words.length; i += 2) {
+                j = indexOf(profileWords, j, words[i]);
+                val profileWord = j < profileWords.length && profileWords[j] == words[i] ? profileWords[j + 1] : 0L;
+                if ((words[i + 1] & ~profileWord) != 0) {
+                    return false;
+                }
+            }
+            for (val role : unindexedRoles) {
+                if (!profile.hasRole(role)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (val role : roles) {
+            if (!profile.hasRole(role)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the position of the first pair whose index is greater than or equal to the searched index.
+     *
+     * @param words the sparse bitset
+     * @param from the position to start from
+     * @param index the searched index
+     * @return the position of the pair (or the length of the bitset)
+     */
+    private static int indexOf(final long[] words, final int from, final long index) {
+        var j = from;
+        while (j < words.length && words[j] < index) {
+            j += 2;
+        }
+        return j;
+    }
+
+    /**
+     * Compute the sparse bitset of roles: the sorted (index, word) pairs of the non-empty words
+     * (the roles without identifier are ignored).
+     *
+     * @param roles the roles
+     * @return the sparse bitset
+     */
+    static long[] toWords(final Collection<String> roles) {
+        val ids = new int[roles.size()];
+        var nb = 0;
+        for (val role : roles) {
+            val id = RoleDictionary.idOf(role);
+            if (id >= 0) {
+                ids[nb++] = id;
+            }
+        }
+        if (nb == 0) {
+            return NO_WORDS;
+        }
+        Arrays.sort(ids, 0, nb);
+        var words = new long[2 * nb];
+        var length = 0;
+        for (var i = 0; i < nb; i++) {
+            val index = ids[i] >>> 6;
+            if (length == 0 || words[length - 2] != index) {
+                words[length] = index;
+                length += 2;
+            }
+            words[length - 1] |= 1L << ids[i];
+        }
+        return length == words.length ? words : Arrays.copyOf(words, length);
+    }
+}
@@ -0,0 +1,81 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The dictionary shared by all the profiles to store a single instance of each attribute name and role.
+ *
+ * It is global to the JVM (shared by all the configurations) and only used with the compact storage
+ * ({@link BasicUserProfile#setCompactStorage(boolean)}). Its memory is bounded by <code>maxSize</code> (10000 strings by default):
+ * once full, the new strings are not shared anymore.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class ProfileDictionary {
+
+    private static final Map<String, String> STRINGS = new ConcurrentHashMap<>();
+
+    private static volatile int maxSize = 10000;
+
+    private ProfileDictionary() {}
+
+    /**
+     * Return the shared instance of the string.
+     *
+     * @param s the string
+     * @return the shared instance (or the string itself if it is not shared)
+     */
+    public static String intern(final String s) {
+        if (s == null) {
+            return null;
+        }
+        val shared = STRINGS.get(s);
+        if (shared != null) {
+            return shared;
+        }
+        if (STRINGS.size() >= maxSize) {
+            return s;
+        }
+        val previous = STRINGS.putIfAbsent(s, s);
+        return previous != null ? previous : s;
+    }
+
+    /**
+     * Whether this exact string instance is the shared one.
+     *
+     * @param s the string
+     * @return whether the string is shared
+     */
+    public static boolean isShared(final String s) {
+        // identity on purpose: an equal but distinct instance is not shared
+        return s != null && STRINGS.get(s) == s;
+    }
+
+    public static int size() {
+        return STRINGS.size();
+    }
+
+    /**
+     * Clear the dictionary: the existing profiles keep their strings, only the new ones are shared from scratch.
+     */
+    public static void clear() {
+        STRINGS.clear();
+    }
+
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Define the maximum number of shared strings, for the whole JVM.
+     *
+     * @param maxSize the maximum size
+     */
+    public static void setMaxSize(final int maxSize) {
+        ProfileDictionary.maxSize = maxSize;
+    }
+}
@@ -0,0 +1,167 @@
+package org.pac4j.core.profile;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+
+import java.util.*;
+
+/**
+ * An estimation of the heap retained by a profile, for a 64-bit JVM with compressed references.
+ *
+ * The strings shared through the {@link ProfileDictionary} are not counted as they are not retained by the profile.
+ * The values which are neither strings, numbers, booleans, dates, arrays, collections nor maps are counted as empty objects.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@ToString
+public final class ProfileFootprint {
+
+    private static final int HEADER = 12;
+
+    private static final int REFERENCE = 4;
+
+    private static final int MAX_DEPTH = 8;
+
+    private final long profileSize;
+
+    private final long attributesSize;
+
+    private final long authenticationAttributesSize;
+
+    private final long rolesSize;
+
+    private ProfileFootprint(final BasicUserProfile profile) {
+        // the profile itself: header, 7 references (logger included), 2 booleans and an int, plus its own strings
+        this.profileSize = align(HEADER + 7 * REFERENCE + 2 + 4) + sizeOf(profile.getId(), 0)
+            + sizeOf(profile.getClientName(), 0) + sizeOf(profile.getLinkedId(), 0);
+        this.attributesSize = sizeOf(profile.getAttributeStorage(), 0);
+        this.authenticationAttributesSize = sizeOf(profile.getAuthenticationAttributeStorage(), 0);
+        val roleWords = profile.getCachedRoleWords();
+        this.rolesSize = sizeOf(profile.getRoleStorage(), 0) + (roleWords != null ? arraySize(roleWords.length, 8) : 0);
+    }
+
+    /**
+     * Estimate the heap retained by a profile.
+     *
+     * @param profile the profile
+     * @return the footprint of the profile
+     */
+    public static ProfileFootprint of(final BasicUserProfile profile) {
+        return new ProfileFootprint(profile);
+    }
+
+    /**
+     * Estimate the heap retained by a value, without serializing it: profiles, strings, numbers, maps, collections and arrays
+     * (16 bytes for the other objects).
+     *
+     * @param value the value
+     * @return the estimated size, in bytes
+     */
+    public static long sizeOf(final Object value) {
+        if (value instanceof BasicUserProfile profile) {
+            return of(profile).getTotalSize();
+        }
+        return sizeOf(value, 0);
+    }
+
+    /**
+     * The total retained size, in bytes.
+     *
+     * @return the total retained size
+     */
+    public long getTotalSize() {
+        return profileSize + attributesSize + authenticationAttributesSize + rolesSize;
+    }
+
+    private static long align(final long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static long arraySize(final int length, final int elementSize) {
+        return align(HEADER + 4 + (long) length * elementSize);
+    }
+
+    // the table of a hash map is created on the first insertion and doubled when it is 75% full
+    private static long tableSize(final int size) {
+        if (size == 0) {
+            return 0;
+        }
+        var capacity = 16;
+        while (capacity * 3 / 4 < size) {
+            capacity <<= 1;
+        }
+        return arraySize(capacity, REFERENCE);
+    }
+
+    private static long sizeOf(final Object value, final int depth) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String s) {
+            if (ProfileDictionary.isShared(s)) {
+                return 0;
+            }
+            val latin1 = s.chars().allMatch(c -> c < 256);
+            return align(HEADER + REFERENCE + 4 + 2) + arraySize(s.length(), latin1 ? 1 : 2);
+        } else if (value instanceof Boolean) {
+            return 0;
+        } else if (value instanceof Long || value instanceof Double || value instanceof Date) {
+            return 24;
+        } else if (value instanceof Number) {
+            return 16;
+        } else if (depth >= MAX_DEPTH) {
+            return 16;
+        } else if (value instanceof CompactMap map) {
+            if (map.overflow != null) {
+                return align(HEADER + 2 * REFERENCE + 4) + sizeOf(map.overflow, depth);
+            }
+            long size = align(HEADER + 2 * REFERENCE + 4) + (map.entries.length > 0 ? arraySize(map.entries.length, REFERENCE) : 0);
+            for (var i = 0; i < map.size * 2; i++) {
+                size += sizeOf(map.entries[i], depth + 1);
+            }
+            return size;
+        } else if (value instanceof CompactSet set) {
+            if (set.overflow != null) {
+                return align(HEADER + 2 * REFERENCE + 4) + sizeOf(set.overflow, depth);
+            }
+            long size = align(HEADER + 2 * REFERENCE + 4) + (set.elements.length > 0 ? arraySize(set.elements.length, REFERENCE) : 0);
+            for (var i = 0; i < set.size; i++) {
+                size += sizeOf(set.elements[i], depth + 1);
+            }
+            return size;
+        } else if (value instanceof Map<?, ?> map) {
+            // HashMap: 48 bytes, its table and 32 bytes per node (40 for a LinkedHashMap)
+            val linked = map instanceof LinkedHashMap;
+            long size = (linked ? 56 : 48) + tableSize(map.size()) + (long) map.size() * (linked ? 40 : 32);
+            for (val entry : map.entrySet()) {
+                size += sizeOf(entry.getKey(), depth + 1) + sizeOf(entry.getValue(), depth + 1);
+            }
+            return size;
+        } else if (value instanceof Set<?> set) {
+            // a HashSet wraps a HashMap whose values are a shared constant
+            long size = 16 + 48 + tableSize(set.size()) + (long) set.size() * 32;
+            for (val element : set) {
+                size += sizeOf(element, depth + 1);
+            }
+            return size;
+        } else if (value instanceof Collection<?> collection) {
+            long size = 24 + arraySize(collection.size(), REFERENCE);
+            for (val element : collection) {
+                size += sizeOf(element, depth + 1);
+            }
+            return size;
+        } else if (value instanceof byte[] bytes) {
+            return arraySize(bytes.length, 1);
+        } else if (value instanceof Object[] array) {
+            long size = arraySize(array.length, REFERENCE);
+            for (val element : array) {
+                size += sizeOf(element, depth + 1);
+            }
+            return size;
+        } else {
+            return 16;
+        }
+    }
+}
@@ -11,26 +11,41 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.exception.http.HttpAction;
+import org.pac4j.core.store.Store;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * This class is a generic way to manage the current user profile(s), i.e. the one(s) of the current authenticated user.
  *
+ * If a <code>profileStore</code> is defined, the profiles are saved once in this shared store and the web session only contains
+ * references to them ({@link ProfileReference}): the profile of a user is shared by all the sessions of this user,
+ * including its per-session data (like the tokens), which are the ones of the last login.
+ *
+ * The profiles are only written in the web session if they have changed since they have been read from or written in the session
+ * during the current request (new profiles or modified {@link BasicUserProfile}s).
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
 @Slf4j
 public class ProfileManager {
 
-    private final Authorizer IS_AUTHENTICATED_AUTHORIZER = new IsAuthenticatedAuthorizer();
+    private static final Authorizer IS_AUTHENTICATED_AUTHORIZER = new IsAuthenticatedAuthorizer();
+
+    private static final String SAVED_PROFILES = Pac4jConstants.USER_PROFILES + ".saved";
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -42,6 +57,10 @@ public class ProfileManager {
     @Setter
     protected Config config;
 
+    @Getter
+    @Setter
+    protected Store<String, UserProfile> profileStore;
+
     public ProfileManager(final WebContext context, final SessionStore sessionStore) {
         CommonHelper.assertNotNull("context", context);
         CommonHelper.assertNotNull("sessionStore", sessionStore);
@@ -49,6 +68,11 @@ public class ProfileManager {
         this.sessionStore = sessionStore;
     }
 
+    public ProfileManager(final WebContext context, final SessionStore sessionStore, final Store<String, UserProfile> profileStore) {
+        this(context, sessionStore);
+        this.profileStore = profileStore;
+    }
+
     /**
      * Retrieve the first user profile if it exists, ignoring any {@link AnonymousProfile} if possible.
      *
@@ -73,6 +97,38 @@ public class ProfileManager {
         return ProfileHelper.flatIntoAProfileList(profiles);
     }
 
+    /**
+     * Retrieve all user profiles for a read-only usage: when they come from a single source (the request or the session)
+     * and none of them is expired, they are returned without copying the stored map.
+     *
+     * @return the user profiles (unmodifiable)
+     */
+    public List<UserProfile> getReadOnlyProfiles() {
+        val requestProfiles = (Map<String, UserProfile>) this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES).orElse(null);
+        val sessionProfiles = retrieveSessionProfiles().orElse(null);
+        final Map<String, UserProfile> profiles;
+        if (requestProfiles == null || requestProfiles.isEmpty() || requestProfiles == sessionProfiles) {
+            profiles = sessionProfiles;
+        } else if (sessionProfiles == null || sessionProfiles.isEmpty()) {
+            profiles = requestProfiles;
+        } else {
+            return Collections.unmodifiableList(getProfiles());
+        }
+
+        if (profiles == null || profiles.isEmpty()) {
+            return Collections.emptyList();
+        }
+        for (val profile : profiles.values()) {
+            if (profile.isExpired()) {
+                return Collections.unmodifiableList(getProfiles());
+            }
+        }
+        if (profiles.size() == 1) {
+            return Collections.singletonList(profiles.values().iterator().next());
+        }
+        return List.copyOf(profiles.values());
+    }
+
     /**
      * Retrieve the map of profiles from the session or the request.
      *
@@ -87,10 +143,10 @@ public class ProfileManager {
                 profiles.putAll((Map<String, UserProfile>) requestAttribute);
             });
         if (readFromSession) {
-            this.sessionStore.get(this.context, Pac4jConstants.USER_PROFILES)
-                .ifPresent(sessionAttribute -> {
-                    LOGGER.debug("Retrieved profiles (session): {}", sessionAttribute);
-                    profiles.putAll((Map<String, UserProfile>) sessionAttribute);
+            retrieveSessionProfiles()
+                .ifPresent(sessionProfiles -> {
+                    LOGGER.debug("Retrieved profiles (session): {}", sessionProfiles);
+                    profiles.putAll(sessionProfiles);
                 });
         }
 
@@ -99,28 +155,83 @@ public class ProfileManager {
         return profiles;
     }
 
+    /**
+     * Retrieve the map of profiles from the session, resolving the references to the shared profile store if necessary.
+     *
+     * @return the map of profiles
+     */
+    protected Optional<Map<String, UserProfile>> retrieveSessionProfiles() {
+        val sessionAttribute = this.sessionStore.get(this.context, Pac4jConstants.USER_PROFILES);
+        if (sessionAttribute.isEmpty()) {
+            return Optional.empty();
+        }
+        val sessionValue = sessionAttribute.get();
+        // the session profiles are resolved and recorded once per request
+        val saved = (SavedProfiles) this.context.getRequestAttribute(SAVED_PROFILES).orElse(null);
+        if (saved != null && saved.sessionValue == sessionValue) {
+            return Optional.of(profileStore == null ? (Map<String, UserProfile>) sessionValue : saved.profiles);
+        }
+
+        final Map<String, UserProfile> profiles;
+        if (profileStore == null) {
+            profiles = (Map<String, UserProfile>) sessionValue;
+        } else {
+            profiles = resolveReferences((Map<String, Object>) sessionValue);
+        }
+        this.context.setRequestAttribute(SAVED_PROFILES, new SavedProfiles(currentSessionId(), sessionValue, profiles));
+        return Optional.of(profiles);
+    }
+
+    /**
+     * Resolve the references to the shared profile store.
+     *
+     * @param sessionProfiles the references (or profiles) read from the session
+     * @return the resolved profiles
+     */
+    protected Map<String, UserProfile> resolveReferences(final Map<String, Object> sessionProfiles) {
+        final List<String> keys = new ArrayList<>();
+        for (val value : sessionProfiles.values()) {
+            if (value instanceof ProfileReference reference) {
+                keys.add(reference.getKey());
+            }
+        }
+        val sharedProfiles = keys.isEmpty() ? Collections.<String, UserProfile>emptyMap() : profileStore.getAll(keys);
+        val profiles = new LinkedHashMap<String, UserProfile>();
+        for (val entry : sessionProfiles.entrySet()) {
+            val value = entry.getValue();
+            if (value instanceof ProfileReference reference) {
+                val profile = sharedProfiles.get(reference.getKey());
+                if (profile != null) {
+                    profiles.put(entry.getKey(), profile);
+                } else {
+                    LOGGER.debug("Profile no longer in the profile store: {}", reference);
+                }
+            } else if (value instanceof UserProfile profile) {
+                profiles.put(entry.getKey(), profile);
+            }
+        }
+        return profiles;
+    }
+
     protected void removeOrRenewExpiredProfiles(final LinkedHashMap<String, UserProfile> profiles, final boolean readFromSession) {
         var profilesUpdated = false;
-        for (val entry : profiles.entrySet()) {
+        val iterator = profiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            val entry = iterator.next();
             val key = entry.getKey();
             val profile = entry.getValue();
             if (profile.isExpired()) {
                 LOGGER.debug("Expired profile: {}", profile);
-                profilesUpdated = true;
-                profiles.remove(key);
-                if (config != null && profile.getClientName() != null) {
-                    val client = config.getClients().findClient(profile.getClientName());
-                    if (client.isPresent()) {
-                        try {
-                            val newProfile = client.get().renewUserProfile(profile, context, sessionStore);
-                            if (newProfile.isPresent()) {
-                                LOGGER.debug("Renewed by profile: {}", newProfile);
-                                profiles.put(key, newProfile.get());
-                            }
-                        } catch (final RuntimeException e) {
-                            logger.error("Unable to renew the user profile for key: {}", key, e);
-                        }
+                val newProfile = renewExpiredProfile(key, profile);
+                if (newProfile.isPresent()) {
+                    if (newProfile.get() != profile) {
+                        LOGGER.debug("Renewed by profile: {}", newProfile);
+                        entry.setValue(newProfile.get());
+                        profilesUpdated = true;
                     }
+                } else {
+                    iterator.remove();
+                    profilesUpdated = true;
                 }
             }
         }
@@ -129,6 +240,35 @@ public class ProfileManager {
         }
     }
 
+    /**
+     * Renew an expired profile via its client, once at a time per session and profile if a {@link ProfileRenewer} is defined.
+     *
+     * @param key the key of the profile
+     * @param profile the expired profile
+     * @return the renewed profile, the same expired profile if it must be kept or empty if it must be removed
+     */
+    protected Optional<UserProfile> renewExpiredProfile(final String key, final UserProfile profile) {
+        if (config == null || profile.getClientName() == null) {
+            return Optional.empty();
+        }
+        val client = config.getClients().findClient(profile.getClientName());
+        if (client.isEmpty()) {
+            return Optional.empty();
+        }
+        final Supplier<Optional<UserProfile>> renewal = () -> client.get().renewUserProfile(profile, context, sessionStore);
+        val profileRenewer = config.getProfileRenewer();
+        if (profileRenewer == null) {
+            try {
+                return renewal.get();
+            } catch (final RuntimeException e) {
+                logger.error("Unable to renew the user profile for key: {}", key, e);
+                return Optional.empty();
+            }
+        }
+        val sessionId = sessionStore.getSessionId(context, false).orElse(Pac4jConstants.EMPTY_STRING);
+        return profileRenewer.renew(sessionId + ":" + key + ":" + profile.getTypedId(), profile, renewal);
+    }
+
     /**
      * Remove the current user profile(s).
      */
@@ -136,7 +276,9 @@ public class ProfileManager {
         val sessionExists = sessionStore.getSessionId(context, false).isPresent();
         if (sessionExists) {
             LOGGER.debug("Removing profiles from session");
-            this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, new LinkedHashMap<String, UserProfile>());
+            val emptyProfiles = new LinkedHashMap<String, UserProfile>();
+            this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, emptyProfiles);
+            this.context.setRequestAttribute(SAVED_PROFILES, new SavedProfiles(currentSessionId(), emptyProfiles, emptyProfiles));
         }
         LOGGER.debug("Removing profiles from request");
         this.context.setRequestAttribute(Pac4jConstants.USER_PROFILES, new LinkedHashMap<String, UserProfile>());
@@ -174,13 +316,63 @@ public class ProfileManager {
 
     protected void saveAll(LinkedHashMap<String, UserProfile> profiles, final boolean saveInSession) {
         if (saveInSession) {
-            LOGGER.debug("Saving profiles (session): {}", profiles);
-            this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, profiles);
+            var saved = (SavedProfiles) this.context.getRequestAttribute(SAVED_PROFILES).orElse(null);
+            if (saved != null && !Objects.equals(saved.sessionId, currentSessionId())) {
+                // the session has changed since the profiles have been read or saved
+                saved = null;
+            }
+            if (saved != null && saved.isUnchanged(profiles)) {
+                LOGGER.debug("Unchanged profiles, not saved in session: {}", profiles);
+            } else {
+                LOGGER.debug("Saving profiles (session): {}", profiles);
+                Object sessionValue = profiles;
+                if (profileStore != null) {
+                    val references = saveInProfileStore(profiles, saved);
+                    sessionValue = saved != null && references.equals(saved.sessionValue) ? saved.sessionValue : references;
+                }
+                if (saved == null || sessionValue != saved.sessionValue) {
+                    this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, sessionValue);
+                }
+                this.context.setRequestAttribute(SAVED_PROFILES, new SavedProfiles(currentSessionId(), sessionValue, profiles));
+            }
         }
         LOGGER.debug("Saving profiles (request): {}", profiles);
         this.context.setRequestAttribute(Pac4jConstants.USER_PROFILES, profiles);
     }
 
+    /**
+     * Save the changed profiles in the shared profile store.
+     *
+     * @param profiles the profiles
+     * @param saved the profiles previously saved (or read) during this request
+     * @return the references to the saved profiles
+     */
+    protected LinkedHashMap<String, ProfileReference> saveInProfileStore(final Map<String, UserProfile> profiles,
+                                                                         final SavedProfiles saved) {
+        val previousReferences = saved != null && saved.sessionValue instanceof Map ? (Map<String, Object>) saved.sessionValue
+            : Collections.<String, Object>emptyMap();
+        val references = new LinkedHashMap<String, ProfileReference>();
+        final Map<String, UserProfile> changedProfiles = new HashMap<>();
+        for (val entry : profiles.entrySet()) {
+            val key = entry.getKey();
+            val profile = entry.getValue();
+            val clientName = retrieveClientName(profile);
+            val typedId = profile.getTypedId();
+            val previousReference = previousReferences.get(key);
+            val reference = previousReference instanceof ProfileReference ref && ref.getClientName().equals(clientName)
+                && Objects.equals(ref.getId(), typedId) ? ref : new ProfileReference(clientName, typedId);
+            references.put(key, reference);
+            if (saved == null || !saved.isUnchanged(key, profile)) {
+                changedProfiles.put(reference.getKey(), profile);
+            }
+        }
+        if (!changedProfiles.isEmpty()) {
+            LOGGER.debug("Saving profiles (profile store): {}", changedProfiles.keySet());
+            profileStore.setAll(changedProfiles);
+        }
+        return references;
+    }
+
     /**
      * Tests if the current user is authenticated (meaning a user profile exists which is not an {@link AnonymousProfile}).
      *
@@ -193,4 +385,67 @@ public class ProfileManager {
             throw new TechnicalException(e);
         }
     }
+
+    private String currentSessionId() {
+        return this.sessionStore.getSessionId(this.context, false).orElse(null);
+    }
+
+    private static int versionOf(final UserProfile profile) {
+        return profile instanceof BasicUserProfile basicProfile ? basicProfile.getModificationCount() : -1;
+    }
+
+    /**
+     * The profiles as they are in the session: the value of the session and the profiles with their versions.
+     */
+    protected static final class SavedProfiles {
+
+        private final String sessionId;
+
+        private final Object sessionValue;
+
+        private final Map<String, UserProfile> profiles;
+
+        private final int[] versions;
+
+        private SavedProfiles(final String sessionId, final Object sessionValue, final Map<String, UserProfile> profiles) {
+            this.sessionId = sessionId;
+            this.sessionValue = sessionValue;
+            this.profiles = Collections.unmodifiableMap(new LinkedHashMap<>(profiles));
+            this.versions = new int[profiles.size()];
+            var i = 0;
+            for (val profile : profiles.values()) {
+                versions[i++] = versionOf(profile);
+            }
+        }
+
+        private boolean isUnchanged(final Map<String, UserProfile> newProfiles) {
+            if (newProfiles.size() != profiles.size()) {
+                return false;
+            }
+            val iterator = profiles.entrySet().iterator();
+            var i = 0;
+            for (val entry : newProfiles.entrySet()) {
+                val savedEntry = iterator.next();
+                if (!savedEntry.getKey().equals(entry.getKey()) || !isUnchanged(savedEntry.getValue(), versions[i++], entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isUnchanged(final String key, final UserProfile newProfile) {
+            var i = 0;
+            for (val entry : profiles.entrySet()) {
+                if (entry.getKey().equals(key)) {
+                    return isUnchanged(entry.getValue(), versions[i], newProfile);
+                }
+                i++;
+            }
+            return false;
+        }
+
+        private static boolean isUnchanged(final UserProfile profile, final int version, final UserProfile newProfile) {
+            return profile == newProfile && version >= 0 && version == versionOf(newProfile);
+        }
+    }
 }
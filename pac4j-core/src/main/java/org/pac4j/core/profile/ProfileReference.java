@@ -0,0 +1,40 @@
+package org.pac4j.core.profile;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * A reference to a user profile saved in the shared profile store of the {@link ProfileManager}: it is saved in the web session
+ * instead of the profile itself. It contains the client name and the typed identifier of the profile.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class ProfileReference implements Serializable {
+
+    private static final long serialVersionUID = 4270983166532937412L;
+
+    private final String clientName;
+
+    private final String id;
+
+    public ProfileReference(final String clientName, final String id) {
+        this.clientName = clientName;
+        this.id = id;
+    }
+
+    /**
+     * The key of the profile in the shared profile store.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return clientName + ":" + id;
+    }
+}
@@ -0,0 +1,142 @@
+package org.pac4j.core.profile;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Renews the expired user profiles of the {@link ProfileManager}, only once at a time per session and profile:
+ * the concurrent requests wait for the renewal in progress (at most <code>waitTimeout</code> milliseconds).
+ *
+ * If <code>serveExpiredProfiles</code> is enabled, the concurrent requests are served the expired profile instead of waiting.
+ * It is meant for profiles which are declared expired some time before they really are (like the <code>OidcProfile</code>
+ * and its <code>tokenExpirationAdvance</code>): the renewal starts before the real expiration and the profile is still valid
+ * while it is in progress.
+ *
+ * The renewal is performed in the thread of the request which has triggered it, as the clients may use its web context.
+ * The results of the renewals are kept <code>resultTimeout</code> milliseconds for the requests which have read the expired
+ * profile before the renewal ends: they are purged at the next renewals (at most once per <code>resultTimeout</code>).
+ *
+ * A request which cannot get the result of the renewal in progress (timeout) keeps the expired profile.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@ToString(exclude = {"renewals", "lastPurge"})
+@Slf4j
+public class ProfileRenewer {
+
+    private static final int PURGE_THRESHOLD = 1000;
+
+    private long waitTimeout = 5000;
+
+    private long resultTimeout = 10000;
+
+    private boolean serveExpiredProfiles;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, Renewal> renewals = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong lastPurge = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Renew an expired profile.
+     *
+     * @param key the key of the renewal (session and profile)
+     * @param profile the expired profile
+     * @param renewal the renewal of the profile
+     * @return the renewed profile, the expired profile if it is still served (or if the renewal in progress takes too long)
+     * or empty if the profile must be removed
+     */
+    public Optional<UserProfile> renew(final String key, final UserProfile profile, final Supplier<Optional<UserProfile>> renewal) {
+        purge();
+
+        Renewal current;
+        while (true) {
+            current = renewals.get(key);
+            if (current != null && !current.isOutdated(resultTimeout)) {
+                break;
+            }
+            val newRenewal = new Renewal();
+            if (current == null ? renewals.putIfAbsent(key, newRenewal) == null : renewals.replace(key, current, newRenewal)) {
+                LOGGER.debug("Renewing the profile: {}", key);
+                newRenewal.complete(renewal);
+                return newRenewal.future.join();
+            }
+        }
+
+        if (current.future.isDone() || !serveExpiredProfiles) {
+            try {
+                LOGGER.debug("Waiting for the renewal of the profile: {}", key);
+                return current.future.get(waitTimeout, TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException e) {
+                LOGGER.warn("Renewal of the profile: {} still in progress after {} ms, keeping the expired profile", key, waitTimeout);
+                return Optional.of(profile);
+            } catch (final ExecutionException | CancellationException e) {
+                return Optional.of(profile);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.of(profile);
+            }
+        }
+        LOGGER.debug("Renewal of the profile: {} in progress, serving the expired profile", key);
+        return Optional.of(profile);
+    }
+
+    protected void purge() {
+        val now = System.currentTimeMillis();
+        val last = lastPurge.get();
+        if ((now - last > resultTimeout || renewals.size() > PURGE_THRESHOLD) && lastPurge.compareAndSet(last, now)) {
+            renewals.entrySet().removeIf(entry -> entry.getValue().isOutdated(resultTimeout));
+        }
+    }
+
+    /**
+     * The number of renewals in progress or whose results are kept.
+     *
+     * @return the number of renewals
+     */
+    public int getNbRenewals() {
+        return renewals.size();
+    }
+
+    /**
+     * A renewal in progress or done.
+     */
+    protected static final class Renewal {
+
+        private final CompletableFuture<Optional<UserProfile>> future = new CompletableFuture<>();
+
+        private volatile long completionTime;
+
+        private void complete(final Supplier<Optional<UserProfile>> renewal) {
+            Optional<UserProfile> result;
+            try {
+                result = renewal.get();
+            } catch (final RuntimeException e) {
+                LOGGER.error("Unable to renew the user profile", e);
+                result = Optional.empty();
+            }
+            completionTime = System.currentTimeMillis();
+            future.complete(result);
+        }
+
+        private boolean isOutdated(final long resultTimeout) {
+            return future.isDone() && System.currentTimeMillis() - completionTime > resultTimeout;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The dictionary giving a dense integer identifier to each role, to represent the roles as bitsets.
+ *
+ * It is global to the JVM (shared by all the configurations) and never cleared, as the identifiers are held by the compiled roles
+ * of the authorizers and by the role bitsets of the profiles. Its memory is bounded by <code>maxSize</code> (65536 roles by default):
+ * once full, the new roles have no identifier and are checked by name.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class RoleDictionary {
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private static volatile int maxSize = 65536;
+
+    private RoleDictionary() {}
+
+    /**
+     * Return the identifier of the role, creating it if necessary.
+     *
+     * @param role the role
+     * @return the identifier of the role or -1 if the dictionary is full
+     */
+    public static int idOf(final String role) {
+        val id = IDS.get(role);
+        if (id != null) {
+            return id;
+        }
+        if (IDS.size() >= maxSize) {
+            return -1;
+        }
+        return IDS.computeIfAbsent(role, r -> NEXT_ID.getAndIncrement());
+    }
+
+    public static int size() {
+        return IDS.size();
+    }
+
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Define the maximum number of roles with an identifier, for the whole JVM.
+     *
+     * @param maxSize the maximum size
+     */
+    public static void setMaxSize(final int maxSize) {
+        RoleDictionary.maxSize = maxSize;
+    }
+}
@@ -3,6 +3,7 @@ package org.pac4j.core.profile;
 import java.io.Serializable;
 import java.security.Principal;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
@@ -28,6 +29,16 @@ public interface UserProfile extends Serializable {
 
     boolean containsAttribute(String name);
 
+    /**
+     * Return a read-only view of the attributes (without copying them when possible).
+     *
+     * @return the read-only attributes
+     * @since 6.0.0
+     */
+    default Map<String, Object> getReadOnlyAttributes() {
+        return Collections.unmodifiableMap(getAttributes());
+    }
+
     void addAttribute(String key, Object value);
 
     void removeAttribute(String key);
@@ -42,6 +53,37 @@ public interface UserProfile extends Serializable {
 
     Set<String> getRoles();
 
+    /**
+     * Return a read-only view of the roles (without copying them when possible).
+     *
+     * @return the read-only roles
+     * @since 6.0.0
+     */
+    default Set<String> getReadOnlyRoles() {
+        return Collections.unmodifiableSet(getRoles());
+    }
+
+    /**
+     * Whether the user has the role.
+     *
+     * @param role the role
+     * @return whether the user has the role
+     * @since 6.0.0
+     */
+    default boolean hasRole(final String role) {
+        return getReadOnlyRoles().contains(role);
+    }
+
+    /**
+     * Whether the user has at least one role.
+     *
+     * @return whether the user has roles
+     * @since 6.0.0
+     */
+    default boolean hasRoles() {
+        return !getReadOnlyRoles().isEmpty();
+    }
+
     boolean isRemembered();
 
     void setRemembered(boolean rme);
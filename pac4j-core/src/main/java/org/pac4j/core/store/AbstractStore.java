@@ -1,9 +1,15 @@
 package org.pac4j.core.store;
 
+import lombok.val;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Abstract store.
@@ -45,9 +51,112 @@ public abstract class AbstractStore<K, O> extends InitializableObject implements
         internalRemove(key);
     }
 
+    @Override
+    public Map<K, O> getAll(final Collection<K> keys) {
+        CommonHelper.assertNotNull("keys", keys);
+        init();
+
+        return internalGetAll(keys);
+    }
+
+    @Override
+    public void setAll(final Map<K, O> values) {
+        CommonHelper.assertNotNull("values", values);
+        init();
+
+        internalSetAll(values);
+    }
+
+    @Override
+    public void removeAll(final Collection<K> keys) {
+        CommonHelper.assertNotNull("keys", keys);
+        init();
+
+        internalRemoveAll(keys);
+    }
+
+    @Override
+    public void set(final K key, final O value, final long timeToLive, final TimeUnit timeUnit) {
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertTrue(timeToLive > 0, "timeToLive must be greater than zero");
+        CommonHelper.assertNotNull("timeUnit", timeUnit);
+        init();
+
+        if (value == null) {
+            internalRemove(key);
+        } else {
+            internalSet(key, value, timeToLive, timeUnit);
+        }
+    }
+
+    @Override
+    public O computeIfAbsent(final K key, final Function<? super K, ? extends O> mappingFunction) {
+        CommonHelper.assertNotNull("key", key);
+        CommonHelper.assertNotNull("mappingFunction", mappingFunction);
+        init();
+
+        return internalComputeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Optional<O> getAndRemove(final K key) {
+        CommonHelper.assertNotNull("key", key);
+        init();
+
+        return internalGetAndRemove(key);
+    }
+
     protected abstract Optional<O> internalGet(final K key);
 
     protected abstract void internalSet(final K key, final O value);
 
     protected abstract void internalRemove(final K key);
+
+    protected Map<K, O> internalGetAll(final Collection<K> keys) {
+        final Map<K, O> values = new LinkedHashMap<>();
+        for (val key : keys) {
+            internalGet(key).ifPresent(value -> values.put(key, value));
+        }
+        return values;
+    }
+
+    protected void internalSetAll(final Map<K, O> values) {
+        for (val entry : values.entrySet()) {
+            if (entry.getValue() == null) {
+                internalRemove(entry.getKey());
+            } else {
+                internalSet(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    protected void internalRemoveAll(final Collection<K> keys) {
+        for (val key : keys) {
+            internalRemove(key);
+        }
+    }
+
+    protected void internalSet(final K key, final O value, final long timeToLive, final TimeUnit timeUnit) {
+        internalSet(key, value);
+    }
+
+    protected O internalComputeIfAbsent(final K key, final Function<? super K, ? extends O> mappingFunction) {
+        val value = internalGet(key);
+        if (value.isPresent()) {
+            return value.get();
+        }
+        final O newValue = mappingFunction.apply(key);
+        if (newValue != null) {
+            internalSet(key, newValue);
+        }
+        return newValue;
+    }
+
+    protected Optional<O> internalGetAndRemove(final K key) {
+        val value = internalGet(key);
+        if (value.isPresent()) {
+            internalRemove(key);
+        }
+        return value;
+    }
 }
@@ -2,17 +2,44 @@ package org.pac4j.core.store;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.profile.ProfileFootprint;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.serializer.Serializer;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Store data in a Guava cache.
  *
+ * The cache is bounded by a number of entries (<code>size</code>) or by a total weight (<code>maximumWeight</code>,
+ * the weight of an entry being the estimated heap size of its value, or the size of its value serialized by the
+ * <code>weightSerializer</code> if it is defined). The entries are only weighed if a <code>maximumWeight</code> is defined.
+ * The entries expire after
+ * the <code>timeout</code> since their write and/or after the <code>accessTimeout</code> since their last access.
+ * If a <code>loader</code> is defined, the entries older than the <code>refreshTimeout</code> are reloaded
+ * asynchronously when read by the <code>refreshExecutor</code> (by default, a small executor of daemon threads shared
+ * by the stores), the old value being served meanwhile.
+ * The statistics are only recorded if <code>recordStats</code> is enabled.
+ *
+ * A time to live per entry is supported, it can only shorten the global expiration.
+ * The batch and atomic operations are natively supported by the Guava cache.
+ *
  * Add the <code>guava</code> dependency to use this store.
  *
  * @author Jerome Leleu
@@ -36,6 +63,38 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
     @Setter
     private TimeUnit timeUnit;
 
+    @Getter
+    @Setter
+    private long maximumWeight = 0;
+
+    @Getter
+    @Setter
+    private Serializer weightSerializer;
+
+    @Getter
+    @Setter
+    private int accessTimeout = -1;
+
+    @Getter
+    @Setter
+    private int refreshTimeout = -1;
+
+    @Getter
+    @Setter
+    private Function<K, O> loader;
+
+    @Getter
+    @Setter
+    private Executor refreshExecutor;
+
+    @Getter
+    @Setter
+    private boolean recordStats = false;
+
+    // the expirations of the entries saved with a specific time to live
+    @ToString.Exclude
+    private final Map<K, Expiration<O>> expirations = new ConcurrentHashMap<>();
+
     public GuavaStore() {}
 
     public GuavaStore(final int size, final int timeout, final TimeUnit timeUnit) {
@@ -46,17 +105,81 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
 
     @Override
     protected void internalInit(final boolean forceReinit) {
-        CommonHelper.assertTrue(this.size > 0, "size mut be greater than zero");
-        CommonHelper.assertTrue(this.timeout >= 0, "timeout must be greater than zero");
+        CommonHelper.assertTrue(this.size > 0 || this.maximumWeight > 0, "size mut be greater than zero");
+        CommonHelper.assertTrue(this.timeout >= 0 || this.accessTimeout > 0, "timeout must be greater than zero");
         CommonHelper.assertNotNull("timeUnit", this.timeUnit);
 
-        this.cache = CacheBuilder.newBuilder().maximumSize(this.size)
-                .expireAfterWrite(this.timeout, this.timeUnit).build();
+        // the specific expiration of an entry is forgotten when the entry is replaced or removed
+        final CacheBuilder<K, O> builder = CacheBuilder.newBuilder().removalListener((RemovalNotification<K, O> notification) ->
+            expirations.computeIfPresent(notification.getKey(),
+                (key, expiration) -> expiration.value == notification.getValue() ? null : expiration));
+        if (this.maximumWeight > 0) {
+            builder.maximumWeight(this.maximumWeight).weigher((K key, O value) -> weigh(value));
+        } else {
+            builder.maximumSize(this.size);
+        }
+        if (this.timeout >= 0) {
+            builder.expireAfterWrite(this.timeout, this.timeUnit);
+        }
+        if (this.accessTimeout > 0) {
+            builder.expireAfterAccess(this.accessTimeout, this.timeUnit);
+        }
+        if (this.recordStats) {
+            builder.recordStats();
+        }
+        if (this.loader != null && this.refreshTimeout > 0) {
+            if (this.refreshExecutor == null) {
+                this.refreshExecutor = DefaultRefreshExecutor.INSTANCE;
+            }
+            builder.refreshAfterWrite(this.refreshTimeout, this.timeUnit);
+            this.cache = builder.build(CacheLoader.asyncReloading(CacheLoader.from(this.loader::apply), this.refreshExecutor));
+        } else {
+            this.cache = builder.build();
+        }
+    }
+
+    /**
+     * Compute the weight of a value: its estimated heap size (cheap) or the size of its serialized form
+     * if a <code>weightSerializer</code> is defined.
+     *
+     * @param value the value
+     * @return the weight
+     */
+    protected int weigh(final O value) {
+        if (weightSerializer != null) {
+            val bytes = weightSerializer.serializeToBytes(value);
+            return bytes != null ? bytes.length : 1;
+        }
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, ProfileFootprint.sizeOf(value)));
+    }
+
+    /**
+     * Return the statistics of the cache (empty if they are not recorded).
+     *
+     * @return the statistics
+     */
+    public CacheStats getStats() {
+        init();
+
+        return cache.stats();
     }
 
     @Override
     protected Optional<O> internalGet(final K key) {
-        return Optional.ofNullable(cache.getIfPresent(key));
+        val value = cache.getIfPresent(key);
+        if (value != null && isExpired(key, value)) {
+            cache.asMap().remove(key, value);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(value);
+    }
+
+    protected boolean isExpired(final K key, final O value) {
+        if (expirations.isEmpty()) {
+            return false;
+        }
+        val expiration = expirations.get(key);
+        return expiration != null && expiration.value == value && expiration.time <= System.currentTimeMillis();
     }
 
     @Override
@@ -68,4 +191,81 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
     protected void internalRemove(final K key) {
         cache.invalidate(key);
     }
+
+    @Override
+    protected Map<K, O> internalGetAll(final Collection<K> keys) {
+        val values = cache.getAllPresent(keys);
+        if (expirations.isEmpty()) {
+            return values;
+        }
+        return super.internalGetAll(values.keySet());
+    }
+
+    @Override
+    protected void internalSetAll(final Map<K, O> values) {
+        // not containsValue(null): the immutable maps reject null lookups
+        for (val entry : values.entrySet()) {
+            if (entry.getValue() == null) {
+                super.internalSetAll(values);
+                return;
+            }
+        }
+        cache.putAll(values);
+    }
+
+    @Override
+    protected void internalRemoveAll(final Collection<K> keys) {
+        cache.invalidateAll(keys);
+    }
+
+    @Override
+    protected void internalSet(final K key, final O value, final long timeToLive, final TimeUnit timeUnit) {
+        cache.put(key, value);
+        expirations.put(key, new Expiration<>(value, System.currentTimeMillis() + timeUnit.toMillis(timeToLive)));
+    }
+
+    @Override
+    protected O internalComputeIfAbsent(final K key, final Function<? super K, ? extends O> mappingFunction) {
+        // drop the entry if it has reached its specific expiration time
+        internalGet(key);
+        return cache.asMap().computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    protected Optional<O> internalGetAndRemove(final K key) {
+        val value = internalGet(key);
+        if (value.isPresent() && cache.asMap().remove(key, value.get())) {
+            return value;
+        }
+        return Optional.empty();
+    }
+
+    // created on first use, only for the stores refreshing their entries
+    private static final class DefaultRefreshExecutor {
+
+        private static final Executor INSTANCE = newExecutor();
+
+        private static Executor newExecutor() {
+            val threadNumber = new AtomicInteger();
+            val executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1000), r -> {
+                val thread = new Thread(r, "pac4j-guava-store-refresh-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    private static final class Expiration<O> {
+
+        private final O value;
+
+        private final long time;
+
+        private Expiration(final O value, final long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
 }
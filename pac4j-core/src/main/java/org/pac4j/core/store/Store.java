@@ -1,10 +1,18 @@
 package org.pac4j.core.store;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Store data.
  *
+ * The batch and atomic operations have default implementations based on the single-key operations:
+ * the implementations should override them to batch the calls and guarantee atomicity.
+ *
  * @author Jerome Leleu
  * @since 2.0.0
  */
@@ -32,4 +40,82 @@ public interface Store<K, O> {
      * @param key the key
      */
     void remove(K key);
+
+    /**
+     * Get the values of several keys.
+     *
+     * @param keys the keys
+     * @return the found values by key
+     */
+    default Map<K, O> getAll(final Collection<K> keys) {
+        final Map<K, O> values = new LinkedHashMap<>();
+        for (final K key : keys) {
+            get(key).ifPresent(value -> values.put(key, value));
+        }
+        return values;
+    }
+
+    /**
+     * Set several values by their keys.
+     *
+     * @param values the values by key
+     */
+    default void setAll(final Map<K, O> values) {
+        values.forEach(this::set);
+    }
+
+    /**
+     * Remove the values associated to several keys.
+     *
+     * @param keys the keys
+     */
+    default void removeAll(final Collection<K> keys) {
+        keys.forEach(this::remove);
+    }
+
+    /**
+     * Set a value by its key with a specific time to live. The stores which do not support a time to live per entry
+     * keep the value according to their own expiration policy.
+     *
+     * @param key the key
+     * @param value the value
+     * @param timeToLive the time to live
+     * @param timeUnit the time unit of the time to live
+     */
+    default void set(final K key, final O value, final long timeToLive, final TimeUnit timeUnit) {
+        set(key, value);
+    }
+
+    /**
+     * Get the value of the key or compute it (and save it) if it is missing.
+     *
+     * @param key the key
+     * @param mappingFunction the function computing the value (returning <code>null</code> saves nothing)
+     * @return the current or computed value (may be <code>null</code>)
+     */
+    default O computeIfAbsent(final K key, final Function<? super K, ? extends O> mappingFunction) {
+        final Optional<O> value = get(key);
+        if (value.isPresent()) {
+            return value.get();
+        }
+        final O newValue = mappingFunction.apply(key);
+        if (newValue != null) {
+            set(key, newValue);
+        }
+        return newValue;
+    }
+
+    /**
+     * Remove the value associated to the key and return it.
+     *
+     * @param key the key
+     * @return the removed value (optional)
+     */
+    default Optional<O> getAndRemove(final K key) {
+        final Optional<O> value = get(key);
+        if (value.isPresent()) {
+            remove(key);
+        }
+        return value;
+    }
 }
@@ -119,7 +119,9 @@ public final class CommonHelper {
      * @param msg   an expanatory message
      */
     public static void assertNotBlank(final String name, final String value, final String msg) {
-        assertTrue(!isBlank(value), name + " cannot be blank" + (msg != null ? ": " + msg : Pac4jConstants.EMPTY_STRING));
+        if (isBlank(value)) {
+            throw new TechnicalException(name + " cannot be blank" + (msg != null ? ": " + msg : Pac4jConstants.EMPTY_STRING));
+        }
     }
 
     /**
@@ -139,7 +141,9 @@ public final class CommonHelper {
      * @param obj  object
      */
     public static void assertNotNull(final String name, final Object obj) {
-        assertTrue(obj != null, name + " cannot be null");
+        if (obj == null) {
+            throw new TechnicalException(name + " cannot be null");
+        }
     }
 
     /**
@@ -149,7 +153,9 @@ public final class CommonHelper {
      * @param obj  object
      */
     public static void assertNull(final String name, final Object obj) {
-        assertTrue(obj == null, name + " must be null");
+        if (obj != null) {
+            throw new TechnicalException(name + " must be null");
+        }
     }
 
     /**
@@ -87,6 +87,17 @@ public class JavaSerializer extends AbstractSerializer {
         return Collections.unmodifiableSet(trustedClasses);
     }
 
+    /**
+     * Whether a class is trusted (as a trusted class or in a trusted package).
+     *
+     * @param className the class name
+     * @return whether the class is trusted
+     */
+    public boolean isTrusted(final String className) {
+        return trustedClasses.stream().anyMatch(c -> c.getName().equals(className))
+            || trustedPackages.stream().anyMatch(className::startsWith);
+    }
+
     public void addTrustedPackages(final Collection<String> trustedPackages) {
         this.trustedPackages.addAll(trustedPackages);
     }
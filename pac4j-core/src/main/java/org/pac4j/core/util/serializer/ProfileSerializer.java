@@ -0,0 +1,520 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.BasicUserProfile;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A compact binary serializer for the user profiles (subclasses of {@link BasicUserProfile}).
+ *
+ * The format is versioned: a header (magic byte, version, flags) followed by the profile class name, identifier,
+ * remembered flag, client name, linked identifier, roles, attributes and authentication attributes.
+ * The common strings (class and attribute names) are encoded as references to a static dictionary
+ * and the common attribute values (strings, booleans, numbers, dates, URIs, collections, string arrays and maps) are encoded
+ * natively. Other attribute values are encoded via the {@link JavaSerializer} (and its trusted classes restrictions).
+ * The profile class must also be trusted by the {@link JavaSerializer} to be deserialized.
+ *
+ * The body is compressed when it is larger than the <code>compressionThreshold</code> (disabled if negative).
+ *
+ * Other objects than user profiles are serialized via the {@link JavaSerializer}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Slf4j
+@ToString
+public class ProfileSerializer extends AbstractSerializer {
+
+    private static final byte MAGIC = (byte) 0xB7;
+
+    private static final byte JAVA_MAGIC = (byte) 0xAC;
+
+    private static final byte VERSION = 1;
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int MAX_UNCOMPRESSED_SIZE = 16 * 1024 * 1024;
+
+    private static final int NULL = 0, STRING = 1, TRUE = 2, FALSE = 3, INTEGER = 4, LONG = 5, DOUBLE = 6, DATE = 7, URI_TYPE = 8,
+        LIST = 9, SET = 10, STRING_ARRAY = 11, MAP = 12, JAVA = 13;
+
+    // never remove nor reorder the entries of the dictionary: only append new ones (in a new version)
+    private static final List<String> DICTIONARY = List.of(
+        "org.pac4j.core.profile.CommonProfile", "org.pac4j.core.profile.BasicUserProfile", "org.pac4j.core.profile.AnonymousProfile",
+        "org.pac4j.oidc.profile.OidcProfile", "org.pac4j.jwt.profile.JwtProfile", "org.pac4j.saml.profile.SAML2Profile",
+        "org.pac4j.cas.profile.CasProfile", "org.pac4j.cas.profile.CasRestProfile", "org.pac4j.http.profile.IpProfile",
+        "org.pac4j.oauth.profile.OAuth20Profile",
+        "email", "first_name", "family_name", "display_name", "gender", "locale", "picture_url", "profile_url", "location",
+        "username", "access_token", "refresh_token", "token_expiration_advance", "expiration",
+        "sub", "iss", "aud", "exp", "iat", "nbf", "jti", "auth_time", "nonce", "acr", "amr", "azp", "sid",
+        "id_token", "name", "given_name", "middle_name", "nickname", "preferred_username", "website", "email_verified",
+        "zoneinfo", "phone_number", "phone_number_verified", "address", "updated_at", "birthdate",
+        "sessionindex", "samlNameIdFormat", "samlNameIdNameQualifier", "samlNameIdSpNameQualifier", "samlNameIdSpProviderId",
+        "notBefore", "notOnOrAfter", "authnContextClassRef", "authnContextAuthorities", "issuerId",
+        "clientName", "isFromNewLogin", "authenticationDate", "successfulAuthenticationHandlers", "credentialType",
+        "authenticationMethod", "longTermAuthenticationRequestTokenUsed");
+
+    private static final Map<String, Integer> DICTIONARY_INDEXES = new HashMap<>();
+
+    static {
+        for (var i = 0; i < DICTIONARY.size(); i++) {
+            DICTIONARY_INDEXES.put(DICTIONARY.get(i), i);
+        }
+    }
+
+    @Getter
+    @Setter
+    private int compressionThreshold = 512;
+
+    @Getter
+    @Setter
+    private JavaSerializer javaSerializer = new JavaSerializer();
+
+    @Override
+    protected byte[] internalSerializeToBytes(final Object obj) {
+        if (!(obj instanceof BasicUserProfile profile)) {
+            return javaSerializer.serializeToBytes(obj);
+        }
+
+        val body = new Output();
+        writeProfile(body, profile);
+
+        val out = new Output();
+        out.write(MAGIC);
+        out.write(VERSION);
+        if (compressionThreshold >= 0 && body.size() > compressionThreshold) {
+            out.write(FLAG_COMPRESSED);
+            out.writeVarInt(body.size());
+            val deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(body.buffer(), 0, body.size());
+                deflater.finish();
+                val chunk = new byte[1024];
+                while (!deflater.finished()) {
+                    val n = deflater.deflate(chunk);
+                    out.write(chunk, 0, n);
+                }
+            } finally {
+                deflater.end();
+            }
+        } else {
+            out.write(0);
+            out.write(body.buffer(), 0, body.size());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    protected Object internalDeserializeFromBytes(final byte[] bytes) {
+        if (bytes.length == 0 || bytes[0] != MAGIC) {
+            if (bytes.length > 0 && bytes[0] == JAVA_MAGIC) {
+                return javaSerializer.deserializeFromBytes(bytes);
+            }
+            LOGGER.warn("Cannot deserialize: unknown format");
+            return null;
+        }
+        try {
+            var in = new Input(bytes, 1);
+            val version = in.read();
+            if (version != VERSION) {
+                LOGGER.warn("Cannot deserialize: unsupported version {}", version);
+                return null;
+            }
+            val flags = in.read();
+            if ((flags & FLAG_COMPRESSED) != 0) {
+                val size = in.readVarInt();
+                if (size > MAX_UNCOMPRESSED_SIZE) {
+                    throw new IOException("Profile too large: " + size);
+                }
+                val body = new byte[size];
+                val inflater = new Inflater();
+                try {
+                    inflater.setInput(bytes, in.position, bytes.length - in.position);
+                    var n = 0;
+                    while (n < size && !inflater.finished()) {
+                        val read = inflater.inflate(body, n, size - n);
+                        if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            throw new EOFException("Truncated compressed profile");
+                        }
+                        n += read;
+                    }
+                } finally {
+                    inflater.end();
+                }
+                in = new Input(body, 0);
+            }
+            return readProfile(in);
+        } catch (final IOException | DataFormatException | ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Cannot deserialize profile", e);
+            return null;
+        }
+    }
+
+    protected void writeProfile(final Output out, final BasicUserProfile profile) {
+        out.writeDictionaryString(profile.getClass().getName());
+        out.writeDictionaryString(profile.getId());
+        out.write(profile.isRemembered() ? 1 : 0);
+        out.writeDictionaryString(profile.getClientName());
+        out.writeDictionaryString(profile.getLinkedId());
+        val roles = profile.getReadOnlyRoles();
+        out.writeVarInt(roles.size());
+        for (val role : roles) {
+            out.writeDictionaryString(role);
+        }
+        writeAttributes(out, profile.getReadOnlyAttributes());
+        writeAttributes(out, profile.getReadOnlyAuthenticationAttributes());
+    }
+
+    protected BasicUserProfile readProfile(final Input in) throws IOException, ReflectiveOperationException {
+        val className = in.readDictionaryString();
+        // same restrictions as the Java deserialization, checked before loading the class
+        if (className == null || !javaSerializer.isTrusted(className)) {
+            throw new TechnicalException("Untrusted profile class: " + className);
+        }
+        val clazz = Class.forName(className, false, getClass().getClassLoader());
+        if (!BasicUserProfile.class.isAssignableFrom(clazz)) {
+            throw new TechnicalException("Not a profile class: " + className);
+        }
+        val profile = (BasicUserProfile) clazz.getDeclaredConstructor().newInstance();
+        val id = in.readDictionaryString();
+        if (id != null) {
+            profile.setId(id);
+        }
+        profile.setRemembered(in.read() == 1);
+        profile.setClientName(in.readDictionaryString());
+        profile.setLinkedId(in.readDictionaryString());
+        val nbRoles = in.readCount();
+        final Set<String> roles = new HashSet<>(Math.max(16, nbRoles * 2));
+        for (var i = 0; i < nbRoles; i++) {
+            roles.add(in.readDictionaryString());
+        }
+        profile.setRoles(roles);
+        profile.addAttributes(readAttributes(in));
+        profile.addAuthenticationAttributes(readAttributes(in));
+        return profile;
+    }
+
+    private void writeAttributes(final Output out, final Map<String, Object> attributes) {
+        out.writeVarInt(attributes.size());
+        for (val entry : attributes.entrySet()) {
+            out.writeDictionaryString(entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    private Map<String, Object> readAttributes(final Input in) throws IOException {
+        val size = in.readCount();
+        final Map<String, Object> attributes = new HashMap<>(Math.max(16, size * 2));
+        for (var i = 0; i < size; i++) {
+            attributes.put(in.readDictionaryString(), readValue(in));
+        }
+        return attributes;
+    }
+
+    private void writeValue(final Output out, final Object value) {
+        if (value == null) {
+            out.write(NULL);
+        } else if (value instanceof String s) {
+            out.write(STRING);
+            out.writeDictionaryString(s);
+        } else if (value instanceof Boolean b) {
+            out.write(b ? TRUE : FALSE);
+        } else if (value instanceof Integer i) {
+            out.write(INTEGER);
+            out.writeVarLong(zigZag(i));
+        } else if (value instanceof Long l) {
+            out.write(LONG);
+            out.writeVarLong(zigZag(l));
+        } else if (value instanceof Double d) {
+            out.write(DOUBLE);
+            out.writeLong(Double.doubleToLongBits(d));
+        } else if (value.getClass() == Date.class) {
+            out.write(DATE);
+            out.writeVarLong(zigZag(((Date) value).getTime()));
+        } else if (value instanceof URI uri) {
+            out.write(URI_TYPE);
+            out.writeDictionaryString(uri.toString());
+        } else if (value instanceof String[] array) {
+            out.write(STRING_ARRAY);
+            out.writeVarInt(array.length);
+            for (val s : array) {
+                out.writeDictionaryString(s);
+            }
+        } else if (value instanceof List<?> list) {
+            out.write(LIST);
+            writeValues(out, list);
+        } else if (value instanceof Set<?> set) {
+            out.write(SET);
+            writeValues(out, set);
+        } else if (value instanceof Map<?, ?> map && isStringKeys(map)) {
+            out.write(MAP);
+            writeAttributes(out, (Map<String, Object>) map);
+        } else {
+            val bytes = javaSerializer.serializeToBytes(value);
+            if (bytes == null) {
+                throw new TechnicalException("Cannot serialize attribute value: " + value.getClass());
+            }
+            out.write(JAVA);
+            out.writeVarInt(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    private void writeValues(final Output out, final Collection<?> values) {
+        out.writeVarInt(values.size());
+        for (val value : values) {
+            writeValue(out, value);
+        }
+    }
+
+    private static boolean isStringKeys(final Map<?, ?> map) {
+        for (val key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object readValue(final Input in) throws IOException {
+        val type = in.read();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return in.readDictionaryString();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INTEGER:
+                return (int) unZigZag(in.readVarLong());
+            case LONG:
+                return unZigZag(in.readVarLong());
+            case DOUBLE:
+                return Double.longBitsToDouble(in.readLong());
+            case DATE:
+                return new Date(unZigZag(in.readVarLong()));
+            case URI_TYPE:
+                return URI.create(in.readDictionaryString());
+            case STRING_ARRAY: {
+                val array = new String[in.readCount()];
+                for (var i = 0; i < array.length; i++) {
+                    array[i] = in.readDictionaryString();
+                }
+                return array;
+            }
+            case LIST: {
+                val size = in.readCount();
+                final List<Object> list = new ArrayList<>(size);
+                for (var i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case SET: {
+                val size = in.readCount();
+                final Set<Object> set = new LinkedHashSet<>(Math.max(16, size * 2));
+                for (var i = 0; i < size; i++) {
+                    set.add(readValue(in));
+                }
+                return set;
+            }
+            case MAP:
+                return readAttributes(in);
+            case JAVA: {
+                val bytes = in.readBytes(in.readVarInt());
+                return javaSerializer.deserializeFromBytes(bytes);
+            }
+            default:
+                throw new IOException("Unknown value type: " + type);
+        }
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * The output buffer (not synchronized, unlike the <code>ByteArrayOutputStream</code>).
+     */
+    protected static final class Output {
+
+        private byte[] buf = new byte[256];
+
+        private int count;
+
+        private byte[] buffer() {
+            return buf;
+        }
+
+        private int size() {
+            return count;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+
+        private void ensureCapacity(final int length) {
+            if (count + length > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + length));
+            }
+        }
+
+        private void write(final int b) {
+            ensureCapacity(1);
+            buf[count++] = (byte) b;
+        }
+
+        private void write(final byte[] bytes, final int offset, final int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buf, count, length);
+            count += length;
+        }
+
+        private void writeVarInt(final int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeLong(final long value) {
+            for (var shift = 56; shift >= 0; shift -= 8) {
+                write((int) (value >>> shift));
+            }
+        }
+
+        /**
+         * A string is encoded as: 0 for null, 1 + length + UTF-8 bytes for a literal, 2 + index for a dictionary entry.
+         */
+        private void writeDictionaryString(final String s) {
+            if (s == null) {
+                write(0);
+                return;
+            }
+            val index = DICTIONARY_INDEXES.get(s);
+            if (index != null) {
+                write(2);
+                writeVarInt(index);
+            } else {
+                val bytes = s.getBytes(StandardCharsets.UTF_8);
+                write(1);
+                writeVarInt(bytes.length);
+                write(bytes, 0, bytes.length);
+            }
+        }
+    }
+
+    /**
+     * The input buffer.
+     */
+    protected static final class Input {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private Input(final byte[] bytes, final int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        private int read() throws EOFException {
+            if (position >= bytes.length) {
+                throw new EOFException();
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        private byte[] readBytes(final int length) throws EOFException {
+            if (length < 0 || position + length > bytes.length) {
+                throw new EOFException();
+            }
+            val result = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return result;
+        }
+
+        private int readVarInt() throws IOException {
+            val value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IOException("Invalid size: " + value);
+            }
+            return (int) value;
+        }
+
+        // a number of elements, each one being encoded on one byte at least
+        private int readCount() throws IOException {
+            val count = readVarInt();
+            if (count > bytes.length - position) {
+                throw new EOFException();
+            }
+            return count;
+        }
+
+        private long readVarLong() throws IOException {
+            var value = 0L;
+            for (var shift = 0; shift < 64; shift += 7) {
+                val b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable-length number");
+        }
+
+        private long readLong() throws EOFException {
+            var value = 0L;
+            for (var i = 0; i < 8; i++) {
+                value = (value << 8) | read();
+            }
+            return value;
+        }
+
+        private String readDictionaryString() throws IOException {
+            val type = read();
+            switch (type) {
+                case 0:
+                    return null;
+                case 1: {
+                    val length = readVarInt();
+                    if (position + length > bytes.length) {
+                        throw new EOFException();
+                    }
+                    val s = new String(bytes, position, length, StandardCharsets.UTF_8);
+                    position += length;
+                    return s;
+                }
+                case 2:
+                    return DICTIONARY.get(readVarInt());
+                default:
+                    throw new IOException("Invalid string type: " + type);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.pac4j.core.authorization.authorizer;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.matching.matcher.csrf.HmacCsrfTokenGenerator;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link HmacCsrfAuthorizer}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class HmacCsrfAuthorizerTests implements TestsConstants {
+
+    private HmacCsrfTokenGenerator generator;
+
+    private HmacCsrfAuthorizer authorizer;
+
+    private MockSessionStore sessionStore;
+
+    @Before
+    public void setUp() {
+        generator = new HmacCsrfTokenGenerator(SECRET);
+        authorizer = new HmacCsrfAuthorizer(generator);
+        sessionStore = new MockSessionStore();
+    }
+
+    private MockWebContext postContext() {
+        return MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name());
+    }
+
+    @Test
+    public void testParameterOk() {
+        val token = generator.get(MockWebContext.create(), sessionStore);
+        val context = postContext().addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        assertTrue(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testHeaderOk() {
+        val token = generator.get(MockWebContext.create(), sessionStore);
+        val context = postContext().addRequestHeader(Pac4jConstants.CSRF_TOKEN, token);
+        assertTrue(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testNoSessionWrite() {
+        val store = new HashMap<String, Object>();
+        sessionStore = new MockSessionStore(store);
+        val token = generator.get(MockWebContext.create(), sessionStore);
+        val context = postContext().addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        assertTrue(authorizer.isAuthorized(context, sessionStore, null));
+        assertTrue(store.isEmpty());
+    }
+
+    @Test
+    public void testNoToken() {
+        generator.get(MockWebContext.create(), sessionStore);
+        assertFalse(authorizer.isAuthorized(postContext(), sessionStore, null));
+    }
+
+    @Test
+    public void testBadToken() {
+        generator.get(MockWebContext.create(), sessionStore);
+        assertFalse(authorizer.isAuthorized(postContext().addRequestParameter(Pac4jConstants.CSRF_TOKEN, VALUE), sessionStore, null));
+        assertFalse(authorizer.isAuthorized(postContext().addRequestParameter(Pac4jConstants.CSRF_TOKEN, "12." + VALUE),
+            sessionStore, null));
+    }
+
+    @Test
+    public void testTokenOfAnotherSession() {
+        val token = generator.get(MockWebContext.create(), sessionStore);
+        val otherSessionStore = new MockSessionStore() {
+            {
+                id = "otherSessionId";
+            }
+        };
+        val context = postContext().addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        assertFalse(authorizer.isAuthorized(context, otherSessionStore, null));
+    }
+
+    @Test
+    public void testExpiredToken() {
+        generator.setTtlInSeconds(-1);
+        val token = generator.get(MockWebContext.create(), sessionStore);
+        val context = postContext().addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        assertFalse(authorizer.isAuthorized(context, sessionStore, null));
+    }
+
+    @Test
+    public void testGetRequestNotChecked() {
+        assertTrue(authorizer.isAuthorized(MockWebContext.create(), sessionStore, null));
+    }
+}
@@ -7,6 +7,7 @@ import org.pac4j.core.context.MockWebContext;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.TestsHelper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -118,4 +119,15 @@ public final class RequireAllRolesAuthorizerTests {
         profiles.add(profile2);
         assertFalse(authorizer.isAuthorized(context, new MockSessionStore(), profiles));
     }
+
+    @Test
+    public void testHasAllRolesElementsChanged() {
+        val authorizer = new RequireAllRolesAuthorizer(ROLE1);
+        profile.addRole(ROLE1);
+        assertTrue(authorizer.isAuthorized(context, new MockSessionStore(), profiles));
+        // the roles are read-only: they must be changed via setElements
+        TestsHelper.expectException(() -> authorizer.getElements().add(ROLE2), UnsupportedOperationException.class, null);
+        authorizer.setElements(ROLE2);
+        assertFalse(authorizer.isAuthorized(context, new MockSessionStore(), profiles));
+    }
 }
@@ -4,14 +4,18 @@ import lombok.val;
 import org.junit.Before;
 import org.junit.Test;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.TestsHelper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -129,4 +133,51 @@ public final class RequireAnyRoleAuthorizerTests {
         profile.addRole(ROLE1);
         assertTrue(authorizer.isAuthorized(context, new MockSessionStore(), profiles));
     }
+
+    @Test
+    public void testHasAnyRoleWithoutCopyingRoles() {
+        val authorizer = new RequireAnyRoleAuthorizer(ROLE1, ROLE2, ROLE3);
+        profile = new NoRolesCopyProfile();
+        profile.addRole(ROLE3);
+        profiles.set(0, profile);
+        assertTrue(authorizer.isAuthorized(context, new MockSessionStore(), profiles));
+    }
+
+    @Test
+    public void testHasAnyRoleElementsChanged() {
+        val authorizer = new RequireAnyRoleAuthorizer(ROLE1);
+        profile.addRole(ROLE1);
+        assertTrue(authorizer.isAuthorized(context, new MockSessionStore(), profiles));
+        // the roles are read-only: they must be changed via setElements
+        TestsHelper.expectException(() -> authorizer.getElements().add(ROLE2), UnsupportedOperationException.class, null);
+        authorizer.setElements(ROLE2);
+        assertFalse(authorizer.isAuthorized(context, new MockSessionStore(), profiles));
+    }
+
+    @Test
+    public void testHasAnyRoleOverriddenCheck() {
+        val authorizer = new RequireAnyRoleAuthorizer(ROLE1) {
+            @Override
+            protected boolean check(final WebContext context, final SessionStore sessionStore, final UserProfile profile,
+                                    final String element) {
+                return profile.hasRole(element.toUpperCase());
+            }
+        };
+        profile.addRole(ROLE1);
+        assertFalse(authorizer.isAuthorized(context, new MockSessionStore(), profiles));
+        profile.addRole(ROLE1.toUpperCase());
+        assertTrue(authorizer.isAuthorized(context, new MockSessionStore(), profiles));
+    }
+
+    public static final class NoRolesCopyProfile extends CommonProfile {
+
+        private static final long serialVersionUID = 1L;
+
+        public NoRolesCopyProfile() {}
+
+        @Override
+        public Set<String> getRoles() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -5,6 +5,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.authorization.authorizer.DefaultAuthorizers;
+import org.pac4j.core.authorization.authorizer.ProfileAuthorizer;
 import org.pac4j.core.authorization.authorizer.RequireAnyRoleAuthorizer;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.client.MockDirectClient;
@@ -25,8 +26,11 @@ import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
+import static org.pac4j.core.authorization.authorizer.AndAuthorizer.and;
+import static org.pac4j.core.authorization.authorizer.OrAuthorizer.or;
 
 /**
  * Tests the {@link DefaultAuthorizationChecker}.
@@ -331,4 +335,166 @@ public final class DefaultAuthorizationCheckerTests implements TestsConstants {
             checker.computeAuthorizers(MockWebContext.create(), new ArrayList<>(), null,
                 authorizers, new ArrayList<>()));
     }
+
+    private static class CountingAuthorizer extends ProfileAuthorizer {
+
+        protected int nbCalls;
+
+        private CountingAuthorizer() {
+            setRequestDependent(false);
+        }
+
+        @Override
+        public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
+            return isAnyAuthorized(context, sessionStore, profiles);
+        }
+
+        @Override
+        protected boolean isProfileAuthorized(final WebContext context, final SessionStore sessionStore, final UserProfile profile) {
+            nbCalls++;
+            return profile.hasRole(ROLE);
+        }
+    }
+
+    @Test
+    public void testDecisionCache() {
+        val authorizer = new CountingAuthorizer();
+        val requestAuthorizer = new CountingAuthorizer();
+        requestAuthorizer.setRequestDependent(true);
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, authorizer);
+        authorizers.put(VALUE, requestAuthorizer);
+        val cachingChecker = new DefaultAuthorizationChecker(new AuthorizationDecisionCache(100, 1, TimeUnit.MINUTES));
+        val sessionStore = new MockSessionStore();
+        sessionStore.getSessionId(null, true);
+        profile.setId(ID);
+        profile.addRole(ROLE);
+        final List<Client> clients = new ArrayList<>();
+        for (var i = 0; i < 3; i++) {
+            assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), sessionStore, profiles, NAME + "," + VALUE, authorizers,
+                clients));
+        }
+        assertEquals(1, authorizer.nbCalls);
+        assertEquals(3, requestAuthorizer.nbCalls);
+
+        val profile2 = new BasicUserProfile();
+        profile2.setId(ID);
+        profiles.set(0, profile2);
+        assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), sessionStore, profiles, NAME, authorizers, clients));
+        assertEquals(2, authorizer.nbCalls);
+        assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), sessionStore, profiles, NAME, authorizers, clients));
+        assertEquals(2, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testDecisionCacheHashCollision() {
+        final Map<String, Authorizer> authorizers = Map.of(NAME, new RequireAnyRoleAuthorizer("Aa"));
+        val cachingChecker = new DefaultAuthorizationChecker(new AuthorizationDecisionCache(100, 1, TimeUnit.MINUTES));
+        val sessionStore = new MockSessionStore();
+        sessionStore.getSessionId(null, true);
+        profile.setId(ID);
+        profile.addRole("Aa");
+        assertEquals(Set.of("Aa").hashCode(), Set.of("BB").hashCode());
+        assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), sessionStore, profiles, NAME, authorizers,
+            new ArrayList<>()));
+        val profile2 = new BasicUserProfile();
+        profile2.setId(ID);
+        profile2.addRole("BB");
+        profiles.set(0, profile2);
+        assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), sessionStore, profiles, NAME, authorizers,
+            new ArrayList<>()));
+    }
+
+    @Test
+    public void testDecisionCacheProfileChanged() {
+        val authorizer = new CountingAuthorizer();
+        val cachingChecker = new DefaultAuthorizationChecker(new AuthorizationDecisionCache(100, 1, TimeUnit.MINUTES));
+        val sessionStore = new MockSessionStore();
+        sessionStore.getSessionId(null, true);
+        profile.setId(ID);
+        assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), sessionStore, profiles, NAME, Map.of(NAME, authorizer),
+            new ArrayList<>()));
+        profile.addRole(ROLE);
+        assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), sessionStore, profiles, NAME, Map.of(NAME, authorizer),
+            new ArrayList<>()));
+        assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), sessionStore, profiles, NAME, Map.of(NAME, authorizer),
+            new ArrayList<>()));
+        assertEquals(2, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testDecisionCacheKeepsOrder() {
+        val authorizer = new CountingAuthorizer();
+        val requestAuthorizer = new CountingAuthorizer();
+        requestAuthorizer.setRequestDependent(true);
+        final Map<String, Authorizer> authorizers = Map.of(NAME, authorizer, VALUE, requestAuthorizer);
+        val cachingChecker = new DefaultAuthorizationChecker(new AuthorizationDecisionCache(100, 1, TimeUnit.MINUTES));
+        val sessionStore = new MockSessionStore();
+        sessionStore.getSessionId(null, true);
+        profile.setId(ID);
+        assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), sessionStore, profiles, NAME + "," + VALUE, authorizers,
+            new ArrayList<>()));
+        assertEquals(1, authorizer.nbCalls);
+        assertEquals(0, requestAuthorizer.nbCalls);
+        assertFalse(cachingChecker.isAuthorized(MockWebContext.create(), sessionStore, profiles, VALUE + "," + NAME, authorizers,
+            new ArrayList<>()));
+        assertEquals(1, authorizer.nbCalls);
+        assertEquals(1, requestAuthorizer.nbCalls);
+    }
+
+    @Test
+    public void testRequestDependentOptIn() {
+        assertFalse(new RequireAnyRoleAuthorizer(ROLE).isRequestDependent());
+        val subclass = new RequireAnyRoleAuthorizer(ROLE) {};
+        assertTrue(subclass.isRequestDependent());
+        subclass.setRequestDependent(false);
+        assertFalse(subclass.isRequestDependent());
+    }
+
+    @Test
+    public void testDecisionCacheWithoutSession() {
+        val authorizer = new CountingAuthorizer();
+        val cachingChecker = new DefaultAuthorizationChecker(new AuthorizationDecisionCache());
+        profile.setId(ID);
+        profile.addRole(ROLE);
+        for (var i = 0; i < 2; i++) {
+            assertTrue(cachingChecker.isAuthorized(MockWebContext.create(), new MockSessionStore(), profiles, NAME,
+                Map.of(NAME, authorizer), new ArrayList<>()));
+        }
+        assertEquals(2, authorizer.nbCalls);
+    }
+
+    @Test
+    public void testIsAuthorizedForEach() {
+        val authorizer = new CountingAuthorizer();
+        val other = new CountingAuthorizer() {
+            @Override
+            protected boolean isProfileAuthorized(final WebContext context, final SessionStore sessionStore,
+                                                  final UserProfile profile) {
+                nbCalls++;
+                return false;
+            }
+        };
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        authorizers.put(NAME, authorizer);
+        authorizers.put(VALUE, other);
+        authorizers.put(KEY, or(and(other, authorizer), and(authorizer, other), authorizer));
+        profile.setId(ID);
+        profile.addRole(ROLE);
+        val authorizations = checker.isAuthorizedForEach(MockWebContext.create(), new MockSessionStore(), profiles,
+            List.of(NAME, VALUE, KEY, NAME + "," + VALUE, NAME), authorizers, new ArrayList<>());
+        assertEquals(List.of(0, 2, 4), authorizations.stream().boxed().toList());
+        assertEquals(1, authorizer.nbCalls);
+        assertEquals(1, other.nbCalls);
+    }
+
+    @Test
+    public void testIsAuthorizedForEachDefaultImplementation() {
+        final AuthorizationChecker simpleChecker = (context, sessionStore, profiles, authorizerNames, authorizersMap, clients) ->
+            NAME.equals(authorizerNames);
+        val authorizations = simpleChecker.isAuthorizedForEach(MockWebContext.create(), new MockSessionStore(), profiles,
+            List.of(VALUE, NAME), new HashMap<>(), new ArrayList<>());
+        assertFalse(authorizations.get(0));
+        assertTrue(authorizations.get(1));
+    }
 }
@@ -136,7 +136,7 @@ public final class ClientsTests implements TestsConstants {
         val clients = new Clients(CALLBACK_URL, client1);
         val client2 =
             new MockIndirectClient(NAME, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
-        clients.getClients().add(client2);
+        clients.addClient(client2);
         TestsHelper.expectException(() -> clients.findClient(NAME),
             TechnicalException.class, "Duplicate name in clients: name");
     }
@@ -193,6 +193,127 @@ public final class ClientsTests implements TestsConstants {
         assertTrue(fclient.getCallbackUrlResolver() instanceof NoParameterCallbackUrlResolver);
     }
 
+    @Test
+    public void testSnapshotNotRebuiltOnLookup() {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient(), newYahooClient());
+        assertTrue(clients.findClient("FacebookClient").isPresent());
+        val version = clients.getVersion();
+        assertTrue(clients.findClient("YahooClient").isPresent());
+        assertEquals(2, clients.findAllClients().size());
+        assertEquals(version, clients.getVersion());
+    }
+
+    @Test
+    public void testSnapshotRebuiltOnChange() {
+        val facebookClient = newFacebookClient();
+        val clients = new Clients(facebookClient);
+        clients.findAllClients();
+        val version = clients.getVersion();
+        clients.setCallbackUrl(CALLBACK_URL);
+        assertTrue(clients.findClient("FacebookClient").isPresent());
+        assertEquals(CALLBACK_URL, facebookClient.getCallbackUrl());
+        assertTrue(clients.getVersion() > version);
+    }
+
+    @Test
+    public void testAuthorizationGeneratorsNotDuplicated() {
+        val facebookClient = newFacebookClient();
+        val clients = new Clients(facebookClient);
+        clients.addAuthorizationGenerator((context, store, profile) -> Optional.of(profile));
+        clients.findAllClients();
+        clients.reinit();
+        clients.findAllClients();
+        assertEquals(1, facebookClient.getAuthorizationGenerators().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFindAllClientsUnmodifiable() {
+        val clients = new Clients(newFacebookClient());
+        clients.findAllClients().add(newYahooClient());
+    }
+
+    @Test
+    public void testAddAndRemoveClients() {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        assertFalse(clients.findClient("YahooClient").isPresent());
+        val version = clients.getVersion();
+        val yahooClient = newYahooClient();
+        clients.addClients(yahooClient);
+        assertEquals(yahooClient, clients.findClient("YahooClient").get());
+        assertEquals(CALLBACK_URL, yahooClient.getCallbackUrl());
+        assertTrue(clients.getVersion() > version);
+        clients.removeClients(" facebookclient ");
+        assertFalse(clients.findClient("FacebookClient").isPresent());
+        assertEquals(1, clients.findAllClients().size());
+        assertEquals(1, clients.getClients().size());
+    }
+
+    @Test
+    public void testAddClientsRejectsDuplicateName() {
+        val facebookClient = newFacebookClient();
+        val clients = new Clients(CALLBACK_URL, facebookClient);
+        clients.findAllClients();
+        val version = clients.getVersion();
+        TestsHelper.expectException(() -> clients.addClients(newYahooClient(), newFacebookClient()),
+            TechnicalException.class, "Duplicate name in clients: FacebookClient");
+        assertEquals(1, clients.getClients().size());
+        assertFalse(clients.findClient("YahooClient").isPresent());
+        assertEquals(version, clients.getVersion());
+    }
+
+    @Test
+    public void testReplaceClients() {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        clients.findAllClients();
+        val yahooClient = newYahooClient();
+        final List<Client> list = new ArrayList<>();
+        list.add(yahooClient);
+        clients.replaceClients(list);
+        assertFalse(clients.findClient("FacebookClient").isPresent());
+        assertEquals(yahooClient, clients.findClient("YahooClient").get());
+        assertNotSame(list, clients.getClients());
+    }
+
+    @Test
+    public void testClientReplacedInList() {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        clients.findAllClients();
+        val version = clients.getVersion();
+        val yahooClient = newYahooClient();
+        clients.getClients().set(0, yahooClient);
+        // only taken into account after a reinit
+        assertTrue(clients.findClient("FacebookClient").isPresent());
+        assertEquals(version, clients.getVersion());
+        clients.reinit();
+        assertFalse(clients.findClient("FacebookClient").isPresent());
+        assertEquals(yahooClient, clients.findClient("YahooClient").get());
+        assertTrue(clients.getVersion() > version);
+    }
+
+    @Test
+    public void testClientRemovedAndAddedInList() {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        clients.findAllClients();
+        val yahooClient = newYahooClient();
+        clients.getClients().remove(0);
+        clients.getClients().add(yahooClient);
+        clients.reinit();
+        assertFalse(clients.findClient("FacebookClient").isPresent());
+        assertEquals(yahooClient, clients.findClient("YahooClient").get());
+    }
+
+    @Test
+    public void testAddClientCopyOnWrite() {
+        val clients = new Clients(CALLBACK_URL, newFacebookClient());
+        val list = clients.getClients();
+        clients.findAllClients();
+        val yahooClient = newYahooClient();
+        clients.addClient(yahooClient);
+        assertEquals(1, list.size());
+        assertEquals(2, clients.getClients().size());
+        assertEquals(yahooClient, clients.findClient("YahooClient").get());
+    }
+
     @Test
     @Ignore
     public void testPerfFind() {
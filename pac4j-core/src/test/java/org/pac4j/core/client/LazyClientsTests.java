@@ -0,0 +1,245 @@
+package org.pac4j.core.client;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link LazyClients}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class LazyClientsTests implements TestsConstants {
+
+    private final AtomicInteger nbBuilds = new AtomicInteger();
+
+    private Optional<Client> newTenantClient(final String name) {
+        if (!name.startsWith("tenant")) {
+            return Optional.empty();
+        }
+        nbBuilds.incrementAndGet();
+        return Optional.of(new MockIndirectClient(name, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile()));
+    }
+
+    private LazyClients newLazyClients() {
+        val clients = new LazyClients(CALLBACK_URL, this::newTenantClient);
+        clients.setInitExecutor(Runnable::run);
+        return clients;
+    }
+
+    @Test
+    public void testBuildOnFirstUse() {
+        val clients = newLazyClients();
+        assertEquals(0, nbBuilds.get());
+        val client = (IndirectClient) clients.findClient("tenant1").get();
+        assertEquals("tenant1", client.getName());
+        assertTrue(client.isInitialized());
+        assertEquals(CALLBACK_URL, client.getCallbackUrl());
+        assertEquals(client, clients.findClient(" TENANT1 ").get());
+        assertEquals(1, nbBuilds.get());
+        assertTrue(clients.findAllClients().contains(client));
+    }
+
+    @Test
+    public void testDefinedClientsFirst() {
+        val definedClient = new MockIndirectClient("tenant1", new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        val clients = newLazyClients();
+        clients.setClients(definedClient);
+        assertEquals(definedClient, clients.findClient("tenant1").get());
+        assertEquals(0, nbBuilds.get());
+    }
+
+    @Test
+    public void testUnknownClientNotKept() {
+        val clients = newLazyClients();
+        assertFalse(clients.findClient("unknown").isPresent());
+        assertEquals(0, clients.getNbLoadedClients());
+    }
+
+    @Test
+    public void testUnavailableClientNotBuiltAgain() {
+        val nbCalls = new AtomicInteger();
+        val clients = new LazyClients(CALLBACK_URL, name -> {
+            nbCalls.incrementAndGet();
+            return newTenantClient(name);
+        });
+        clients.setInitExecutor(Runnable::run);
+        assertFalse(clients.findClient("unknown").isPresent());
+        assertFalse(clients.findClient("UNKNOWN").isPresent());
+        assertEquals(1, nbCalls.get());
+        clients.setUnavailableTimeout(0);
+        assertFalse(clients.findClient("other").isPresent());
+        assertFalse(clients.findClient("other").isPresent());
+        assertEquals(3, nbCalls.get());
+    }
+
+    @Test
+    public void testMaxUnavailableClients() {
+        val nbCalls = new AtomicInteger();
+        val clients = new LazyClients(CALLBACK_URL, name -> {
+            nbCalls.incrementAndGet();
+            return newTenantClient(name);
+        });
+        clients.setInitExecutor(Runnable::run);
+        clients.setMaxUnavailableClients(2);
+        clients.findClient("unknown1");
+        clients.findClient("unknown2");
+        clients.findClient("unknown1");
+        assertEquals(2, nbCalls.get());
+        clients.findClient("unknown3");
+        clients.findClient("unknown1");
+        assertEquals(4, nbCalls.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        val clients = newLazyClients();
+        clients.setMaxClients(2);
+        val client1 = clients.findClient("tenant1").get();
+        clients.findClient("tenant2");
+        assertEquals(client1, clients.findClient("tenant1").get());
+        clients.findClient("tenant3");
+        assertEquals(2, clients.getNbLoadedClients());
+        assertEquals(3, nbBuilds.get());
+        assertEquals(client1, clients.findClient("tenant1").get());
+        assertEquals(3, nbBuilds.get());
+        clients.findClient("tenant2");
+        assertEquals(4, nbBuilds.get());
+    }
+
+    @Test
+    public void testEvictionKeepsVersion() {
+        val clients = newLazyClients();
+        clients.setMaxClients(1);
+        clients.findClient("tenant1");
+        clients.init();
+        val version = clients.getVersion();
+        clients.findClient("tenant2");
+        clients.init();
+        assertEquals(version, clients.getVersion());
+        assertEquals(1, clients.findAllClients().size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        val clients = newLazyClients();
+        clients.setMaxClients(2);
+        val client1 = clients.findClient("tenant1").get();
+        clients.findClient("tenant2");
+        clients.findClient("tenant1");
+        clients.findClient("tenant3");
+        assertEquals(2, clients.getNbLoadedClients());
+        assertSame(client1, clients.findClient("tenant1").get());
+        assertEquals(3, nbBuilds.get());
+        clients.findClient("tenant2");
+        assertEquals(4, nbBuilds.get());
+    }
+
+    @Test
+    public void testEvictClient() {
+        val clients = newLazyClients();
+        val client1 = clients.findClient("tenant1").get();
+        val version = clients.getVersion();
+        clients.evictClient("TENANT1");
+        assertEquals(version, clients.getVersion());
+        assertNotSame(client1, clients.findClient("tenant1").get());
+        assertEquals(2, nbBuilds.get());
+    }
+
+    @Test
+    public void testBuildFailure() {
+        val nbCalls = new AtomicInteger();
+        val clients = new LazyClients(name -> {
+            nbCalls.incrementAndGet();
+            return Optional.of(new MockIndirectClient("other"));
+        });
+        clients.setInitExecutor(Runnable::run);
+        assertFalse(clients.findClient("tenant1").isPresent());
+        assertEquals(0, clients.getNbLoadedClients());
+        assertFalse(clients.findClient("tenant1").isPresent());
+        assertEquals(1, nbCalls.get());
+        clients.evictClient("tenant1");
+        assertFalse(clients.findClient("tenant1").isPresent());
+        assertEquals(2, nbCalls.get());
+    }
+
+    @Test
+    public void testRejectedBuild() {
+        val clients = newLazyClients();
+        clients.setInitExecutor(r -> {
+            throw new RejectedExecutionException();
+        });
+        assertFalse(clients.findClient("tenant1").isPresent());
+        assertEquals(0, clients.getNbLoadedClients());
+        clients.setInitExecutor(Runnable::run);
+        assertTrue(clients.findClient("tenant1").isPresent());
+    }
+
+    @Test
+    public void testSingleBuildForConcurrentRequests() throws InterruptedException {
+        val latch = new CountDownLatch(1);
+        val clients = new LazyClients(CALLBACK_URL, name -> {
+            try {
+                latch.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return newTenantClient(name);
+        });
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            val found = new AtomicInteger();
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> {
+                    if (clients.findClient("tenant1").isPresent()) {
+                        found.incrementAndGet();
+                    }
+                });
+            }
+            Thread.sleep(100);
+            latch.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(3, found.get());
+            assertEquals(1, nbBuilds.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInitTimeout() {
+        val latch = new CountDownLatch(1);
+        val clients = new LazyClients(CALLBACK_URL, name -> {
+            try {
+                latch.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return newTenantClient(name);
+        });
+        clients.setInitTimeout(50);
+        try {
+            assertFalse(clients.findClient("tenant1").isPresent());
+            assertEquals(1, clients.getNbLoadedClients());
+            assertTrue(clients.findAllClients().isEmpty());
+        } finally {
+            latch.countDown();
+        }
+        clients.setInitTimeout(5000);
+        assertTrue(clients.findClient("tenant1").isPresent());
+        assertEquals(1, clients.findAllClients().size());
+    }
+}
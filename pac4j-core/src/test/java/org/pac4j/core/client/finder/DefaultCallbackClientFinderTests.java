@@ -8,6 +8,8 @@ import org.pac4j.core.http.callback.PathParameterCallbackUrlResolver;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 
+import java.util.Optional;
+
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -32,6 +34,36 @@ public final class DefaultCallbackClientFinderTests implements TestsConstants {
         assertEquals(facebook, result.get(0));
     }
 
+    @Test
+    public void testQueryParameterLazyClient() {
+        final IndirectClient facebook = new MockIndirectClient("Facebook");
+        final IndirectClient tenant = new MockIndirectClient("tenant1");
+        val clients = new LazyClients(CALLBACK_URL, name -> "tenant1".equals(name) ? Optional.of(tenant) : Optional.empty());
+        clients.setInitExecutor(Runnable::run);
+        clients.setClients(facebook);
+        val context = MockWebContext.create()
+            .addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, "tenant1");
+        final ClientFinder finder = new DefaultCallbackClientFinder();
+        val result = finder.find(clients, context, null);
+        assertEquals(1, result.size());
+        assertEquals(tenant, result.get(0));
+    }
+
+    @Test
+    public void testPathParameterLazyClient() {
+        final IndirectClient facebook = new MockIndirectClient("Facebook");
+        final IndirectClient tenant = new MockIndirectClient("tenant1");
+        val clients = new LazyClients(CALLBACK_URL, name -> "tenant1".equals(name) ? Optional.of(tenant) : Optional.empty());
+        clients.setInitExecutor(Runnable::run);
+        clients.setCallbackUrlResolver(new PathParameterCallbackUrlResolver());
+        clients.setClients(facebook);
+        val context = MockWebContext.create().setPath("/callback/tenant1");
+        final ClientFinder finder = new DefaultCallbackClientFinder();
+        val result = finder.find(clients, context, null);
+        assertEquals(1, result.size());
+        assertEquals(tenant, result.get(0));
+    }
+
     @Test
     public void testPathParameter() {
         final IndirectClient azure = new MockIndirectClient("azure");
@@ -0,0 +1,167 @@
+package org.pac4j.core.config;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.authorization.authorizer.RequireAnyRoleAuthorizer;
+import org.pac4j.core.client.MockIndirectClient;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.matching.matcher.Matcher;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ConfigWarmer}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class ConfigWarmerTests implements TestsConstants {
+
+    private static MockIndirectClient newClient(final String name) {
+        return new MockIndirectClient(name, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+    }
+
+    @Test
+    public void testWarmUp() {
+        val client1 = newClient("client1");
+        val client2 = newClient("client2");
+        val config = new Config(CALLBACK_URL, client1, client2);
+        val authorizer = new RequireAnyRoleAuthorizer();
+        config.addAuthorizer(NAME, authorizer);
+        assertFalse(config.isReady());
+
+        val report = config.warmUp();
+
+        assertTrue(report.isSuccessful());
+        assertTrue(config.isReady());
+        assertTrue(client1.isInitialized());
+        assertTrue(client2.isInitialized());
+        assertEquals(2, report.getComponents().size());
+        assertEquals("client:client1", report.getComponents().get(0).getName());
+        assertEquals("client:client2", report.getComponents().get(1).getName());
+        assertEquals(report, config.getConfigWarmer().getLastReport());
+    }
+
+    @Test
+    public void testWarmUpStores() {
+        val config = new Config(CALLBACK_URL, newClient("client1"));
+        val store = new GuavaStore<String, String>(10, 1, TimeUnit.MINUTES);
+        config.getConfigWarmer().addStore(NAME, store);
+
+        val report = config.warmUp();
+
+        assertTrue(report.isSuccessful());
+        assertTrue(store.isInitialized());
+        assertEquals(2, report.getComponents().size());
+        assertEquals("store:" + NAME, report.getComponents().get(1).getName());
+    }
+
+    @Test
+    public void testWarmUpFailure() {
+        val client1 = newClient("client1");
+        val client2 = newClient("client2");
+        // no callback URL
+        val config = new Config(client1, client2);
+        client1.setCallbackUrl(CALLBACK_URL);
+
+        val report = config.warmUp();
+
+        assertFalse(report.isSuccessful());
+        assertFalse(config.isReady());
+        assertTrue(client1.isInitialized());
+        assertEquals(1, report.getFailures().size());
+        val failure = report.getFailures().get(0);
+        assertEquals("client:client2", failure.getName());
+        assertTrue(failure.getFailure() instanceof TechnicalException);
+    }
+
+    @Test
+    public void testWarmUpDuplicateClients() {
+        val config = new Config(CALLBACK_URL, newClient(NAME), newClient(NAME));
+
+        val report = config.warmUp();
+
+        assertFalse(config.isReady());
+        assertEquals(1, report.getComponents().size());
+        assertEquals("clients", report.getFailures().get(0).getName());
+    }
+
+    @Test
+    public void testWarmUpTimeout() {
+        val latch = new CountDownLatch(1);
+        val config = new Config();
+        config.addMatcher("slow", new SlowMatcher(latch));
+        config.getConfigWarmer().setTimeout(50);
+        try {
+            val report = config.warmUp();
+
+            assertFalse(config.isReady());
+            val failure = report.getFailures().get(0);
+            assertEquals("matcher:slow", failure.getName());
+            assertEquals("Still initializing after 50 ms", failure.getFailure().getMessage());
+            assertTrue(failure.getFailure() instanceof TimeoutException);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Test
+    public void testLateInitialization() throws InterruptedException {
+        val latch = new CountDownLatch(1);
+        val config = new Config();
+        config.addMatcher("slow", new SlowMatcher(latch));
+        config.addMatcher("other", new SlowMatcher(new CountDownLatch(0)));
+        val warmer = config.getConfigWarmer();
+        warmer.setTimeout(50);
+        val report = config.warmUp();
+        assertFalse(config.isReady());
+
+        latch.countDown();
+        val end = System.currentTimeMillis() + 5000;
+        while (!config.isReady() && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(config.isReady());
+        assertFalse(report.isSuccessful());
+        val lastReport = warmer.getLastReport();
+        assertTrue(lastReport.isSuccessful());
+        assertEquals(2, lastReport.getComponents().size());
+        assertTrue(lastReport.getComponents().stream().anyMatch(c -> "matcher:slow".equals(c.getName())));
+    }
+
+    private static final class SlowMatcher extends InitializableObject implements Matcher {
+
+        private final CountDownLatch latch;
+
+        private SlowMatcher(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        protected void internalInit(final boolean forceReinit) {
+            try {
+                latch.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public boolean matches(final WebContext context, final SessionStore sessionStore) {
+            return true;
+        }
+    }
+}
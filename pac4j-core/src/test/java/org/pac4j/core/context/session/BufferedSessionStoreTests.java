@@ -0,0 +1,139 @@
+package org.pac4j.core.context.session;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link BufferedSessionStore}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class BufferedSessionStoreTests implements TestsConstants {
+
+    private CountingSessionStore delegate;
+
+    private BufferedSessionStore sessionStore;
+
+    private MockWebContext context;
+
+    @Before
+    public void setUp() {
+        delegate = new CountingSessionStore();
+        sessionStore = new BufferedSessionStore(delegate);
+        context = MockWebContext.create();
+    }
+
+    @Test
+    public void testWritesAreCoalescedAndFlushedOnce() {
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.set(context, KEY, NAME);
+        sessionStore.set(context, NAME, VALUE);
+        sessionStore.set(context, NAME, null);
+        assertEquals(0, delegate.nbSets);
+        assertTrue(sessionStore.getSessionId(context, false).isPresent());
+        assertEquals(Optional.of(NAME), sessionStore.get(context, KEY));
+        assertEquals(Optional.empty(), sessionStore.get(context, NAME));
+        assertEquals(0, delegate.nbGets);
+
+        assertTrue(BufferedSessionStore.flush(context));
+        assertEquals(2, delegate.nbSets);
+        assertEquals(NAME, delegate.store.get(KEY));
+        assertFalse(delegate.store.containsKey(NAME));
+        assertFalse(BufferedSessionStore.flush(context));
+        assertEquals(2, delegate.nbSets);
+    }
+
+    @Test
+    public void testReadsAreCached() {
+        delegate.store.put(KEY, VALUE);
+        assertEquals(Optional.of(VALUE), sessionStore.get(context, KEY));
+        assertEquals(Optional.of(VALUE), sessionStore.get(context, KEY));
+        assertEquals(Optional.empty(), sessionStore.get(context, NAME));
+        assertEquals(Optional.empty(), sessionStore.get(context, NAME));
+        assertEquals(2, delegate.nbGets);
+    }
+
+    @Test
+    public void testBufferSharedInRequest() {
+        sessionStore.set(context, KEY, VALUE);
+        val otherSessionStore = new BufferedSessionStore(delegate);
+        assertEquals(Optional.of(VALUE), otherSessionStore.get(context, KEY));
+        assertEquals(0, delegate.nbGets);
+
+        val newRequestContext = MockWebContext.create();
+        assertEquals(Optional.empty(), otherSessionStore.get(newRequestContext, KEY));
+    }
+
+    @Test
+    public void testOtherDelegateFlushesBuffer() {
+        sessionStore.set(context, KEY, VALUE);
+        new BufferedSessionStore(new MockSessionStore()).get(context, KEY);
+        assertEquals(VALUE, delegate.store.get(KEY));
+    }
+
+    @Test
+    public void testRenewSessionFlushes() {
+        sessionStore.set(context, KEY, VALUE);
+        assertTrue(sessionStore.renewSession(context));
+        assertEquals(VALUE, delegate.store.get(KEY));
+    }
+
+    @Test
+    public void testDestroySessionDropsBuffer() {
+        delegate.store.put(NAME, VALUE);
+        sessionStore.get(context, NAME);
+        sessionStore.set(context, KEY, VALUE);
+        assertTrue(sessionStore.destroySession(context));
+        assertFalse(BufferedSessionStore.flush(context));
+        assertEquals(Optional.empty(), sessionStore.get(context, KEY));
+        assertEquals(Optional.empty(), sessionStore.get(context, NAME));
+        assertEquals(0, delegate.nbSets);
+    }
+
+    @Test
+    public void testDeferredWrites() {
+        final List<String> writes = new ArrayList<>();
+        BufferedSessionStore.deferWrite(context, KEY, ctx -> writes.add(KEY));
+        BufferedSessionStore.deferWrite(context, NAME, ctx -> writes.add(NAME));
+        BufferedSessionStore.deferWrite(context, KEY, ctx -> writes.add(VALUE));
+        assertTrue(writes.isEmpty());
+        assertTrue(BufferedSessionStore.flush(context));
+        assertEquals(List.of(VALUE, NAME), writes);
+        assertFalse(BufferedSessionStore.flush(context));
+        assertEquals(2, writes.size());
+    }
+
+    private static final class CountingSessionStore extends MockSessionStore {
+
+        private int nbGets;
+
+        private int nbSets;
+
+        @Override
+        public Optional get(final WebContext context, final String key) {
+            nbGets++;
+            return super.get(context, key);
+        }
+
+        @Override
+        public void set(final WebContext context, final String key, final Object value) {
+            nbSets++;
+            if (value == null) {
+                store.remove(key);
+            } else {
+                super.set(context, key, value);
+            }
+        }
+    }
+}
@@ -6,14 +6,25 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.BadCredentialsException;
 import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.TestsHelper;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * Test cases for {@link LocalCachingAuthenticator}.
@@ -137,6 +148,151 @@ public class LocalCachingAuthenticatorTests {
         assertFalse(authenticator.isCached(this.credentials));
     }
 
+    @Test
+    public void testConcurrentCallsDelegateOnce() throws Exception {
+        val calls = new AtomicInteger();
+        val started = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        final Authenticator slowAuthenticator = (cred, ctx, store) -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return delegate.validate(cred, ctx, store);
+        };
+        val authenticator = new LocalCachingAuthenticator(slowAuthenticator, 10, 10, TimeUnit.SECONDS);
+        authenticator.init();
+
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Credentials>> results = new ArrayList<>();
+            results.add(executor.submit(() -> authenticator.validate(new UsernamePasswordCredentials("a", "a"), null, null).get()));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (var i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> authenticator.validate(new UsernamePasswordCredentials("a", "a"), null, null).get()));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (val result : results) {
+                assertEquals("a", result.get(5, TimeUnit.SECONDS).getUserProfile().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testCacheKeyIsSaltedDigest() {
+        final Store<String, UserProfile> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        val authenticator = new LocalCachingAuthenticator(this.delegate, store);
+        authenticator.validate(this.credentials, null, null);
+        val key = ((GuavaStore<String, UserProfile>) store).getCache().asMap().keySet().iterator().next();
+        // base64url SHA-256 digest
+        assertEquals(43, key.length());
+        assertTrue(authenticator.isCached(new UsernamePasswordCredentials("a", "a")));
+        assertFalse(authenticator.isCached(new UsernamePasswordCredentials("a", "b")));
+        val otherAuthenticator = new LocalCachingAuthenticator(this.delegate, store);
+        otherAuthenticator.init();
+        assertNotEquals(key, otherAuthenticator.computeKey(this.credentials));
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        val calls = new AtomicInteger();
+        final Authenticator countingAuthenticator = (cred, ctx, store) -> {
+            calls.incrementAndGet();
+            return delegate.validate(cred, ctx, store);
+        };
+        val authenticator = new LocalCachingAuthenticator(countingAuthenticator, 10, 10, TimeUnit.SECONDS);
+        authenticator.setRefreshTimeout(100);
+        authenticator.setTimeUnit(TimeUnit.MILLISECONDS);
+        authenticator.setTimeout(10000);
+
+        authenticator.validate(new UsernamePasswordCredentials("a", "a"), null, null);
+        authenticator.validate(new UsernamePasswordCredentials("a", "a"), null, null);
+        assertEquals(1, calls.get());
+        Thread.sleep(150);
+        val refreshed = new UsernamePasswordCredentials("a", "a");
+        authenticator.validate(refreshed, null, null);
+        assertEquals("a", refreshed.getUserProfile().getId());
+        assertEquals(2, calls.get());
+
+        Thread.sleep(150);
+        authenticator.setDelegate((cred, ctx, store) -> { throw new TechnicalException("down"); });
+        val kept = new UsernamePasswordCredentials("a", "a");
+        authenticator.validate(kept, null, null);
+        assertEquals("a", kept.getUserProfile().getId());
+        assertTrue(authenticator.isCached(this.credentials));
+
+        Thread.sleep(150);
+        authenticator.setDelegate(new ThrowingAuthenticator());
+        TestsHelper.expectException(() -> authenticator.validate(new UsernamePasswordCredentials("a", "a"), null, null),
+            CredentialsException.class, "fail");
+        assertFalse(authenticator.isCached(this.credentials));
+    }
+
+    @Test
+    public void testSharedSalt() {
+        val authenticator = new LocalCachingAuthenticator(this.delegate, new GuavaStore<>(10, 10, TimeUnit.SECONDS));
+        authenticator.setSalt("shared");
+        authenticator.init();
+        val otherAuthenticator = new LocalCachingAuthenticator(this.delegate, new GuavaStore<>(10, 10, TimeUnit.SECONDS));
+        otherAuthenticator.setSalt("shared");
+        otherAuthenticator.init();
+        assertEquals(authenticator.computeKey(this.credentials), otherAuthenticator.computeKey(this.credentials));
+    }
+
+    @Test
+    public void testNegativeCache() {
+        val calls = new AtomicInteger();
+        final Authenticator rejectingAuthenticator = (cred, ctx, store) -> {
+            calls.incrementAndGet();
+            throw new BadCredentialsException("bad");
+        };
+        val authenticator = new LocalCachingAuthenticator(rejectingAuthenticator, 10, 10, TimeUnit.SECONDS);
+        authenticator.setNegativeCacheSize(10);
+        for (var i = 0; i < 3; i++) {
+            TestsHelper.expectException(() -> authenticator.validate(new UsernamePasswordCredentials("a", "b"), null, null),
+                BadCredentialsException.class, "bad");
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, authenticator.getNegativeCacheEntries());
+        assertEquals(2, authenticator.getNegativeCacheStats().hitCount());
+
+        val failure1 = TestsHelper.expectException(() -> authenticator.validate(new UsernamePasswordCredentials("a", "b"), null, null));
+        val failure2 = TestsHelper.expectException(() -> authenticator.validate(new UsernamePasswordCredentials("a", "b"), null, null));
+        assertNotSame(failure1, failure2);
+        assertEquals("bad", failure2.getMessage());
+        assertTrue(failure2 instanceof BadCredentialsException);
+
+        authenticator.removeFromCache(new UsernamePasswordCredentials("a", "b"));
+        assertEquals(0, authenticator.getNegativeCacheEntries());
+        authenticator.setDelegate(this.delegate);
+        authenticator.validate(new UsernamePasswordCredentials("a", "b"), null, null);
+        assertTrue(authenticator.isCached(new UsernamePasswordCredentials("a", "b")));
+    }
+
+    @Test
+    public void testNoNegativeCacheForTechnicalErrors() {
+        val calls = new AtomicInteger();
+        final Authenticator failingAuthenticator = (cred, ctx, store) -> {
+            calls.incrementAndGet();
+            throw new CredentialsException("down");
+        };
+        val authenticator = new LocalCachingAuthenticator(failingAuthenticator, 10, 10, TimeUnit.SECONDS);
+        authenticator.setNegativeCacheSize(10);
+        for (var i = 0; i < 2; i++) {
+            TestsHelper.expectException(() -> authenticator.validate(this.credentials, null, null),
+                CredentialsException.class, "down");
+        }
+        assertEquals(2, calls.get());
+        assertEquals(0, authenticator.getNegativeCacheEntries());
+    }
+
     private static class ThrowingAuthenticator implements Authenticator {
 
         @Override
@@ -11,6 +11,7 @@ import org.pac4j.core.client.finder.ClientFinder;
 import org.pac4j.core.client.finder.DefaultCallbackClientFinder;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.BufferedSessionStore;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.credentials.MockCredentials;
 import org.pac4j.core.exception.TechnicalException;
@@ -132,6 +133,24 @@ public final class DefaultCallbackLogicTests implements TestsConstants {
         assertEquals(Pac4jConstants.DEFAULT_URL_VALUE, ((FoundAction) action).getLocation());
     }
 
+    @Test
+    public void testCallbackFlushesBufferedSessionBeforeResponse() {
+        context.addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, NAME);
+        val profile = new CommonProfile();
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), profile);
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        val delegate = sessionStore;
+        httpActionAdapter = (act, ctx) -> {
+            assertTrue(delegate.get(ctx, Pac4jConstants.USER_PROFILES).isPresent());
+            action = act;
+            return null;
+        };
+        // no session renewal, which would flush the buffer
+        logic.perform(context, new BufferedSessionStore(delegate), ProfileManagerFactory.DEFAULT, config, httpActionAdapter,
+            defaultUrl, false, null);
+        assertEquals(302, action.getCode());
+    }
+
     @Test
     public void testCallbackWithOriginallyRequestedUrl() {
         internalTestCallbackWithOriginallyRequestedUrl(302);
@@ -0,0 +1,119 @@
+package org.pac4j.core.engine;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import lombok.val;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.client.MockDirectClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.http.adapter.HttpActionAdapter;
+import org.pac4j.core.matching.matcher.DefaultMatchers;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.profile.factory.ProfileManagerFactory;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the memory allocated by the {@link DefaultSecurityLogic} for an already authenticated user.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class DefaultSecurityLogicAllocationTests implements TestsConstants {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+
+    private static final int ITERATIONS = 10_000;
+
+    // a loose bound, only to catch the regressions like copying the stored profiles again
+    private static final long MAX_BYTES_PER_REQUEST = 4096;
+
+    private Logger pac4jLogger;
+
+    private Level pac4jLevel;
+
+    private DefaultSecurityLogic logic;
+
+    private MockWebContext context;
+
+    private SessionStore sessionStore;
+
+    private Config config;
+
+    private SecurityGrantedAccessAdapter securityGrantedAccessAdapter;
+
+    private HttpActionAdapter httpActionAdapter;
+
+    private int nbCall;
+
+    @Before
+    public void setUp() {
+        // logging would dominate the allocations
+        pac4jLogger = (Logger) LoggerFactory.getLogger("org.pac4j");
+        pac4jLevel = pac4jLogger.getLevel();
+        pac4jLogger.setLevel(Level.INFO);
+
+        logic = new DefaultSecurityLogic();
+        context = MockWebContext.create();
+        sessionStore = new MockSessionStore();
+        config = new Config(new Clients(CALLBACK_URL, new MockDirectClient(NAME)));
+        securityGrantedAccessAdapter = (context, sessionStore, profiles, parameters) -> { nbCall++; return null; };
+        httpActionAdapter = (act, ctx) -> { fail("no action expected"); return null; };
+
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(NAME);
+        val profiles = new LinkedHashMap<String, UserProfile>();
+        profiles.put(NAME, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+    }
+
+    @After
+    public void tearDown() {
+        pac4jLogger.setLevel(pac4jLevel);
+    }
+
+    // the CSRF token generation of the default matchers is excluded as it depends on the CSRF token generator
+    private void call() {
+        logic.perform(context, sessionStore, ProfileManagerFactory.DEFAULT, config, securityGrantedAccessAdapter, httpActionAdapter,
+            NAME, null, DefaultMatchers.SECURITYHEADERS);
+    }
+
+    // benchmark: the allocations depend on the JIT (escape analysis)
+    @Test
+    @Ignore
+    public void testAlreadyAuthenticatedAllocationBudget() {
+        val threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        val sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        Assume.assumeTrue(sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled());
+
+        for (var i = 0; i < WARMUP_ITERATIONS; i++) {
+            call();
+        }
+        val threadId = Thread.currentThread().getId();
+        val before = sunThreadMXBean.getThreadAllocatedBytes(threadId);
+        for (var i = 0; i < ITERATIONS; i++) {
+            call();
+        }
+        val bytesPerRequest = (sunThreadMXBean.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+
+        assertEquals(WARMUP_ITERATIONS + ITERATIONS, nbCall);
+        assertTrue("Allocated " + bytesPerRequest + " bytes per request", bytesPerRequest <= MAX_BYTES_PER_REQUEST);
+    }
+}
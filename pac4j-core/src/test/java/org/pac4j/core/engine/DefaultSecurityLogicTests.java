@@ -4,8 +4,10 @@ import lombok.val;
 import org.junit.Before;
 import org.junit.Test;
 import org.pac4j.core.client.*;
+import org.pac4j.core.client.finder.DefaultSecurityClientFinder;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.MockCredentials;
@@ -20,8 +22,11 @@ import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -184,6 +189,115 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         assertEquals(403, action.getCode());
     }
 
+    @Test
+    public void testSecurityPlanReusedAndRecompiledOnConfigChange() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        val profiles = new LinkedHashMap<String, CommonProfile>();
+        profiles.put(NAME, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        authorizers = NAME;
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addAuthorizer(NAME, (context, store, prof) -> true);
+        call();
+        val plan = logic.getSecurityPlan(config, clients, authorizers, matchers);
+        call();
+        assertNull(action);
+        assertEquals(2, nbCall);
+        assertSame(plan, logic.getSecurityPlan(config, clients, authorizers, matchers));
+
+        config.addAuthorizer(NAME, (context, store, prof) -> false);
+        call();
+        assertEquals(403, action.getCode());
+        assertNotSame(plan, logic.getSecurityPlan(config, clients, authorizers, matchers));
+    }
+
+    @Test
+    public void testNoSecurityPlan() {
+        logic.setUseSecurityPlans(false);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        clients = Pac4jConstants.EMPTY_STRING;
+        call();
+        assertEquals(401, action.getCode());
+        assertNull(logic.getSecurityPlan(config, clients, authorizers, matchers));
+    }
+
+    @Test
+    public void testAlreadyAuthenticatedModifiableProfiles() {
+        val profile = new CommonProfile();
+        val profiles = new LinkedHashMap<String, CommonProfile>();
+        profiles.put(NAME, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        securityGrantedAccessAdapter = (context, sessionStore, grantedProfiles, parameters) -> {
+            grantedProfiles.clear();
+            nbCall++;
+            return null;
+        };
+        call();
+        assertEquals(1, nbCall);
+        assertEquals(1, profiles.size());
+    }
+
+    @Test
+    public void testNoSecurityPlanForSubclasses() {
+        val nbFinds = new AtomicInteger();
+        logic.setClientFinder(new DefaultSecurityClientFinder() {
+            @Override
+            public List<Client> find(final Clients clients, final WebContext context, final String clientNames) {
+                nbFinds.incrementAndGet();
+                return super.find(clients, context, clientNames);
+            }
+        });
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        clients = Pac4jConstants.EMPTY_STRING;
+        call();
+        assertEquals(401, action.getCode());
+        assertEquals(1, nbFinds.get());
+        assertNull(logic.getSecurityPlan(config, clients, authorizers, matchers));
+    }
+
+    @Test
+    public void testSecurityPlanLazyClientsResolvedPerRequest() {
+        val built = new ArrayList<String>();
+        val lazyClients = new LazyClients(CALLBACK_URL, name -> {
+            built.add(name);
+            return Optional.of(new MockIndirectClient(name, new FoundAction(PAC4J_URL), Optional.empty(), new CommonProfile()));
+        });
+        lazyClients.setInitExecutor(Runnable::run);
+        config.setClients(lazyClients);
+        clients = "tenant1,tenant2";
+        context.addRequestParameter(Pac4jConstants.DEFAULT_FORCE_CLIENT_PARAMETER, "tenant2");
+        call();
+        assertEquals(302, action.getCode());
+        assertEquals(List.of("tenant2"), built);
+        val plan = logic.getSecurityPlan(config, clients, authorizers, matchers);
+        assertTrue(plan.getClients().isBuiltOnDemand());
+
+        // the evicted clients are not held by the plan
+        lazyClients.evictClient("tenant2");
+        call();
+        assertEquals(List.of("tenant2", "tenant2"), built);
+        assertSame(plan, logic.getSecurityPlan(config, clients, authorizers, matchers));
+    }
+
+    @Test
+    public void testSecurityPlansLeastRecentlyUsedEvicted() {
+        logic.setMaxSecurityPlans(2);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        val plan1 = logic.getSecurityPlan(config, NAME, "a1", null);
+        val plan2 = logic.getSecurityPlan(config, NAME, "a2", null);
+        assertSame(plan1, logic.getSecurityPlan(config, NAME, "a1", null));
+        logic.getSecurityPlan(config, NAME, "a3", null);
+        assertSame(plan1, logic.getSecurityPlan(config, NAME, "a1", null));
+        assertNotSame(plan2, logic.getSecurityPlan(config, NAME, "a2", null));
+    }
+
     @Test
     public void testAuthorizerThrowsRequiresHttpAction() {
         val profile = new CommonProfile();
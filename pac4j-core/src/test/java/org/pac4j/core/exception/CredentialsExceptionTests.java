@@ -0,0 +1,42 @@
+package org.pac4j.core.exception;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CredentialsException}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class CredentialsExceptionTests {
+
+    @After
+    public void tearDown() {
+        CredentialsException.setStackTraceEnabled(false);
+    }
+
+    @Test
+    public void testNoStackTraceByDefault() {
+        final CredentialsException exception = new BadCredentialsException("bad");
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals("bad", exception.getMessage());
+    }
+
+    @Test
+    public void testCauseIsKept() {
+        final Exception cause = new IllegalStateException("cause");
+        final CredentialsException exception = new CredentialsException(cause);
+        assertEquals(0, exception.getStackTrace().length);
+        assertSame(cause, exception.getCause());
+        assertEquals(cause.toString(), exception.getMessage());
+    }
+
+    @Test
+    public void testStackTraceEnabled() {
+        CredentialsException.setStackTraceEnabled(true);
+        assertTrue(new AccountNotFoundException("not found").getStackTrace().length > 0);
+    }
+}
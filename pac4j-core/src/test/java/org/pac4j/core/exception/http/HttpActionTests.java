@@ -0,0 +1,36 @@
+package org.pac4j.core.exception.http;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link HttpAction}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class HttpActionTests {
+
+    @After
+    public void tearDown() {
+        HttpAction.setStackTraceEnabled(false);
+    }
+
+    @Test
+    public void testNoStackTraceByDefault() {
+        final HttpAction action = new ForbiddenAction();
+        assertEquals(0, action.getStackTrace().length);
+        assertEquals(403, action.getCode());
+        assertEquals("Performing a 403 HTTP action", action.getMessage());
+    }
+
+    @Test
+    public void testStackTraceEnabled() {
+        HttpAction.setStackTraceEnabled(true);
+        final HttpAction action = new FoundAction("http://pac4j.org");
+        assertTrue(action.getStackTrace().length > 0);
+        assertEquals("Performing a 302 HTTP action", action.getMessage());
+    }
+}
@@ -12,8 +12,10 @@ import org.pac4j.core.util.serializer.JavaSerializer;
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -253,4 +255,134 @@ public final class CommonProfileTests implements TestsConstants {
         profile.setLinkedId(null);
         assertNull(profile.getLinkedId());
     }
+
+    @Test
+    public void testCompactStorageOverflow() {
+        BasicUserProfile.setCompactStorage(true);
+        try {
+            val profile = new CommonProfile();
+            for (var i = 0; i < 20; i++) {
+                profile.addAttribute(KEY + i, VALUE + i);
+                profile.addRole(ROLE1 + i);
+            }
+            profile.removeAttribute(KEY + 3);
+            assertEquals(19, profile.getAttributes().size());
+            assertEquals(VALUE + 19, profile.getAttribute(KEY + 19));
+            assertFalse(profile.containsAttribute(KEY + 3));
+            assertEquals(20, profile.getRoles().size());
+            assertTrue(profile.getRoles().contains(ROLE1 + 7));
+        } finally {
+            BasicUserProfile.setCompactStorage(false);
+        }
+    }
+
+    @Test
+    public void testCompactStorageSharedNames() {
+        BasicUserProfile.setCompactStorage(true);
+        try {
+            val profile = new CommonProfile();
+            profile.addAttribute(new String(KEY.toCharArray()), VALUE);
+            profile.addRole(new String(ROLE1.toCharArray()));
+            val profile2 = new CommonProfile();
+            profile2.addAttribute(new String(KEY.toCharArray()), VALUE);
+            profile2.setRoles(new HashSet<>(Set.of(new String(ROLE1.toCharArray()))));
+            assertSame(profile.getAttributes().keySet().iterator().next(), profile2.getAttributes().keySet().iterator().next());
+            assertSame(profile.getRoles().iterator().next(), profile2.getRoles().iterator().next());
+        } finally {
+            BasicUserProfile.setCompactStorage(false);
+        }
+    }
+
+    @Test
+    public void testNoAuthenticationAttributes() {
+        val profile = new CommonProfile();
+        assertNull(profile.getAuthenticationAttributeStorage());
+        assertTrue(profile.getAuthenticationAttributes().isEmpty());
+        assertNull(profile.getAuthenticationAttribute(KEY));
+        assertFalse(profile.containsAuthenicationAttribute(KEY));
+        profile.removeAuthenticationAttribute(KEY);
+        profile.addAuthenticationAttribute(KEY, VALUE);
+        assertEquals(VALUE, profile.getAuthenticationAttribute(KEY));
+    }
+
+    @Test
+    public void serializeCompactProfile() {
+        BasicUserProfile.setCompactStorage(true);
+        try {
+            val helper = new JavaSerializer();
+            val profile = new CommonProfile();
+            profile.setId(ID);
+            profile.addAttribute(KEY, VALUE);
+            profile.addRole(ROLE1);
+            val profile2 = (CommonProfile) helper.deserializeFromString(helper.serializeToString(profile));
+            assertEquals(VALUE, profile2.getAttribute(KEY));
+            assertEquals(Set.of(ROLE1), profile2.getRoles());
+            assertTrue(profile2.getAttributeStorage() instanceof CompactMap);
+            assertNull(profile2.getAuthenticationAttributeStorage());
+            val entry = profile2.getAttributeStorage().entrySet().iterator().next();
+            assertEquals(Map.entry(KEY, VALUE), entry);
+            assertEquals(entry, Map.entry(KEY, VALUE));
+            assertEquals(Map.entry(KEY, VALUE).hashCode(), entry.hashCode());
+        } finally {
+            BasicUserProfile.setCompactStorage(false);
+        }
+    }
+
+    @Test
+    public void testStandardStorage() {
+        assertFalse(BasicUserProfile.isCompactStorage());
+        val profile = new CommonProfile();
+        profile.addAttribute(KEY, VALUE);
+        profile.addRole(ROLE1);
+        assertTrue(profile.getAttributeStorage() instanceof HashMap);
+        assertTrue(profile.getRoleStorage() instanceof HashSet);
+        assertEquals(VALUE, profile.getAttribute(KEY));
+    }
+
+    @Test
+    public void testReadOnlyViews() {
+        val profile = new CommonProfile();
+        assertFalse(profile.hasRoles());
+        profile.addRole(ROLE1);
+        profile.addAttribute(KEY, VALUE);
+        val roles = profile.getReadOnlyRoles();
+        val attributes = profile.getReadOnlyAttributes();
+        assertTrue(profile.hasRoles());
+        assertTrue(profile.hasRole(ROLE1));
+        assertFalse(profile.hasRole(NAME));
+        assertTrue(profile.getReadOnlyAuthenticationAttributes().isEmpty());
+        TestsHelper.expectException(() -> roles.add(NAME), UnsupportedOperationException.class, null);
+        TestsHelper.expectException(() -> attributes.put(NAME, VALUE), UnsupportedOperationException.class, null);
+        profile.addRole(NAME);
+        profile.addAttribute(NAME, VALUE);
+        assertTrue(roles.contains(NAME));
+        assertEquals(VALUE, attributes.get(NAME));
+    }
+
+    @Test
+    public void testModificationCount() {
+        val profile = new CommonProfile();
+        var count = profile.getModificationCount();
+        profile.setId(ID);
+        assertTrue(profile.getModificationCount() > count);
+        count = profile.getModificationCount();
+        profile.addAttribute(KEY, VALUE);
+        assertTrue(profile.getModificationCount() > count);
+        count = profile.getModificationCount();
+        profile.removeAttribute(NAME);
+        assertEquals(count, profile.getModificationCount());
+        profile.removeAttribute(KEY);
+        assertTrue(profile.getModificationCount() > count);
+        count = profile.getModificationCount();
+        profile.addRole(VALUE);
+        assertTrue(profile.getModificationCount() > count);
+        count = profile.getModificationCount();
+        profile.setClientName(NAME);
+        profile.setRemembered(true);
+        assertTrue(profile.getModificationCount() >= count + 2);
+        count = profile.getModificationCount();
+        assertNull(profile.getAttribute(KEY));
+        assertEquals(1, profile.getRoles().size());
+        assertEquals(count, profile.getModificationCount());
+    }
 }
@@ -0,0 +1,99 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CompiledRoles}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class CompiledRolesTests implements TestsConstants {
+
+    private static CommonProfile getProfileWithManyRoles() {
+        val profile = new CommonProfile();
+        for (var i = 0; i < 300; i++) {
+            profile.addRole("role" + i);
+        }
+        return profile;
+    }
+
+    @Test
+    public void testAnyRole() {
+        val profile = getProfileWithManyRoles();
+        assertTrue(CompiledRoles.compile(List.of("unknown", "role250")).isAnyRoleOf(profile));
+        assertFalse(CompiledRoles.compile(List.of("unknown", "unknown2")).isAnyRoleOf(profile));
+        assertFalse(CompiledRoles.compile(List.of("role1")).isAnyRoleOf(new CommonProfile()));
+    }
+
+    @Test
+    public void testAllRoles() {
+        val profile = getProfileWithManyRoles();
+        assertTrue(CompiledRoles.compile(List.of("role0", "role63", "role64", "role299")).areAllRolesOf(profile));
+        assertFalse(CompiledRoles.compile(List.of("role0", "unknown")).areAllRolesOf(profile));
+        assertTrue(CompiledRoles.compile(List.of()).areAllRolesOf(profile));
+    }
+
+    @Test
+    public void testRolesChangedAfterCheck() {
+        val profile = new CommonProfile();
+        profile.addRole(VALUE);
+        val compiled = CompiledRoles.compile(List.of(VALUE, NAME));
+        assertFalse(compiled.areAllRolesOf(profile));
+        profile.addRole(NAME);
+        assertTrue(compiled.areAllRolesOf(profile));
+    }
+
+    @Test
+    public void testSparseWords() {
+        for (var i = 0; i < 1000; i++) {
+            RoleDictionary.idOf("sparseRole" + i);
+        }
+        val words = CompiledRoles.toWords(List.of("sparseRole999", "sparseRole998"));
+        assertTrue(words.length <= 4);
+        val profile = new CommonProfile();
+        profile.addRole("sparseRole998");
+        assertTrue(words.length >= profile.getRoleWords().length);
+        assertTrue(CompiledRoles.compile(List.of("sparseRole1", "sparseRole998")).isAnyRoleOf(profile));
+        assertFalse(CompiledRoles.compile(List.of("sparseRole1", "sparseRole998")).areAllRolesOf(profile));
+        profile.addRole("sparseRole1");
+        assertTrue(CompiledRoles.compile(List.of("sparseRole1", "sparseRole998")).areAllRolesOf(profile));
+        assertFalse(CompiledRoles.compile(List.of("sparseRole999")).isAnyRoleOf(profile));
+    }
+
+    @Test
+    public void testSetRolesCopied() {
+        val profile = new CommonProfile();
+        final Set<String> roles = new HashSet<>(Set.of(VALUE));
+        profile.setRoles(roles);
+        assertTrue(CompiledRoles.compile(List.of(VALUE)).isAnyRoleOf(profile));
+        roles.add(NAME);
+        assertFalse(profile.hasRole(NAME));
+        assertFalse(CompiledRoles.compile(List.of(NAME)).isAnyRoleOf(profile));
+    }
+
+    @Test
+    public void testFullDictionary() {
+        val maxSize = RoleDictionary.getMaxSize();
+        RoleDictionary.setMaxSize(RoleDictionary.size());
+        try {
+            val profile = new CommonProfile();
+            profile.addRole("unindexedRole1");
+            profile.addRole(KEY);
+            assertEquals(-1, RoleDictionary.idOf("unindexedRole1"));
+            assertTrue(CompiledRoles.compile(List.of("unindexedRole1")).isAnyRoleOf(profile));
+            assertTrue(CompiledRoles.compile(List.of("unindexedRole1", KEY)).areAllRolesOf(profile));
+            assertFalse(CompiledRoles.compile(List.of("unindexedRole1", "unindexedRole2")).areAllRolesOf(profile));
+        } finally {
+            RoleDictionary.setMaxSize(maxSize);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ProfileFootprint}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class ProfileFootprintTests implements TestsConstants {
+
+    private static CommonProfile getUserProfile() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(MY_CLIENT_NAME);
+        profile.addAttribute(new String("email".toCharArray()), "john@example.org");
+        profile.addAttribute(new String("first_name".toCharArray()), "John");
+        profile.addAttribute(new String("family_name".toCharArray()), "Doe");
+        profile.addAttribute(new String("age".toCharArray()), 42);
+        profile.addRoles(List.of(new String("admin".toCharArray()), new String("user".toCharArray())));
+        return profile;
+    }
+
+    @Test
+    public void testCompactStorageIsSmaller() {
+        val standard = ProfileFootprint.of(getUserProfile());
+        BasicUserProfile.setCompactStorage(true);
+        try {
+            val compact = ProfileFootprint.of(getUserProfile());
+            assertEquals(standard.getProfileSize(), compact.getProfileSize());
+            assertEquals(0, compact.getAuthenticationAttributesSize());
+            assertTrue(compact.getAttributesSize() * 2 < standard.getAttributesSize());
+            assertTrue(compact.getRolesSize() * 4 < standard.getRolesSize());
+            assertTrue(compact.getTotalSize() * 2 < standard.getTotalSize());
+        } finally {
+            BasicUserProfile.setCompactStorage(false);
+        }
+    }
+
+    @Test
+    public void testSharedStringsNotCounted() {
+        BasicUserProfile.setCompactStorage(true);
+        try {
+            val profile = new CommonProfile();
+            profile.addRole("admin");
+            val size = ProfileFootprint.of(profile).getRolesSize();
+            val profile2 = new CommonProfile();
+            profile2.addRole("admin");
+            assertEquals(size, ProfileFootprint.of(profile2).getRolesSize());
+            assertTrue(ProfileDictionary.isShared(profile2.getRoles().iterator().next()));
+        } finally {
+            BasicUserProfile.setCompactStorage(false);
+        }
+    }
+}
@@ -6,14 +6,23 @@ import org.junit.Test;
 import org.pac4j.core.client.BaseClient;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.Store;
 import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -25,7 +34,7 @@ import static org.mockito.Mockito.when;
  * @author Jerome Leleu
  * @since 1.9.0
  */
-public final class ProfileManagerTests {
+public final class ProfileManagerTests implements TestsConstants {
 
     private static final String ID1 = "ID1";
     private static final String ID2 = "ID2";
@@ -151,6 +160,58 @@ public final class ProfileManagerTests {
         assertEquals(0, profiles.size());
     }
 
+    @Test
+    public void testSeveralExpiredProfilesFromSession() {
+        profile1 = mock(CommonProfile.class);
+        when(profile1.getId()).thenReturn(ID1);
+        when(profile1.getClientName()).thenReturn(CLIENT1);
+        when(profile1.isExpired()).thenReturn(true);
+        profile3 = mock(CommonProfile.class);
+        when(profile3.getId()).thenReturn(ID3);
+        when(profile3.getClientName()).thenReturn(CLIENT2);
+        when(profile3.isExpired()).thenReturn(true);
+        val sessionProfiles = new LinkedHashMap<String, UserProfile>();
+        sessionProfiles.put(CLIENT1, profile1);
+        sessionProfiles.put(CLIENT2, profile3);
+        sessionProfiles.put("other", profile2);
+        val client1 = mock(BaseClient.class);
+        when(client1.getName()).thenReturn(CLIENT1);
+        when(client1.renewUserProfile(profile1, context, sessionStore)).thenReturn(Optional.of(profile2));
+        val client2 = mock(BaseClient.class);
+        when(client2.getName()).thenReturn(CLIENT2);
+        when(client2.renewUserProfile(profile3, context, sessionStore)).thenReturn(Optional.empty());
+        profileManager.setConfig(new Config(client1, client2));
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, sessionProfiles);
+        assertEquals(2, profileManager.getProfiles().size());
+        val profiles =
+            (LinkedHashMap<String, UserProfile>) sessionStore.get(context, Pac4jConstants.USER_PROFILES).get();
+        assertEquals(List.of(CLIENT1, "other"), List.copyOf(profiles.keySet()));
+        assertEquals(profile2, profiles.get(CLIENT1));
+    }
+
+    @Test
+    public void testExpiredProfileServedDuringRenewal() {
+        profile1 = mock(CommonProfile.class);
+        when(profile1.getId()).thenReturn(ID1);
+        when(profile1.getClientName()).thenReturn(CLIENT1);
+        when(profile1.isExpired()).thenReturn(true);
+        profiles.put(CLIENT1, profile1);
+        val client1 = mock(BaseClient.class);
+        when(client1.getName()).thenReturn(CLIENT1);
+        val config = new Config(client1);
+        config.getProfileRenewer().setServeExpiredProfiles(true);
+        profileManager.setConfig(config);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        // a renewal is in progress for the same session and profile
+        val renewalInProgress = new CompletableFuture<Optional<UserProfile>>();
+        val renewalKey = sessionStore.getSessionId(context, false).orElse(Pac4jConstants.EMPTY_STRING) + ":" + CLIENT1 + ":"
+            + profile1.getTypedId();
+        new Thread(() -> config.getProfileRenewer().renew(renewalKey, profile1, renewalInProgress::join)).start();
+        TestsHelper.wait(100);
+        assertSame(profile1, profileManager.getProfile().get());
+        renewalInProgress.complete(Optional.of(profile2));
+    }
+
     @Test
     public void testGetOneProfilesFromSessionFirstOneAnonymous() {
         profiles.put("first", new AnonymousProfile());
@@ -275,4 +336,118 @@ public final class ProfileManagerTests {
         assertEquals(AnonymousProfile.INSTANCE, profileManager.getProfiles().get(0));
         assertFalse(profileManager.isAuthenticated());
     }
+
+    @Test
+    public void testProfileStore() {
+        final Store<String, UserProfile> profileStore = new GuavaStore<>(100, 1, TimeUnit.HOURS);
+        profileManager = new ProfileManager(context, sessionStore, profileStore);
+        profileManager.save(true, profile1, false);
+
+        val references = (Map<String, Object>) sessionStore.get(context, Pac4jConstants.USER_PROFILES).get();
+        val reference = (ProfileReference) references.get(CLIENT1);
+        assertEquals(CLIENT1, reference.getClientName());
+        assertEquals(profile1.getTypedId(), reference.getId());
+        assertEquals(profile1, profileStore.get(reference.getKey()).get());
+
+        // another session of the same user
+        val context2 = MockWebContext.create();
+        val sessionStore2 = new MockSessionStore();
+        val profileManager2 = new ProfileManager(context2, sessionStore2, profileStore);
+        profileManager2.save(true, profile1, false);
+
+        // the profile is updated by the first session
+        val updatedProfile = new CommonProfile();
+        updatedProfile.setId(ID1);
+        updatedProfile.setClientName(CLIENT1);
+        updatedProfile.addRole("role");
+        profileManager.save(true, updatedProfile, false);
+
+        assertSame(updatedProfile, new ProfileManager(MockWebContext.create(), sessionStore2, profileStore).getProfile().get());
+        val readOnlyProfiles = new ProfileManager(MockWebContext.create(), sessionStore2, profileStore).getReadOnlyProfiles();
+        assertEquals(1, readOnlyProfiles.size());
+        assertTrue(readOnlyProfiles.get(0).hasRole("role"));
+    }
+
+    @Test
+    public void testProfileStoreExpiredReference() {
+        final Store<String, UserProfile> profileStore = new GuavaStore<>(100, 1, TimeUnit.HOURS);
+        profileManager = new ProfileManager(context, sessionStore, profileStore);
+        profileManager.save(true, profile1, true);
+        profileManager.save(true, profile2, true);
+        profileStore.remove(CLIENT1 + ":" + profile1.getTypedId());
+
+        val newProfileManager = new ProfileManager(MockWebContext.create(), sessionStore, profileStore);
+        val remainingProfiles = newProfileManager.getProfiles();
+        assertEquals(1, remainingProfiles.size());
+        assertSame(profile2, remainingProfiles.get(0));
+    }
+
+    @Test
+    public void testProfileStoreReadsProfilesSavedWithoutIt() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        profileManager.setProfileStore(new GuavaStore<>(100, 1, TimeUnit.HOURS));
+        assertEquals(profile1, profileManager.getProfile().get());
+    }
+
+    private static final class CountingSessionStore extends MockSessionStore {
+
+        private int nbWrites;
+
+        @Override
+        public void set(final WebContext context, final String key, final Object value) {
+            nbWrites++;
+            super.set(context, key, value);
+        }
+    }
+
+    @Test
+    public void testUnchangedProfilesNotSaved() {
+        val countingSessionStore = new CountingSessionStore();
+        profiles.put(CLIENT1, profile1);
+        countingSessionStore.set(context, Pac4jConstants.USER_PROFILES, new LinkedHashMap<>(profiles));
+        countingSessionStore.nbWrites = 0;
+
+        profileManager = new ProfileManager(context, countingSessionStore);
+        assertEquals(profile1, profileManager.getProfile().get());
+        profileManager.save(true, profile1, true);
+        profileManager.save(true, profile1, false);
+        assertEquals(0, countingSessionStore.nbWrites);
+
+        profile1.addAttribute(KEY, VALUE);
+        profileManager.save(true, profile1, true);
+        assertEquals(1, countingSessionStore.nbWrites);
+        profileManager.save(true, profile1, true);
+        assertEquals(1, countingSessionStore.nbWrites);
+
+        profileManager.save(true, profile2, true);
+        assertEquals(2, countingSessionStore.nbWrites);
+        assertEquals(2, profileManager.getProfiles().size());
+    }
+
+    @Test
+    public void testOnlyChangedProfilesSavedInProfileStore() {
+        val savedKeys = new ArrayList<String>();
+        final Store<String, UserProfile> profileStore = new GuavaStore<>(100, 1, TimeUnit.HOURS) {
+            @Override
+            public void setAll(final Map<String, UserProfile> values) {
+                savedKeys.addAll(values.keySet());
+                super.setAll(values);
+            }
+        };
+        val countingSessionStore = new CountingSessionStore();
+        profileManager = new ProfileManager(context, countingSessionStore, profileStore);
+        profileManager.save(true, profile1, true);
+        profileManager.save(true, profile2, true);
+        assertEquals(2, countingSessionStore.nbWrites);
+
+        // next request
+        savedKeys.clear();
+        profileManager = new ProfileManager(MockWebContext.create(), countingSessionStore, profileStore);
+        val profile = (CommonProfile) profileManager.getProfiles().get(1);
+        profile.addRole("role");
+        profileManager.save(true, profile, true);
+        assertEquals(List.of(CLIENT2 + ":" + profile2.getTypedId()), savedKeys);
+        assertEquals(2, countingSessionStore.nbWrites);
+    }
 }
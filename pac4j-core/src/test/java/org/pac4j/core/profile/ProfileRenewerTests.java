@@ -0,0 +1,129 @@
+package org.pac4j.core.profile;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ProfileRenewer}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class ProfileRenewerTests implements TestsConstants {
+
+    private final CommonProfile expiredProfile = new CommonProfile();
+
+    private final CommonProfile renewedProfile = new CommonProfile();
+
+    private final AtomicInteger nbRenewals = new AtomicInteger();
+
+    private Optional<UserProfile> renew(final CountDownLatch latch) {
+        nbRenewals.incrementAndGet();
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.of(renewedProfile);
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        val renewer = new ProfileRenewer();
+        val latch = new CountDownLatch(1);
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<Optional<UserProfile>>[] results = new Future[4];
+            for (var i = 0; i < 4; i++) {
+                results[i] = executor.submit(() -> renewer.renew(KEY, expiredProfile, () -> renew(latch)));
+            }
+            Thread.sleep(100);
+            latch.countDown();
+            for (val result : results) {
+                assertSame(renewedProfile, result.get().get());
+            }
+            assertEquals(1, nbRenewals.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testServeExpiredProfiles() throws Exception {
+        val renewer = new ProfileRenewer();
+        renewer.setServeExpiredProfiles(true);
+        val latch = new CountDownLatch(1);
+        val executor = Executors.newSingleThreadExecutor();
+        try {
+            val leader = executor.submit(() -> renewer.renew(KEY, expiredProfile, () -> renew(latch)));
+            Thread.sleep(100);
+            assertSame(expiredProfile, renewer.renew(KEY, expiredProfile, () -> renew(latch)).get());
+            latch.countDown();
+            assertSame(renewedProfile, leader.get().get());
+            // the result is kept for the requests which have read the expired profile
+            assertSame(renewedProfile, renewer.renew(KEY, expiredProfile, () -> renew(latch)).get());
+            assertEquals(1, nbRenewals.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testResultTimeout() throws Exception {
+        val renewer = new ProfileRenewer();
+        renewer.setResultTimeout(0);
+        val latch = new CountDownLatch(0);
+        assertSame(renewedProfile, renewer.renew(KEY, expiredProfile, () -> renew(latch)).get());
+        Thread.sleep(5);
+        assertSame(renewedProfile, renewer.renew(KEY, expiredProfile, () -> renew(latch)).get());
+        assertEquals(2, nbRenewals.get());
+        assertSame(renewedProfile, renewer.renew(VALUE, expiredProfile, () -> renew(latch)).get());
+        assertEquals(3, nbRenewals.get());
+    }
+
+    @Test
+    public void testWaitTimeout() throws Exception {
+        val renewer = new ProfileRenewer();
+        renewer.setWaitTimeout(50);
+        val latch = new CountDownLatch(1);
+        val executor = Executors.newSingleThreadExecutor();
+        try {
+            val leader = executor.submit(() -> renewer.renew(KEY, expiredProfile, () -> renew(latch)));
+            Thread.sleep(100);
+            // the expired profile is kept
+            assertSame(expiredProfile, renewer.renew(KEY, expiredProfile, () -> renew(latch)).get());
+            latch.countDown();
+            assertSame(renewedProfile, leader.get().get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedRenewal() {
+        val renewer = new ProfileRenewer();
+        assertTrue(renewer.renew(KEY, expiredProfile, () -> {
+            throw new IllegalStateException("failure");
+        }).isEmpty());
+    }
+
+    @Test
+    public void testPurgeFinishedRenewals() throws Exception {
+        val renewer = new ProfileRenewer();
+        renewer.setResultTimeout(10);
+        val latch = new CountDownLatch(0);
+        renewer.renew(KEY, expiredProfile, () -> renew(latch));
+        assertEquals(1, renewer.getNbRenewals());
+        Thread.sleep(50);
+        renewer.renew(VALUE, expiredProfile, () -> renew(latch));
+        // the finished renewal of KEY has been purged
+        assertEquals(1, renewer.getNbRenewals());
+    }
+}
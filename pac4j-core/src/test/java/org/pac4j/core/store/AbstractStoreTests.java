@@ -6,8 +6,12 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertFalse;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
 
 /**
  * Test a store.
@@ -73,4 +77,54 @@ public abstract class AbstractStoreTests<S extends Store> implements TestsConsta
         val store = buildStore();
         TestsHelper.expectException(() -> store.remove(null), TechnicalException.class, "key cannot be null");
     }
+
+    @Test
+    public void testBatchOperations() {
+        val store = buildStore();
+        final Map<String, String> values = new HashMap<>();
+        values.put(KEY, VALUE);
+        values.put(NAME, VALUE);
+        store.setAll(values);
+        assertEquals(values, store.getAll(List.of(KEY, NAME, ID)));
+        store.removeAll(List.of(KEY, ID));
+        assertEquals(Map.of(NAME, VALUE), store.getAll(List.of(KEY, NAME)));
+    }
+
+    @Test
+    public void testSetAllImmutableMap() {
+        val store = buildStore();
+        store.setAll(Map.of(KEY, VALUE));
+        assertEquals(VALUE, store.get(KEY).get());
+    }
+
+    @Test
+    public void testSetWithTimeToLive() throws InterruptedException {
+        val store = buildStore();
+        store.set(KEY, VALUE, 100, TimeUnit.MILLISECONDS);
+        assertEquals(VALUE, store.get(KEY).get());
+        Thread.sleep(150);
+        assertFalse(store.get(KEY).isPresent());
+        store.set(KEY, VALUE, 100, TimeUnit.MILLISECONDS);
+        store.set(KEY, NAME);
+        Thread.sleep(150);
+        assertEquals(NAME, store.get(KEY).get());
+    }
+
+    @Test
+    public void testComputeIfAbsent() {
+        val store = buildStore();
+        assertEquals(VALUE, store.computeIfAbsent(KEY, k -> VALUE));
+        assertEquals(VALUE, store.computeIfAbsent(KEY, k -> NAME));
+        assertNull(store.computeIfAbsent(NAME, k -> null));
+        assertFalse(store.get(NAME).isPresent());
+    }
+
+    @Test
+    public void testGetAndRemove() {
+        val store = buildStore();
+        store.set(KEY, VALUE);
+        assertEquals(VALUE, store.getAndRemove(KEY).get());
+        assertFalse(store.get(KEY).isPresent());
+        assertFalse(store.getAndRemove(KEY).isPresent());
+    }
 }
@@ -4,8 +4,12 @@ import lombok.val;
 import org.junit.Test;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.TestsHelper;
+import org.pac4j.core.util.serializer.JavaSerializer;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
 
 /**
  * Test {@link GuavaStore}.
@@ -43,4 +47,101 @@ public final class GuavaStoreTests extends AbstractStoreTests<GuavaStore> {
         store.setTimeout(20);
         TestsHelper.expectException(store::init, TechnicalException.class, "timeUnit cannot be null");
     }
+
+    @Test
+    public void testMaximumWeight() {
+        final GuavaStore<String, String> store = new GuavaStore<>();
+        store.setMaximumWeight(2000);
+        store.setRecordStats(true);
+        store.setTimeout(10);
+        store.setTimeUnit(TimeUnit.SECONDS);
+        for (var i = 0; i < 100; i++) {
+            store.set(KEY + i, "a".repeat(100));
+        }
+        // each entry is estimated to more than 100 bytes
+        assertTrue(store.getCache().size() < 20);
+        assertTrue(store.getStats().evictionCount() > 80);
+    }
+
+    @Test
+    public void testMaximumWeightSerialized() {
+        final GuavaStore<String, String> store = new GuavaStore<>();
+        store.setMaximumWeight(2000);
+        store.setWeightSerializer(new JavaSerializer());
+        store.setTimeout(10);
+        store.setTimeUnit(TimeUnit.SECONDS);
+        for (var i = 0; i < 100; i++) {
+            store.set(KEY + i, "a".repeat(100));
+        }
+        // each entry weighs more than 100 bytes when serialized
+        assertTrue(store.getCache().size() < 20);
+    }
+
+    @Test
+    public void testDefaultRefreshExecutor() throws InterruptedException {
+        val loads = new AtomicInteger();
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10000, TimeUnit.MILLISECONDS);
+        store.setRefreshTimeout(50);
+        store.setLoader(key -> key + loads.incrementAndGet());
+        store.set(KEY, VALUE);
+        store.init();
+        assertNotNull(store.getRefreshExecutor());
+        Thread.sleep(100);
+        store.get(KEY);
+        for (var i = 0; i < 50 && loads.get() == 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testAccessTimeout() throws InterruptedException {
+        final GuavaStore<String, String> store = new GuavaStore<>();
+        store.setSize(10);
+        store.setAccessTimeout(200);
+        store.setTimeUnit(TimeUnit.MILLISECONDS);
+        store.set(KEY, VALUE);
+        for (var i = 0; i < 3; i++) {
+            Thread.sleep(100);
+            assertTrue(store.get(KEY).isPresent());
+        }
+        Thread.sleep(300);
+        assertFalse(store.get(KEY).isPresent());
+    }
+
+    @Test
+    public void testRefresh() throws InterruptedException {
+        val loads = new AtomicInteger();
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        store.setTimeUnit(TimeUnit.MILLISECONDS);
+        store.setTimeout(10000);
+        store.setRefreshTimeout(100);
+        store.setRefreshExecutor(Runnable::run);
+        store.setLoader(key -> key + loads.incrementAndGet());
+        store.set(KEY, VALUE);
+        assertEquals(VALUE, store.get(KEY).get());
+        Thread.sleep(150);
+        store.get(KEY);
+        assertEquals(KEY + 1, store.get(KEY).get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testStats() {
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 1000, TimeUnit.MILLISECONDS);
+        store.setRecordStats(true);
+        store.set(KEY, VALUE);
+        store.get(KEY);
+        store.get(VALUE);
+        assertEquals(1, store.getStats().hitCount());
+        assertEquals(1, store.getStats().missCount());
+    }
+
+    @Test
+    public void testNoStatsByDefault() {
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 1000, TimeUnit.MILLISECONDS);
+        store.set(KEY, VALUE);
+        store.get(KEY);
+        assertEquals(0, store.getStats().hitCount());
+    }
 }
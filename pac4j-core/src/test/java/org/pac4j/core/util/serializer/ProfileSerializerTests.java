@@ -0,0 +1,121 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.Gender;
+import org.pac4j.core.profile.definition.CommonProfileDefinition;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ProfileSerializer}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class ProfileSerializerTests implements TestsConstants {
+
+    private final ProfileSerializer serializer = new ProfileSerializer();
+
+    private CommonProfile getUserProfile() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(MY_CLIENT_NAME);
+        profile.setLinkedId(VALUE);
+        profile.setRemembered(true);
+        profile.addRoles(List.of("admin", "user"));
+        profile.addAttribute(CommonProfileDefinition.EMAIL, "john@example.org");
+        profile.addAttribute(CommonProfileDefinition.FIRST_NAME, "John");
+        profile.addAttribute(CommonProfileDefinition.GENDER, Gender.MALE);
+        profile.addAttribute(CommonProfileDefinition.PICTURE_URL, java.net.URI.create("https://example.org/john.png"));
+        profile.addAttribute("age", 42);
+        profile.addAttribute("quota", -5_000_000_000L);
+        profile.addAttribute("score", 1.5d);
+        profile.addAttribute("admin", true);
+        profile.addAttribute("created", new Date(1_600_000_000_000L));
+        profile.addAttribute("groups", new ArrayList<>(List.of("g1", "g2")));
+        profile.addAttribute("tags", new HashSet<>(Set.of("t1")));
+        profile.addAttribute("aliases", new String[] {"jd", "johnny"});
+        profile.addAttribute("address", new HashMap<>(Map.of("city", "Paris")));
+        profile.addAuthenticationAttribute("auth_time", 1234L);
+        return profile;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        val profile = getUserProfile();
+        val profile2 = (CommonProfile) serializer.deserializeFromBytes(serializer.serializeToBytes(profile));
+        assertProfile(profile, profile2);
+    }
+
+    @Test
+    public void testRoundTripCompressed() {
+        serializer.setCompressionThreshold(0);
+        val profile = getUserProfile();
+        val serialized = serializer.serializeToString(profile);
+        val profile2 = (CommonProfile) serializer.deserializeFromString(serialized);
+        assertProfile(profile, profile2);
+    }
+
+    private static void assertProfile(final CommonProfile expected, final CommonProfile profile) {
+        assertEquals(expected.getId(), profile.getId());
+        assertEquals(expected.getClientName(), profile.getClientName());
+        assertEquals(expected.getLinkedId(), profile.getLinkedId());
+        assertTrue(profile.isRemembered());
+        assertEquals(expected.getRoles(), profile.getRoles());
+        assertEquals(Gender.MALE, profile.getGender());
+        assertEquals(expected.getPictureUrl(), profile.getPictureUrl());
+        assertArrayEquals((String[]) expected.getAttribute("aliases"), (String[]) profile.getAttribute("aliases"));
+        val attributes = expected.getAttributes();
+        attributes.remove("aliases");
+        val attributes2 = profile.getAttributes();
+        attributes2.remove("aliases");
+        assertEquals(attributes, attributes2);
+        assertEquals(expected.getAuthenticationAttributes(), profile.getAuthenticationAttributes());
+    }
+
+    @Test
+    public void testSmallerThanOtherSerializers() {
+        val profile = getUserProfile();
+        val size = serializer.serializeToBytes(profile).length;
+        assertTrue(size < new JavaSerializer().serializeToBytes(profile).length / 2);
+        assertTrue(size < new JsonSerializer(CommonProfile.class).serializeToBytes(profile).length);
+    }
+
+    @Test
+    public void testNotAProfile() {
+        val action = new FoundAction(PAC4J_URL);
+        val action2 = (FoundAction) serializer.deserializeFromBytes(serializer.serializeToBytes(action));
+        assertEquals(PAC4J_URL, action2.getLocation());
+    }
+
+    @Test
+    public void testReadJavaSerializedProfile() {
+        val profile = getUserProfile();
+        val profile2 = (CommonProfile) serializer.deserializeFromBytes(new JavaSerializer().serializeToBytes(profile));
+        assertEquals(profile.getId(), profile2.getId());
+    }
+
+    @Test
+    public void testUntrustedProfileClass() {
+        val bytes = serializer.serializeToBytes(getUserProfile());
+        serializer.getJavaSerializer().clearTrustedPackages();
+        assertNull(serializer.deserializeFromBytes(bytes));
+        serializer.getJavaSerializer().addTrustedClass(CommonProfile.class);
+        assertNotNull(serializer.deserializeFromBytes(bytes));
+    }
+
+    @Test
+    public void testBadInput() {
+        val bytes = serializer.serializeToBytes(getUserProfile());
+        assertNull(serializer.deserializeFromBytes(Arrays.copyOf(bytes, bytes.length / 2)));
+        bytes[1] = 99;
+        assertNull(serializer.deserializeFromBytes(bytes));
+        assertNull(serializer.deserializeFromBytes(new byte[] {1, 2, 3}));
+    }
+}
@@ -0,0 +1,110 @@
+package org.pac4j.http.credentials.authenticator;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free rate limiter with a bounded memory: the keys are hashed (with a random seed) on a fixed number of stripes,
+ * each stripe being a token bucket of <code>limit</code> tokens refilled over the <code>period</code>.
+ *
+ * Each stripe only holds the theoretical arrival time of the next request (generic cell rate algorithm).
+ * Keys sharing the same stripe share the same bucket, so use enough stripes compared to the number of active keys.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@ToString(onlyExplicitlyIncluded = true)
+public class StripedRateLimiter {
+
+    @Getter
+    @ToString.Include
+    private final int limit;
+
+    @Getter
+    @ToString.Include
+    private final long periodInMillis;
+
+    private final AtomicLongArray stripes;
+
+    private final int mask;
+
+    private final long interval;
+
+    private final long tolerance;
+
+    private final long seed = ThreadLocalRandom.current().nextLong() | 1L;
+
+    private final long origin = System.nanoTime();
+
+    public StripedRateLimiter(final int nbStripes, final int limit, final long periodInMillis) {
+        CommonHelper.assertTrue(nbStripes > 0, "nbStripes must be greater than zero");
+        CommonHelper.assertTrue(limit > 0, "limit must be greater than zero");
+        CommonHelper.assertTrue(periodInMillis > 0, "periodInMillis must be greater than zero");
+        this.limit = limit;
+        this.periodInMillis = periodInMillis;
+        val size = Integer.highestOneBit(Math.max(1, nbStripes - 1)) << 1;
+        this.stripes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.interval = Math.max(1L, TimeUnit.MILLISECONDS.toNanos(periodInMillis) / limit);
+        this.tolerance = interval * limit;
+    }
+
+    /**
+     * Try to take a token from the bucket of the key.
+     *
+     * @param key the key
+     * @return whether a token was available
+     */
+    public boolean tryAcquire(final String key) {
+        val i = stripe(key);
+        while (true) {
+            val arrivalTime = stripes.get(i);
+            val now = System.nanoTime() - origin;
+            val nextArrivalTime = Math.max(arrivalTime, now) + interval;
+            if (nextArrivalTime - now > tolerance) {
+                return false;
+            }
+            if (stripes.compareAndSet(i, arrivalTime, nextArrivalTime)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Whether a token is available in the bucket of the key (without taking it).
+     *
+     * @param key the key
+     * @return whether a token is available
+     */
+    public boolean isAvailable(final String key) {
+        val now = System.nanoTime() - origin;
+        return Math.max(stripes.get(stripe(key)), now) + interval - now <= tolerance;
+    }
+
+    /**
+     * Return the number of stripes.
+     *
+     * @return the number of stripes
+     */
+    public int getNbStripes() {
+        return stripes.length();
+    }
+
+    private int stripe(final String key) {
+        // seeded hash so that colliding keys cannot be predicted
+        var h = seed;
+        for (var i = 0; i < key.length(); i++) {
+            h = (h + key.charAt(i)) * seed;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
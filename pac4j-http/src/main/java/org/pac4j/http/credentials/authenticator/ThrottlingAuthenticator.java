@@ -0,0 +1,163 @@
+package org.pac4j.http.credentials.authenticator;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.credentials.authenticator.Authenticator;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.http.credentials.extractor.IpExtractor;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An authenticator which limits the number of failed authentication attempts per username and per client IP address
+ * before delegating to the real authenticator.
+ *
+ * Only the failed attempts (no credentials returned or an exception thrown by the delegate) are counted, so that the clients
+ * sending their credentials on each request (like the {@link org.pac4j.http.client.direct.DirectBasicAuthClient}) are not
+ * throttled. By default, at most 10 failed attempts per username and 100 failed attempts per IP address are allowed per minute
+ * (<code>usernameLimit</code> per <code>usernamePeriodInMillis</code> and <code>ipLimit</code> per <code>ipPeriodInMillis</code>).
+ * As the attempts are counted once they have failed, concurrent attempts may slightly exceed these limits.
+ *
+ * Once a limit is reached, an attempt is rejected cheaply: no exception is thrown, no credentials are returned and the delegate
+ * authenticator is not called. A limit set to zero disables the related throttling.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@Slf4j
+@ToString
+public class ThrottlingAuthenticator extends InitializableObject implements Authenticator {
+
+    private Authenticator delegate;
+
+    private IpExtractor ipExtractor = new IpExtractor();
+
+    private int usernameLimit = 10;
+
+    private long usernamePeriodInMillis = 60 * 1000;
+
+    private int ipLimit = 100;
+
+    private long ipPeriodInMillis = 60 * 1000;
+
+    private int nbStripes = 4096;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private StripedRateLimiter usernameLimiter;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private StripedRateLimiter ipLimiter;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final LongAdder allowedAttempts = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final LongAdder throttledUsernameAttempts = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final LongAdder throttledIpAttempts = new LongAdder();
+
+    public ThrottlingAuthenticator() {}
+
+    public ThrottlingAuthenticator(final Authenticator delegate) {
+        this.delegate = delegate;
+    }
+
+    public ThrottlingAuthenticator(final Authenticator delegate, final int usernameLimit, final int ipLimit) {
+        this.delegate = delegate;
+        this.usernameLimit = usernameLimit;
+        this.ipLimit = ipLimit;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("delegate", delegate);
+        CommonHelper.assertNotNull("ipExtractor", ipExtractor);
+
+        usernameLimiter = usernameLimit > 0 ? new StripedRateLimiter(nbStripes, usernameLimit, usernamePeriodInMillis) : null;
+        ipLimiter = ipLimit > 0 ? new StripedRateLimiter(nbStripes, ipLimit, ipPeriodInMillis) : null;
+
+        if (delegate instanceof InitializableObject initializableObject) {
+            initializableObject.init(forceReinit);
+        }
+    }
+
+    @Override
+    public Optional<Credentials> validate(final Credentials credentials, final WebContext context, final SessionStore sessionStore) {
+        init();
+
+        String ip = null;
+        if (ipLimiter != null && context != null) {
+            val ipCredentials = ipExtractor.extract(context, sessionStore, null);
+            if (ipCredentials.isPresent()) {
+                ip = ((TokenCredentials) ipCredentials.get()).getToken();
+                if (!ipLimiter.isAvailable(ip)) {
+                    throttledIpAttempts.increment();
+                    LOGGER.debug("Too many failed authentication attempts from IP: {}", ip);
+                    return Optional.empty();
+                }
+            }
+        }
+
+        String username = null;
+        if (usernameLimiter != null && credentials instanceof UsernamePasswordCredentials upCredentials) {
+            username = upCredentials.getUsername();
+            if (username != null && !usernameLimiter.isAvailable(username)) {
+                throttledUsernameAttempts.increment();
+                LOGGER.debug("Too many failed authentication attempts for username: {}", username);
+                return Optional.empty();
+            }
+        }
+
+        allowedAttempts.increment();
+        var success = false;
+        try {
+            val result = delegate.validate(credentials, context, sessionStore);
+            success = result.isPresent();
+            return result;
+        } finally {
+            // only the failed attempts are counted
+            if (!success) {
+                if (ip != null) {
+                    ipLimiter.tryAcquire(ip);
+                }
+                if (username != null) {
+                    usernameLimiter.tryAcquire(username);
+                }
+            }
+        }
+    }
+
+    public long getAllowedAttempts() {
+        return allowedAttempts.sum();
+    }
+
+    public long getThrottledUsernameAttempts() {
+        return throttledUsernameAttempts.sum();
+    }
+
+    public long getThrottledIpAttempts() {
+        return throttledIpAttempts.sum();
+    }
+}
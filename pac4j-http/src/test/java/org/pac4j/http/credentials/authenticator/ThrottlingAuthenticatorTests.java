@@ -0,0 +1,90 @@
+package org.pac4j.http.credentials.authenticator;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.http.credentials.authenticator.test.SimpleTestUsernamePasswordAuthenticator;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class tests the {@link ThrottlingAuthenticator}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class ThrottlingAuthenticatorTests implements TestsConstants {
+
+    private static final String IP = "10.0.0.1";
+
+    @Test
+    public void testUsernameThrottling() {
+        val authenticator = new ThrottlingAuthenticator(new SimpleTestUsernamePasswordAuthenticator(), 2, 0);
+        val context = MockWebContext.create().setRemoteAddress(IP);
+        assertFalse(validate(authenticator, context, USERNAME, PASSWORD));
+        assertFalse(validate(authenticator, context, USERNAME, PASSWORD));
+        // throttled, even with the right password
+        assertFalse(validate(authenticator, context, USERNAME, USERNAME));
+        assertTrue(validate(authenticator, context, NAME, NAME));
+        assertEquals(3, authenticator.getAllowedAttempts());
+        assertEquals(1, authenticator.getThrottledUsernameAttempts());
+        assertEquals(0, authenticator.getThrottledIpAttempts());
+    }
+
+    @Test
+    public void testSuccessfulAttemptsNotThrottled() {
+        val authenticator = new ThrottlingAuthenticator(new SimpleTestUsernamePasswordAuthenticator(), 2, 2);
+        val context = MockWebContext.create().setRemoteAddress(IP);
+        for (var i = 0; i < 10; i++) {
+            assertTrue(validate(authenticator, context, USERNAME, USERNAME));
+        }
+        assertEquals(0, authenticator.getThrottledUsernameAttempts());
+        assertEquals(0, authenticator.getThrottledIpAttempts());
+    }
+
+    @Test
+    public void testIpThrottling() {
+        val authenticator = new ThrottlingAuthenticator(new SimpleTestUsernamePasswordAuthenticator(), 0, 2);
+        val context = MockWebContext.create().setRemoteAddress(IP);
+        assertFalse(validate(authenticator, context, USERNAME, PASSWORD));
+        assertFalse(validate(authenticator, context, NAME, PASSWORD));
+        assertFalse(validate(authenticator, context, VALUE, VALUE));
+        assertTrue(validate(authenticator, MockWebContext.create().setRemoteAddress("10.0.0.2"), VALUE, VALUE));
+        assertEquals(1, authenticator.getThrottledIpAttempts());
+    }
+
+    @Test
+    public void testRefill() throws InterruptedException {
+        val authenticator = new ThrottlingAuthenticator(new SimpleTestUsernamePasswordAuthenticator(), 1, 0);
+        authenticator.setUsernamePeriodInMillis(100);
+        val context = MockWebContext.create();
+        assertFalse(validate(authenticator, context, USERNAME, PASSWORD));
+        assertFalse(validate(authenticator, context, USERNAME, USERNAME));
+        Thread.sleep(150);
+        assertTrue(validate(authenticator, context, USERNAME, USERNAME));
+    }
+
+    @Test
+    public void testStripedRateLimiter() {
+        val limiter = new StripedRateLimiter(1000, 3, 60 * 1000);
+        assertEquals(1024, limiter.getNbStripes());
+        for (var i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(KEY));
+        }
+        assertFalse(limiter.tryAcquire(KEY));
+    }
+
+    private static boolean validate(final ThrottlingAuthenticator authenticator, final MockWebContext context, final String username,
+                                    final String password) {
+        val credentials = new UsernamePasswordCredentials(username, password);
+        try {
+            return authenticator.validate(credentials, context, new MockSessionStore()).isPresent();
+        } catch (final CredentialsException e) {
+            return false;
+        }
+    }
+}
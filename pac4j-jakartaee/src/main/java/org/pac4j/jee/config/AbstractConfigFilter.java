@@ -6,8 +6,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.val;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.config.ConfigBuilder;
+import org.pac4j.core.context.session.BufferedSessionStore;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.jee.context.JEEContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,7 +71,13 @@ public abstract class AbstractConfigFilter implements Filter {
         val req = (HttpServletRequest) request;
         val resp = (HttpServletResponse) response;
 
-        internalFilter(req, resp, chain);
+        try {
+            internalFilter(req, resp, chain);
+        } finally {
+            // the logics flush before the response is committed: only the data written afterwards (in the buffer
+            // or as deferred writes, like the JWT cookie) are flushed here, nothing is done otherwise
+            BufferedSessionStore.flush(new JEEContext(req, resp));
+        }
     }
 
     protected abstract void internalFilter(final HttpServletRequest request, final HttpServletResponse response,
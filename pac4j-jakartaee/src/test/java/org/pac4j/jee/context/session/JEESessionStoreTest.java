@@ -0,0 +1,152 @@
+package org.pac4j.jee.context.session;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.jee.context.JEEContext;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link JEESessionStore}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class JEESessionStoreTest implements TestsConstants {
+
+    private HttpServletRequest request;
+
+    private HttpSession session;
+
+    private JEEContext context;
+
+    @Before
+    public void setUp() {
+        request = mock(HttpServletRequest.class);
+        final Map<String, Object> requestAttributes = new HashMap<>();
+        doAnswer(i -> requestAttributes.put(i.getArgument(0), i.getArgument(1))).when(request).setAttribute(anyString(), any());
+        when(request.getAttribute(anyString())).thenAnswer(i -> requestAttributes.get(i.getArgument(0)));
+        session = mock(HttpSession.class);
+        when(session.getId()).thenReturn(ID);
+        when(session.getAttribute(KEY)).thenReturn(VALUE);
+        when(request.getSession(anyBoolean())).thenReturn(session);
+        context = new JEEContext(request, mock(HttpServletResponse.class));
+    }
+
+    @Test
+    public void testRequestCache() {
+        val store = JEESessionStore.INSTANCE;
+        assertEquals(ID, store.getSessionId(context, false).get());
+        assertEquals(VALUE, store.get(context, KEY).get());
+        assertEquals(VALUE, store.get(context, KEY).get());
+        assertTrue(store.get(context, NAME).isEmpty());
+        assertTrue(store.get(context, NAME).isEmpty());
+        store.set(context, NAME, VALUE);
+        assertEquals(VALUE, store.get(context, NAME).get());
+        store.set(context, KEY, null);
+        assertTrue(store.get(context, KEY).isEmpty());
+        verify(request, times(1)).getSession(anyBoolean());
+        verify(session, times(1)).getAttribute(KEY);
+        verify(session, times(1)).getAttribute(NAME);
+        verify(session).setAttribute(NAME, VALUE);
+        verify(session).removeAttribute(KEY);
+    }
+
+    @Test
+    public void testDestroySession() {
+        val store = JEESessionStore.INSTANCE;
+        assertEquals(VALUE, store.get(context, KEY).get());
+        store.destroySession(context);
+        verify(session).invalidate();
+        when(request.getSession(anyBoolean())).thenReturn(null);
+        assertTrue(store.get(context, KEY).isEmpty());
+    }
+
+    @Test
+    public void testSessionInvalidatedOutsideOfTheStore() {
+        val store = JEESessionStore.INSTANCE;
+        assertEquals(ID, store.getSessionId(context, false).get());
+        assertEquals(VALUE, store.get(context, KEY).get());
+        when(session.getCreationTime()).thenThrow(new IllegalStateException("invalidated"));
+        val newSession = mock(HttpSession.class);
+        when(newSession.getId()).thenReturn(VALUE);
+        when(newSession.getAttribute(KEY)).thenReturn(NAME);
+        when(request.getSession(anyBoolean())).thenReturn(newSession);
+        assertEquals(VALUE, store.getSessionId(context, true).get());
+        assertEquals(NAME, store.get(context, KEY).get());
+    }
+
+    @Test
+    public void testSessionInvalidatedWithoutNewSession() {
+        val store = JEESessionStore.INSTANCE;
+        assertEquals(VALUE, store.get(context, KEY).get());
+        when(session.getCreationTime()).thenThrow(new IllegalStateException("invalidated"));
+        when(request.getSession(false)).thenReturn(null);
+        assertTrue(store.getSessionId(context, false).isEmpty());
+        assertTrue(store.get(context, KEY).isEmpty());
+    }
+
+    @Test
+    public void testRequestCacheDisabled() {
+        val store = new JEESessionStore();
+        store.setRequestCacheEnabled(false);
+        assertEquals(VALUE, store.get(context, KEY).get());
+        assertEquals(VALUE, store.get(context, KEY).get());
+        verify(request, times(2)).getSession(false);
+        verify(session, times(2)).getAttribute(KEY);
+        assertTrue(JEESessionStore.INSTANCE.isRequestCacheEnabled());
+    }
+
+    @Test
+    public void testRenewSessionByCopyWhenChangeSessionIdDisabled() {
+        when(session.getAttributeNames()).thenReturn(Collections.enumeration(List.of(KEY)));
+        val store = new JEESessionStore();
+        store.setChangeSessionIdEnabled(false);
+        assertTrue(store.renewSession(context));
+        verify(request, never()).changeSessionId();
+        verify(session).invalidate();
+    }
+
+    @Test
+    public void testRenewSessionByChangingItsIdentifier() {
+        val store = JEESessionStore.INSTANCE;
+        assertEquals(VALUE, store.get(context, KEY).get());
+        when(request.changeSessionId()).thenAnswer(i -> {
+            when(session.getId()).thenReturn(VALUE);
+            return VALUE;
+        });
+        assertTrue(store.renewSession(context));
+        assertEquals(VALUE, store.getSessionId(context, false).get());
+        assertEquals(VALUE, store.get(context, KEY).get());
+        verify(session, never()).invalidate();
+        verify(session, never()).setAttribute(anyString(), any());
+    }
+
+    @Test
+    public void testRenewSessionByCopy() {
+        when(request.changeSessionId()).thenThrow(new UnsupportedOperationException());
+        when(session.getAttributeNames()).thenReturn(Collections.enumeration(List.of(KEY)));
+        val newSession = mock(HttpSession.class);
+        when(newSession.getId()).thenReturn(VALUE);
+        when(request.getSession(true)).thenReturn(newSession);
+        val store = JEESessionStore.INSTANCE;
+        assertTrue(store.renewSession(context));
+        verify(session).invalidate();
+        verify(newSession).setAttribute(KEY, VALUE);
+        assertEquals(VALUE, store.getSessionId(context, false).get());
+    }
+}
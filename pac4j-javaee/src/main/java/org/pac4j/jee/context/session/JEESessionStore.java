@@ -1,11 +1,14 @@
 package org.pac4j.jee.context.session;
 
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.jee.context.JEEContext;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import java.util.Collections;
 import java.util.HashMap;
@@ -16,6 +19,13 @@ import java.util.stream.Collectors;
 /**
  * Store data in the JEE web session.
  *
+ * The web session and the values read or written through this store are cached in the current request
+ * (<code>setRequestCacheEnabled(false)</code> to disable it): the web session should be updated through this store.
+ * The cached web session is checked to be still valid before each use.
+ *
+ * The session is renewed by changing its identifier (<code>HttpServletRequest.changeSessionId()</code>) and, when it fails
+ * or is disabled (<code>setChangeSessionIdEnabled(false)</code>), by copying all its data into a new session.
+ *
  * You should upgrade to the new <code>pac4j-jakartaee</code> module.
  *
  * @author Jerome Leleu
@@ -27,6 +37,19 @@ public class JEESessionStore implements SessionStore {
 
     public static final JEESessionStore INSTANCE = new JEESessionStore();
 
+    /**
+     * The request attribute where the web session and its values are cached.
+     */
+    public static final String REQUEST_CACHE_ATTRIBUTE = JEESessionStore.class.getName() + ".requestCache";
+
+    @Getter
+    @Setter
+    private boolean requestCacheEnabled = true;
+
+    @Getter
+    @Setter
+    private boolean changeSessionIdEnabled = true;
+
     protected HttpSession httpSession;
 
     protected JEESessionStore() {}
@@ -40,13 +63,58 @@ public class JEESessionStore implements SessionStore {
             LOGGER.debug("Provided session: {}", httpSession);
             return Optional.of(httpSession);
         } else {
-            val jeeContext = (JEEContext) context;
-            val session = jeeContext.getNativeRequest().getSession(createSession);
+            val request = ((JEEContext) context).getNativeRequest();
+            val cache = getRequestCache(request);
+            if (cache != null && cache.session != null) {
+                if (isValid(cache.session)) {
+                    return Optional.of(cache.session);
+                }
+                LOGGER.debug("Cached session invalidated outside of the session store: {}", cache.session);
+                cache.clear();
+            }
+            val session = request.getSession(createSession);
             LOGGER.debug("createSession: {}, retrieved session: {}", createSession, session);
+            if (cache != null && session != null) {
+                cache.session = session;
+            }
             return Optional.ofNullable(session);
         }
     }
 
+    /**
+     * Whether the session is still valid (its creation time can only be read on a valid session).
+     *
+     * @param session the web session
+     * @return whether the session is valid
+     */
+    protected boolean isValid(final HttpSession session) {
+        try {
+            session.getCreationTime();
+            return true;
+        } catch (final IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private RequestCache getRequestCache(final WebContext context) {
+        if (httpSession != null || !requestCacheEnabled) {
+            return null;
+        }
+        return getRequestCache(((JEEContext) context).getNativeRequest());
+    }
+
+    private RequestCache getRequestCache(final HttpServletRequest request) {
+        if (!requestCacheEnabled) {
+            return null;
+        }
+        var cache = (RequestCache) request.getAttribute(REQUEST_CACHE_ATTRIBUTE);
+        if (cache == null) {
+            cache = new RequestCache();
+            request.setAttribute(REQUEST_CACHE_ATTRIBUTE, cache);
+        }
+        return cache;
+    }
+
     @Override
     public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
         val httpSession = getNativeSession(context, createSession);
@@ -62,9 +130,19 @@ public class JEESessionStore implements SessionStore {
 
     @Override
     public Optional<Object> get(final WebContext context, final String key) {
+        val cache = getRequestCache(context);
+        // first, to drop the cached values of an invalidated session
         val httpSession = getNativeSession(context, false);
         if (httpSession.isPresent()) {
+            if (cache != null && cache.values.containsKey(key)) {
+                val value = cache.values.get(key);
+                LOGGER.debug("Get cached value: {} for key: {}", value, key);
+                return Optional.ofNullable(value);
+            }
             val value = httpSession.get().getAttribute(key);
+            if (cache != null) {
+                cache.values.put(key, value);
+            }
             LOGGER.debug("Get value: {} for key: {}", value, key);
             return Optional.ofNullable(value);
         } else {
@@ -75,11 +153,15 @@ public class JEESessionStore implements SessionStore {
 
     @Override
     public void set(final WebContext context, final String key, final Object value) {
+        val cache = getRequestCache(context);
         if (value == null) {
             val httpSession = getNativeSession(context, false);
             if (httpSession.isPresent()) {
                 LOGGER.debug("Remove value for key: {}", key);
                 httpSession.get().removeAttribute(key);
+                if (cache != null) {
+                    cache.values.put(key, null);
+                }
             }
         } else {
             val httpSession = getNativeSession(context, true);
@@ -89,6 +171,9 @@ public class JEESessionStore implements SessionStore {
                 LOGGER.debug("Set key: {} for value: {}", key, value);
             }
             httpSession.get().setAttribute(key, value);
+            if (cache != null) {
+                cache.values.put(key, value);
+            }
         }
     }
 
@@ -100,6 +185,10 @@ public class JEESessionStore implements SessionStore {
             LOGGER.debug("Invalidate session: {}", session);
             session.invalidate();
         }
+        val cache = getRequestCache(context);
+        if (cache != null) {
+            cache.clear();
+        }
         return true;
     }
 
@@ -120,7 +209,10 @@ public class JEESessionStore implements SessionStore {
     public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
         if (trackableSession != null) {
             LOGGER.debug("Rebuild session from trackable session: {}", trackableSession);
-            return Optional.of(new JEESessionStore((HttpSession) trackableSession));
+            val sessionStore = new JEESessionStore((HttpSession) trackableSession);
+            sessionStore.setRequestCacheEnabled(requestCacheEnabled);
+            sessionStore.setChangeSessionIdEnabled(changeSessionIdEnabled);
+            return Optional.of(sessionStore);
         } else {
             LOGGER.debug("Unable to build session from trackable session");
             return Optional.empty();
@@ -129,9 +221,30 @@ public class JEESessionStore implements SessionStore {
 
     @Override
     public boolean renewSession(final WebContext context) {
-        Map<String, Object> attributes = new HashMap<>();
         val request = ((JEEContext) context).getNativeRequest();
         val session = request.getSession(false);
+        if (session != null && changeSessionIdEnabled) {
+            try {
+                val oldSessionId = session.getId();
+                val newSessionId = request.changeSessionId();
+                LOGGER.debug("Change session identifier: {} -> {}", oldSessionId, newSessionId);
+                return true;
+            } catch (final IllegalStateException | UnsupportedOperationException e) {
+                LOGGER.debug("Unable to change the session identifier, copying the session instead: {}", e.getMessage());
+            }
+        }
+        renewSessionByCopy(request);
+        return true;
+    }
+
+    /**
+     * Renew the session by copying all its data into a new one.
+     *
+     * @param request the native request
+     */
+    protected void renewSessionByCopy(final HttpServletRequest request) {
+        Map<String, Object> attributes = new HashMap<>();
+        val session = request.getSession(false);
         if (session != null) {
             LOGGER.debug("Discard old session: {}", session.getId());
             attributes = Collections.list(session.getAttributeNames())
@@ -142,6 +255,24 @@ public class JEESessionStore implements SessionStore {
         val newSession = request.getSession(true);
         LOGGER.debug("And copy all data to the new one: {}", newSession.getId());
         attributes.forEach(newSession::setAttribute);
-        return true;
+        val cache = getRequestCache(request);
+        if (cache != null) {
+            cache.session = newSession;
+        }
+    }
+
+    /**
+     * The web session and its values read or written during the current request.
+     */
+    private static final class RequestCache {
+
+        private HttpSession session;
+
+        private final Map<String, Object> values = new HashMap<>();
+
+        private void clear() {
+            session = null;
+            values.clear();
+        }
     }
 }
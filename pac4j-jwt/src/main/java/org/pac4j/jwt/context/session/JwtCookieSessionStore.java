@@ -0,0 +1,447 @@
+package org.pac4j.jwt.context.session;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.EncryptedJWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.JWTParser;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.BufferedSessionStore;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.Serializer;
+import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
+import org.pac4j.jwt.config.signature.SignatureConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.text.ParseException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Store the session data in the browser: in a signed and encrypted JWT, compressed and split into several cookies if necessary.
+ *
+ * The session data are serialized (via the <code>serializer</code>), compressed (if larger than the <code>compressionThreshold</code>),
+ * signed, encrypted and written in the <code>cookieName</code> + <code>_0</code>, <code>_1</code>... cookies, each one containing
+ * at most <code>maxChunkSize</code> characters. The session can not be larger than <code>maxChunks</code> cookies.
+ * The session expires <code>timeout</code> seconds after its last modification.
+ *
+ * The cookies are written once per request, when the session is flushed by {@link BufferedSessionStore#flush(WebContext)}
+ * (done by the pac4j logics before the response is written and by the JEE filters at the end of the request):
+ * the session data written after the response is committed are lost. They can be written at each modification
+ * instead (<code>deferredWrite = false</code>), each modification adding a new set of cookies to the response.
+ *
+ * The cookies are sent on cross-site requests by default (<code>sameSitePolicy = "None"</code>, which requires
+ * secure cookies) as the POST callbacks of the identity providers (SAML POST binding, OIDC form_post) need the session.
+ *
+ * As the session data are in the browser, a session can not be destroyed for a back-channel logout: if a <code>revocationStore</code>
+ * is defined, the destroyed session identifiers are saved in it and the sessions are rejected on their next use.
+ * Otherwise, the sessions are not trackable and the back-channel logout is not supported.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@ToString(exclude = "trackedSessionId")
+@Slf4j
+public class JwtCookieSessionStore implements SessionStore {
+
+    private static final String SESSION_ID_CLAIM = "sid";
+
+    private static final String DATA_CLAIM = "data";
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int MAX_UNCOMPRESSED_SIZE = 1024 * 1024;
+
+    private SignatureConfiguration signatureConfiguration;
+
+    private EncryptionConfiguration encryptionConfiguration;
+
+    private Serializer serializer = new JavaSerializer();
+
+    private String cookieName = "pac4jSession";
+
+    private String domain;
+
+    private String path = "/";
+
+    private boolean httpOnly = true;
+
+    private boolean secure = true;
+
+    private String sameSitePolicy = "None";
+
+    private int maxChunkSize = 3800;
+
+    private int maxChunks = 3;
+
+    private int compressionThreshold = 256;
+
+    private int timeout = 3600;
+
+    private Store<String, Boolean> revocationStore;
+
+    private boolean deferredWrite = true;
+
+    @Setter(AccessLevel.NONE)
+    private String trackedSessionId;
+
+    public JwtCookieSessionStore() {}
+
+    public JwtCookieSessionStore(final SignatureConfiguration signatureConfiguration,
+                                 final EncryptionConfiguration encryptionConfiguration) {
+        this.signatureConfiguration = signatureConfiguration;
+        this.encryptionConfiguration = encryptionConfiguration;
+    }
+
+    @Override
+    public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+        if (trackedSessionId != null) {
+            return Optional.of(trackedSessionId);
+        }
+        val session = getSession(context);
+        if (session.id == null && createSession) {
+            session.id = CommonHelper.randomString(32);
+            update(context, session);
+        }
+        LOGGER.debug("Get sessionId: {}", session.id);
+        return Optional.ofNullable(session.id);
+    }
+
+    @Override
+    public Optional<Object> get(final WebContext context, final String key) {
+        if (trackedSessionId != null) {
+            return Optional.empty();
+        }
+        val value = getSession(context).values.get(key);
+        LOGGER.debug("Get value: {} for key: {}", value, key);
+        return Optional.ofNullable(value);
+    }
+
+    @Override
+    public void set(final WebContext context, final String key, final Object value) {
+        if (trackedSessionId != null) {
+            LOGGER.debug("Ignore the value for key: {}, the session: {} is only tracked", key, trackedSessionId);
+            return;
+        }
+        val session = getSession(context);
+        if (value == null) {
+            if (session.values.remove(key) == null) {
+                return;
+            }
+        } else {
+            session.values.put(key, value);
+        }
+        if (session.id == null) {
+            session.id = CommonHelper.randomString(32);
+        }
+        LOGGER.debug("Set key: {} for value: {}", key, value);
+        update(context, session);
+    }
+
+    @Override
+    public boolean destroySession(final WebContext context) {
+        if (trackedSessionId != null) {
+            revoke(trackedSessionId);
+            return revocationStore != null;
+        }
+        val session = getSession(context);
+        LOGGER.debug("Destroy session: {}", session.id);
+        revoke(session.id);
+        session.id = null;
+        session.values.clear();
+        update(context, session);
+        return true;
+    }
+
+    @Override
+    public Optional<Object> getTrackableSession(final WebContext context) {
+        if (revocationStore == null) {
+            LOGGER.debug("No revocation store: the session is not trackable");
+            return Optional.empty();
+        }
+        return getSessionId(context, false).map(id -> (Object) id);
+    }
+
+    @Override
+    public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+        if (revocationStore != null && trackableSession instanceof String sessionId) {
+            LOGGER.debug("Rebuild session from trackable session: {}", sessionId);
+            val sessionStore = new JwtCookieSessionStore(signatureConfiguration, encryptionConfiguration);
+            sessionStore.setRevocationStore(revocationStore);
+            sessionStore.setTimeout(timeout);
+            sessionStore.setDeferredWrite(deferredWrite);
+            sessionStore.trackedSessionId = sessionId;
+            return Optional.of(sessionStore);
+        } else {
+            LOGGER.debug("Unable to build session from trackable session");
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean renewSession(final WebContext context) {
+        if (trackedSessionId != null) {
+            return false;
+        }
+        val session = getSession(context);
+        revoke(session.id);
+        session.id = CommonHelper.randomString(32);
+        LOGGER.debug("Renew session: {}", session.id);
+        update(context, session);
+        return true;
+    }
+
+    protected void revoke(final String sessionId) {
+        if (revocationStore != null && sessionId != null) {
+            LOGGER.debug("Revoke session: {}", sessionId);
+            revocationStore.set(sessionId, Boolean.TRUE, timeout, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Write the cookies of the modified session now or at the next flush.
+     *
+     * @param context the web context
+     * @param session the session
+     */
+    protected void update(final WebContext context, final CookieSession session) {
+        if (deferredWrite) {
+            session.modified = true;
+            BufferedSessionStore.deferWrite(context, getAttributeName(), this::flush);
+        } else {
+            write(context, session);
+        }
+    }
+
+    /**
+     * Write the cookies of the session if it has been modified since the last write.
+     *
+     * @param context the web context
+     */
+    public void flush(final WebContext context) {
+        val session = getSession(context);
+        if (session.modified) {
+            session.modified = false;
+            write(context, session);
+        }
+    }
+
+    private String getAttributeName() {
+        return JwtCookieSessionStore.class.getName() + "." + cookieName;
+    }
+
+    /**
+     * Get the session of the current request, read from the cookies on first access.
+     *
+     * @param context the web context
+     * @return the session
+     */
+    protected CookieSession getSession(final WebContext context) {
+        val attributeName = getAttributeName();
+        val cached = context.getRequestAttribute(attributeName);
+        if (cached.isPresent()) {
+            return (CookieSession) cached.get();
+        }
+        val session = new CookieSession();
+        val chunks = new TreeMap<Integer, String>();
+        val prefix = cookieName + "_";
+        for (val cookie : context.getRequestCookies()) {
+            val name = cookie.getName();
+            if (name != null && name.startsWith(prefix)) {
+                try {
+                    chunks.put(Integer.parseInt(name.substring(prefix.length())), cookie.getValue());
+                } catch (final NumberFormatException e) {
+                    LOGGER.debug("Ignore cookie: {}", name);
+                }
+            }
+        }
+        session.nbChunks = chunks.isEmpty() ? 0 : chunks.lastKey() + 1;
+        val token = new StringBuilder();
+        for (var i = 0; i < session.nbChunks; i++) {
+            val chunk = chunks.get(i);
+            if (chunk == null) {
+                token.setLength(0);
+                break;
+            }
+            token.append(chunk);
+        }
+        if (token.length() > 0) {
+            read(token.toString(), session);
+        }
+        context.setRequestAttribute(attributeName, session);
+        return session;
+    }
+
+    protected void read(final String token, final CookieSession session) {
+        try {
+            CommonHelper.assertNotNull("signatureConfiguration", signatureConfiguration);
+            CommonHelper.assertNotNull("encryptionConfiguration", encryptionConfiguration);
+
+            if (!(JWTParser.parse(token) instanceof EncryptedJWT encryptedJWT)) {
+                LOGGER.warn("Session cookie rejected: it is not encrypted");
+                return;
+            }
+            encryptionConfiguration.decrypt(encryptedJWT);
+            val signedJWT = encryptedJWT.getPayload().toSignedJWT();
+            if (signedJWT == null || !signatureConfiguration.verify(signedJWT)) {
+                LOGGER.warn("Session cookie rejected: its signature is not valid");
+                return;
+            }
+            val claims = signedJWT.getJWTClaimsSet();
+            val expirationTime = claims.getExpirationTime();
+            if (expirationTime == null || expirationTime.before(new Date())) {
+                LOGGER.debug("Session cookie expired");
+                return;
+            }
+            val sessionId = claims.getStringClaim(SESSION_ID_CLAIM);
+            if (sessionId == null || revocationStore != null && revocationStore.get(sessionId).isPresent()) {
+                LOGGER.debug("Session revoked: {}", sessionId);
+                return;
+            }
+            val values = deserialize(Base64.getUrlDecoder().decode(claims.getStringClaim(DATA_CLAIM)));
+            session.id = sessionId;
+            session.values.putAll(values);
+        } catch (final ParseException | JOSEException | DataFormatException | RuntimeException e) {
+            LOGGER.warn("Session cookie rejected: {}", e.getMessage());
+            LOGGER.debug("Cannot read the session cookie", e);
+        }
+    }
+
+    protected void write(final WebContext context, final CookieSession session) {
+        String token = null;
+        if (session.id != null) {
+            CommonHelper.assertNotNull("signatureConfiguration", signatureConfiguration);
+            CommonHelper.assertNotNull("encryptionConfiguration", encryptionConfiguration);
+
+            val claims = new JWTClaimsSet.Builder()
+                .claim(SESSION_ID_CLAIM, session.id)
+                .claim(DATA_CLAIM, Base64.getUrlEncoder().withoutPadding().encodeToString(serialize(session.values)))
+                .issueTime(new Date())
+                .expirationTime(new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout)))
+                .build();
+            token = encryptionConfiguration.encrypt(signatureConfiguration.sign(claims));
+        }
+
+        val nbChunks = token == null ? 0 : (token.length() + maxChunkSize - 1) / maxChunkSize;
+        if (nbChunks > maxChunks) {
+            throw new TechnicalException("The session is too large for its cookies: " + token.length() + " characters for "
+                + maxChunks + " cookies of " + maxChunkSize + " characters, keys: " + session.values.keySet());
+        }
+        for (var i = 0; i < nbChunks; i++) {
+            val end = Math.min(token.length(), (i + 1) * maxChunkSize);
+            context.addResponseCookie(buildCookie(context, i, token.substring(i * maxChunkSize, end), timeout));
+        }
+        // expire the chunks which are no longer used
+        for (var i = nbChunks; i < session.nbChunks; i++) {
+            context.addResponseCookie(buildCookie(context, i, "", 0));
+        }
+        session.nbChunks = Math.max(session.nbChunks, nbChunks);
+    }
+
+    protected Cookie buildCookie(final WebContext context, final int index, final String value, final int maxAge) {
+        val cookie = new Cookie(cookieName + "_" + index, value);
+        if (CommonHelper.isNotBlank(domain)) {
+            cookie.setDomain(domain);
+        }
+        if (CommonHelper.isNotBlank(path)) {
+            cookie.setPath(path);
+        }
+        cookie.setHttpOnly(httpOnly);
+        cookie.setSecure(secure);
+        cookie.setMaxAge(maxAge);
+        if (CommonHelper.isNotBlank(sameSitePolicy)) {
+            cookie.setSameSitePolicy(sameSitePolicy);
+        }
+        return cookie;
+    }
+
+    protected byte[] serialize(final Map<String, Object> values) {
+        val bytes = serializer.serializeToBytes(new HashMap<>(values));
+        if (bytes == null) {
+            throw new TechnicalException("Cannot serialize the session, keys: " + values.keySet());
+        }
+        val out = new ByteArrayOutputStream(bytes.length + 1);
+        if (compressionThreshold >= 0 && bytes.length > compressionThreshold) {
+            out.write(FLAG_COMPRESSED);
+            val deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                deflater.setInput(bytes);
+                deflater.finish();
+                val chunk = new byte[1024];
+                while (!deflater.finished()) {
+                    val n = deflater.deflate(chunk);
+                    out.write(chunk, 0, n);
+                }
+            } finally {
+                deflater.end();
+            }
+        } else {
+            out.write(0);
+            out.write(bytes, 0, bytes.length);
+        }
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Map<String, Object> deserialize(final byte[] bytes) throws DataFormatException {
+        if (bytes.length == 0) {
+            throw new TechnicalException("Empty session data");
+        }
+        var data = Arrays.copyOfRange(bytes, 1, bytes.length);
+        if ((bytes[0] & FLAG_COMPRESSED) != 0) {
+            val out = new ByteArrayOutputStream(data.length * 4);
+            val inflater = new Inflater();
+            try {
+                inflater.setInput(data);
+                val chunk = new byte[1024];
+                while (!inflater.finished()) {
+                    val n = inflater.inflate(chunk);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new DataFormatException("Truncated session data");
+                    }
+                    out.write(chunk, 0, n);
+                    if (out.size() > MAX_UNCOMPRESSED_SIZE) {
+                        throw new DataFormatException("Session data too large");
+                    }
+                }
+            } finally {
+                inflater.end();
+            }
+            data = out.toByteArray();
+        }
+        val values = serializer.deserializeFromBytes(data);
+        if (!(values instanceof Map)) {
+            throw new TechnicalException("Cannot deserialize the session data");
+        }
+        return (Map<String, Object>) values;
+    }
+
+    /**
+     * The session read from the cookies of the current request.
+     */
+    protected static final class CookieSession {
+
+        private String id;
+
+        private final Map<String, Object> values = new HashMap<>();
+
+        private int nbChunks;
+
+        private boolean modified;
+    }
+}
@@ -0,0 +1,226 @@
+package org.pac4j.jwt.context.session;
+
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.BufferedSessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.jwt.config.encryption.SecretEncryptionConfiguration;
+import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JwtCookieSessionStore}.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public final class JwtCookieSessionStoreTests implements TestsConstants {
+
+    private JwtCookieSessionStore store;
+
+    @Before
+    public void setUp() {
+        store = new JwtCookieSessionStore(new SecretSignatureConfiguration(MAC_SECRET), new SecretEncryptionConfiguration(MAC_SECRET));
+    }
+
+    private static MockWebContext nextRequest(final MockWebContext context) {
+        BufferedSessionStore.flush(context);
+        val cookies = new LinkedHashMap<String, Cookie>();
+        for (val cookie : context.getRequestCookies()) {
+            cookies.put(cookie.getName(), cookie);
+        }
+        for (val cookie : context.getResponseCookies()) {
+            if (cookie.getMaxAge() == 0) {
+                cookies.remove(cookie.getName());
+            } else {
+                cookies.put(cookie.getName(), cookie);
+            }
+        }
+        val newContext = MockWebContext.create();
+        newContext.getRequestCookies().addAll(cookies.values());
+        return newContext;
+    }
+
+    @Test
+    public void testNoSession() {
+        val context = MockWebContext.create();
+        assertTrue(store.getSessionId(context, false).isEmpty());
+        assertTrue(store.get(context, KEY).isEmpty());
+        assertTrue(context.getResponseCookies().isEmpty());
+    }
+
+    @Test
+    public void testSetGet() {
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        val sessionId = store.getSessionId(context, false).get();
+        assertEquals(VALUE, store.get(context, KEY).get());
+
+        val context2 = nextRequest(context);
+        assertEquals(sessionId, store.getSessionId(context2, false).get());
+        assertEquals(VALUE, store.get(context2, KEY).get());
+        store.set(context2, KEY, null);
+
+        val context3 = nextRequest(context2);
+        assertEquals(sessionId, store.getSessionId(context3, false).get());
+        assertTrue(store.get(context3, KEY).isEmpty());
+    }
+
+    @Test
+    public void testCookiesWrittenOnce() {
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        store.set(context, NAME, VALUE);
+        store.renewSession(context);
+        assertTrue(context.getResponseCookies().isEmpty());
+        assertTrue(BufferedSessionStore.flush(context));
+        assertEquals(1, context.getResponseCookies().size());
+        assertFalse(BufferedSessionStore.flush(context));
+        assertEquals(1, context.getResponseCookies().size());
+        val context2 = nextRequest(context);
+        assertEquals(VALUE, store.get(context2, KEY).get());
+        assertEquals(VALUE, store.get(context2, NAME).get());
+    }
+
+    @Test
+    public void testNotDeferredWrite() {
+        store.setDeferredWrite(false);
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        assertEquals(1, context.getResponseCookies().size());
+        store.set(context, NAME, VALUE);
+        assertEquals(2, context.getResponseCookies().size());
+        assertEquals(VALUE, store.get(nextRequest(context), NAME).get());
+    }
+
+    @Test
+    public void testCreateSession() {
+        val context = MockWebContext.create();
+        val sessionId = store.getSessionId(context, true).get();
+        assertEquals(sessionId, store.getSessionId(nextRequest(context), false).get());
+    }
+
+    @Test
+    public void testCookiesAreProtected() {
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        BufferedSessionStore.flush(context);
+        val cookie = context.getResponseCookies().iterator().next();
+        assertEquals("pac4jSession_0", cookie.getName());
+        assertTrue(cookie.isHttpOnly());
+        assertTrue(cookie.isSecure());
+        assertEquals("None", cookie.getSameSitePolicy());
+        assertFalse(cookie.getValue().contains(VALUE));
+
+        val otherStore = new JwtCookieSessionStore(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(BASE64_256_BIT_ENC_SECRET.substring(0, 32)));
+        assertTrue(otherStore.get(nextRequest(context), KEY).isEmpty());
+
+        val context2 = MockWebContext.create();
+        context2.getRequestCookies().add(new Cookie("pac4jSession_0", cookie.getValue().substring(1)));
+        assertTrue(store.get(context2, KEY).isEmpty());
+    }
+
+    @Test
+    public void testChunks() {
+        store.setMaxChunkSize(200);
+        store.setMaxChunks(20);
+        val context = MockWebContext.create();
+        store.set(context, KEY, CommonHelper.randomString(1000));
+        val value = store.get(context, KEY).get();
+        BufferedSessionStore.flush(context);
+        assertTrue(context.getResponseCookies().size() > 1);
+        for (val cookie : context.getResponseCookies()) {
+            assertTrue(cookie.getValue().length() <= 200);
+        }
+
+        val context2 = nextRequest(context);
+        assertEquals(value, store.get(context2, KEY).get());
+        store.set(context2, KEY, VALUE);
+        BufferedSessionStore.flush(context2);
+        val expired = context2.getResponseCookies().stream().filter(c -> c.getMaxAge() == 0).count();
+        assertTrue(expired > 0);
+
+        assertEquals(VALUE, store.get(nextRequest(context2), KEY).get());
+    }
+
+    @Test
+    public void testCompression() {
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE.repeat(1000));
+        BufferedSessionStore.flush(context);
+        assertEquals(1, context.getResponseCookies().size());
+        assertEquals(VALUE.repeat(1000), store.get(nextRequest(context), KEY).get());
+    }
+
+    @Test
+    public void testTooLarge() {
+        store.setMaxChunks(1);
+        val context = MockWebContext.create();
+        store.set(context, KEY, CommonHelper.randomString(5000));
+        val e = TestsHelper.expectException(() -> BufferedSessionStore.flush(context));
+        assertTrue(e instanceof TechnicalException);
+        assertTrue(e.getMessage().startsWith("The session is too large for its cookies"));
+        assertTrue(context.getResponseCookies().isEmpty());
+    }
+
+    @Test
+    public void testDestroySession() {
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        val context2 = nextRequest(context);
+        assertTrue(store.destroySession(context2));
+        assertTrue(store.get(context2, KEY).isEmpty());
+        BufferedSessionStore.flush(context2);
+        assertEquals(0, context2.getResponseCookies().iterator().next().getMaxAge());
+        assertTrue(store.getSessionId(nextRequest(context2), false).isEmpty());
+    }
+
+    @Test
+    public void testRenewSession() {
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        val sessionId = store.getSessionId(context, false).get();
+        assertTrue(store.renewSession(context));
+        val newSessionId = store.getSessionId(context, false).get();
+        assertNotEquals(sessionId, newSessionId);
+        val context2 = nextRequest(context);
+        assertEquals(newSessionId, store.getSessionId(context2, false).get());
+        assertEquals(VALUE, store.get(context2, KEY).get());
+    }
+
+    @Test
+    public void testNotTrackableWithoutRevocationStore() {
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        assertTrue(store.getTrackableSession(context).isEmpty());
+        assertTrue(store.buildFromTrackableSession(context, ID).isEmpty());
+    }
+
+    @Test
+    public void testBackChannelLogout() {
+        store.setRevocationStore(new GuavaStore<>(100, 1, TimeUnit.HOURS));
+        val context = MockWebContext.create();
+        store.set(context, KEY, VALUE);
+        val trackableSession = store.getTrackableSession(context).get();
+
+        val logoutContext = MockWebContext.create();
+        val trackedStore = store.buildFromTrackableSession(logoutContext, trackableSession).get();
+        assertEquals(trackableSession, trackedStore.getSessionId(logoutContext, true).get());
+        assertTrue(trackedStore.destroySession(logoutContext));
+        assertTrue(logoutContext.getResponseCookies().isEmpty());
+
+        assertTrue(store.get(nextRequest(context), KEY).isEmpty());
+    }
+}